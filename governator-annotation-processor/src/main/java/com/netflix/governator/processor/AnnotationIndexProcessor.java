@@ -0,0 +1,136 @@
+package com.netflix.governator.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of the classes in which the scanned annotations appear,
+ * either on the class itself or on one of its members.  At runtime ScanningModuleBuilder and
+ * ClasspathScanner read the index, when enabled, instead of walking the jar or directory that
+ * contains it.
+ *
+ * The index is written to {@value #INDEX_RESOURCE} and lists each indexed annotation, prefixed
+ * with '@', followed by the binary names of the classes in which it appears.  An annotation is
+ * listed even if it doesn't appear anywhere so the index can tell 'not present' from 'not indexed'.
+ *
+ * By default the annotations found by LifecycleInjector's standard classpath scanner are indexed.
+ * Additional annotations, e.g. those of custom AnnotatedClassScanners, are specified as a comma
+ * separated list of fully qualified names with the {@value #ANNOTATIONS_OPTION} option
+ *
+ * <pre>
+ * compileJava.options.compilerArgs += ['-Agovernator.index.annotations=org.example.AutoBindFoo']
+ * </pre>
+ *
+ * Incremental compilers that only recompile some of the sources will write an incomplete index.
+ * Always build the published jars from a clean build.
+ */
+@SupportedOptions(AnnotationIndexProcessor.ANNOTATIONS_OPTION)
+public class AnnotationIndexProcessor extends AbstractProcessor {
+    /**
+     * Must match com.netflix.governator.internal.scanner.AnnotationIndex.RESOURCE
+     */
+    public static final String INDEX_RESOURCE = "META-INF/governator/annotated-classes.index";
+
+    public static final String ANNOTATIONS_OPTION = "governator.index.annotations";
+
+    private static final String[] DEFAULT_ANNOTATIONS = {
+        "com.netflix.governator.annotations.AutoBindSingleton",
+        "com.google.inject.Inject",
+        "javax.inject.Inject",
+        "javax.annotation.Resource",
+        "javax.annotation.Resources",
+    };
+
+    // Annotation name -> binary names of the classes in which it appears
+    private final Map<String, Set<String>> index = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        Arrays.stream(DEFAULT_ANNOTATIONS).forEach(name -> index.put(name, new TreeSet<>()));
+        String additional = processingEnv.getOptions().get(ANNOTATIONS_OPTION);
+        if (additional != null) {
+            for (String name : additional.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    index.computeIfAbsent(name.trim(), n -> new TreeSet<>());
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        // Annotations are matched by name in process() so they needn't be on the processor's classpath
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            Set<String> classes = index.get(annotation.getQualifiedName().toString());
+            if (classes == null) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement type = enclosingType(element);
+                if (type != null) {
+                    classes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                }
+            }
+        }
+        // Don't claim the annotations so other processors still see them
+        return false;
+    }
+
+    private static TypeElement enclosingType(Element element) {
+        while (element != null && !(element instanceof TypeElement)) {
+            element = element.getEnclosingElement();
+        }
+        return (TypeElement) element;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    writer.write("@" + entry.getKey() + "\n");
+                    for (String className : entry.getValue()) {
+                        writer.write(className + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.netflix.governator.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AnnotationIndexProcessorTest {
+    private static Path write(Path dir, String className, String source) throws IOException {
+        Path file = dir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> compile(String... sources) throws IOException {
+        Path dir = Files.createTempDirectory("governator-index");
+        Path out = Files.createDirectories(dir.resolve("classes"));
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            files.add(write(dir.resolve("src"), sources[i], sources[i + 1]).toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-d", out.toString(), "-proc:only", "-A" + AnnotationIndexProcessor.ANNOTATIONS_OPTION + "=org.example.Marker"),
+                    null, units);
+            task.setProcessors(Arrays.asList(new AnnotationIndexProcessor()));
+            Assert.assertTrue(task.call());
+        }
+        return Files.readAllLines(out.resolve(AnnotationIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void indexesClassesWithAnnotatedTypesAndMembers() throws IOException {
+        List<String> index = compile(
+                "org.example.Marker",   "package org.example; public @interface Marker {}",
+                "org.example.Foo",      "package org.example; @Marker public class Foo {}",
+                "org.example.Bar",      "package org.example; public class Bar { static class Inner { @Marker void method() {} } }",
+                "org.example.Baz",      "package org.example; public class Baz { void method(@Marker String arg) {} }",
+                "org.example.NotFound", "package org.example; public class NotFound {}");
+
+        int pos = index.indexOf("@org.example.Marker");
+        Assert.assertTrue(pos >= 0);
+        Assert.assertEquals(Arrays.asList("org.example.Bar$Inner", "org.example.Baz", "org.example.Foo"), index.subList(pos + 1, pos + 4));
+        Assert.assertFalse(index.contains("org.example.NotFound"));
+    }
+
+    @Test
+    public void listsDefaultAnnotationsThatDontAppear() throws IOException {
+        List<String> index = compile("org.example.Foo", "package org.example; public class Foo {}");
+
+        Assert.assertTrue(index.contains("@com.netflix.governator.annotations.AutoBindSingleton"));
+        Assert.assertTrue(index.contains("@javax.inject.Inject"));
+        Assert.assertTrue(index.contains("@org.example.Marker"));
+        Assert.assertEquals(6, index.size());
+    }
+}
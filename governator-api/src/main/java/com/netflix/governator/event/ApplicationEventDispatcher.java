@@ -1,6 +1,9 @@
 package com.netflix.governator.event;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for publishing {@link ApplicationEvent}s as well as programmatically registering
@@ -14,6 +17,54 @@ public interface ApplicationEventDispatcher {
 
     ApplicationEventRegistration registerListener(Object instance, Method method, Class<? extends ApplicationEvent> acceptedType);
 
+    /**
+     * Register a listener that receives events in batches.  Dispatchers without native support for
+     * batches deliver each event in a batch of its own.
+     *
+     * @param eventType Type of events delivered to the listener, including subtypes
+     * @param eventListener The listener
+     * @return Registration with which to unregister the listener
+     */
+    default <T extends ApplicationEvent> ApplicationEventRegistration registerBatchListener(Class<T> eventType, BatchApplicationEventListener<T> eventListener) {
+        return registerListener(eventType, event -> eventListener.onEvents(Collections.singletonList(event)));
+    }
+
     void publishEvent(ApplicationEvent event);
 
+    /**
+     * Publish several events at once.  Each batch listener receives all the events it accepts
+     * in a single call, in iteration order, and other listeners receive them one by one.
+     * Dispatchers without native support for batches publish each event separately.
+     *
+     * @param events The events to publish
+     */
+    default void publishEvents(Collection<? extends ApplicationEvent> events) {
+        for (ApplicationEvent event : events) {
+            publishEvent(event);
+        }
+    }
+
+    /**
+     * Publish an event and get notified once it has been delivered to all of its listeners.
+     * Dispatchers that deliver events on the calling thread return a future that is already
+     * complete.  The future is cancelled if an asynchronous dispatcher drops the event.
+     * Exceptions thrown by listeners are handled by the dispatcher, as they are for
+     * {@link #publishEvent(ApplicationEvent)}, and don't fail the future.  It only completes
+     * exceptionally if the dispatcher itself fails to publish the event.
+     *
+     * @param event The event to publish
+     * @return Future completed once the event has been delivered
+     */
+    default CompletableFuture<Void> publishEventAsync(ApplicationEvent event) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            publishEvent(event);
+            future.complete(null);
+        }
+        catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
 }
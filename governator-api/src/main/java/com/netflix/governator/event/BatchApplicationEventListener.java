@@ -0,0 +1,18 @@
+package com.netflix.governator.event;
+
+import java.util.List;
+
+/**
+ * Interface for receiving events of a given type in batches, for listeners that can do bulk work
+ * such as invalidating many cache entries at once.  Can be registered explicitly via
+ * {@link ApplicationEventDispatcher#registerBatchListener(Class, BatchApplicationEventListener)}
+ * or implicitly in Guice by detecting all bindings for instances of this interface.
+ *
+ * Each call receives the matching events of a single {@link ApplicationEventDispatcher#publishEvents(java.util.Collection)}
+ * call, in the order they were published, unless the listener coalesces them further.
+ */
+public interface BatchApplicationEventListener<T extends ApplicationEvent> {
+
+    void onEvents(List<T> events);
+
+}
@@ -0,0 +1,15 @@
+package com.netflix.governator.event;
+
+/**
+ * {@link ApplicationEvent} that must be delivered in the order it was published relative to 
+ * other events with an equal ordering key, such as all events for the same entity.  Dispatchers
+ * that deliver events on the calling thread preserve the publishing order anyway.  Asynchronous
+ * dispatchers only guarantee the order of events published with the same key, or of the same
+ * class for events that don't implement this interface.
+ */
+public interface OrderedApplicationEvent extends ApplicationEvent {
+    /**
+     * @return Key, with consistent equals() and hashCode(), of the events this event is ordered with
+     */
+    Object getOrderingKey();
+}
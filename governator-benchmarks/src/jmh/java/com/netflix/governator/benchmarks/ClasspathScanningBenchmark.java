@@ -0,0 +1,62 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.netflix.governator.AutoBindSingletonAnnotatedClassScanner;
+import com.netflix.governator.ScanningModuleBuilder;
+import com.netflix.governator.guice.lazy.LazySingleton;
+import com.netflix.governator.lifecycle.ClasspathScanner;
+
+/**
+ * Time to scan Governator's own packages, which span several jars, for annotated classes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClasspathScanningBenchmark {
+    @Param({"com.netflix.governator"})
+    String basePackage;
+
+    /**
+     * Threads used by the legacy scanner.  Not used by ScanningModuleBuilder.
+     */
+    @Param({"1", "4"})
+    int parallelism;
+
+    /**
+     * Legacy ASM based scanner used by LifecycleInjectorBuilder
+     */
+    @Benchmark
+    public Object classpathScanner() {
+        return new ClasspathScanner(Collections.singleton(basePackage), Collections.singleton(LazySingleton.class), 
+                Thread.currentThread().getContextClassLoader(), false, parallelism).getClasses();
+    }
+
+    /**
+     * Class loading scanner used by ScanningModuleBuilder, including creating an injector for the result
+     */
+    @Benchmark
+    public Injector scanningModuleBuilder() {
+        return Guice.createInjector(new ScanningModuleBuilder()
+                .forPackages(basePackage)
+                .addScanner(new AutoBindSingletonAnnotatedClassScanner())
+                .build());
+    }
+}
@@ -0,0 +1,75 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
+import com.netflix.governator.event.ApplicationEvent;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.guava.GuavaApplicationEventModule;
+import com.netflix.governator.event.indexed.IndexedApplicationEventModule;
+
+/**
+ * Cost of publishing an event to a number of listeners of its type, with the same number of 
+ * listeners registered for another event type, using either the Guava EventBus based dispatcher
+ * or the dispatcher that indexes listeners by event type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventPublishBenchmark {
+    public static class TestEvent implements ApplicationEvent {
+    }
+
+    public static class OtherEvent implements ApplicationEvent {
+    }
+
+    @Param({"1", "10", "100"})
+    int listeners;
+
+    @Param({"guava", "indexed"})
+    String dispatcherType;
+
+    private LifecycleInjector injector;
+    private ApplicationEventDispatcher dispatcher;
+    private final TestEvent event = new TestEvent();
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        injector = InjectorBuilder.fromModule("indexed".equals(dispatcherType)
+                ? new IndexedApplicationEventModule()
+                : new GuavaApplicationEventModule()).createInjector();
+        dispatcher = injector.getInstance(ApplicationEventDispatcher.class);
+        for (int i = 0; i < listeners; i++) {
+            dispatcher.registerListener(TestEvent.class, blackhole::consume);
+            dispatcher.registerListener(OtherEvent.class, blackhole::consume);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        injector.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        dispatcher.publishEvent(event);
+    }
+}
@@ -0,0 +1,178 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.name.Names;
+import com.netflix.governator.guice.lazy.FineGrainedLazySingletonScope;
+
+/**
+ * Cost of accessing FineGrainedLazySingletons from 8 threads at once.  firstAccess scopes a new
+ * provider on every invocation so that each access takes the creation path and locks.  sharedAccess
+ * has all threads read the same, already created, singleton.  contendedFirstAccess has all threads
+ * race to create the same provider, comparing the per binding lock with the global monitor the scope
+ * used to find its per key locks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FineGrainedLazySingletonBenchmark {
+    private static final AtomicInteger threadIds = new AtomicInteger();
+
+    private final Provider<Object> creator = new Provider<Object>() {
+        @Override
+        public Object get() {
+            return new Object();
+        }
+    };
+
+    private Provider<Object> shared;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        Key<Object> key;
+
+        @Setup
+        public void setup() {
+            key = Key.get(Object.class, Names.named("thread-" + threadIds.getAndIncrement()));
+        }
+    }
+
+    /**
+     * Provider that all threads of the group race to create.  Creating it publishes a fresh one, so
+     * there is always a provider being created, rather than relying on per invocation setup which
+     * doesn't line threads up.
+     */
+    @State(Scope.Group)
+    public static class Race {
+        @Param({"perBinding", "globalMonitor"})
+        String lock;
+
+        private final AtomicInteger generation = new AtomicInteger();
+        private com.google.inject.Scope scope;
+        volatile Provider<Object> current;
+
+        @Setup
+        public void setup() {
+            scope = lock.equals("perBinding") ? FineGrainedLazySingletonScope.get() : new GlobalMonitorScope();
+            next();
+        }
+
+        private void next() {
+            current = scope.scope(Key.get(Object.class, Names.named("race-" + generation.getAndIncrement())), new Provider<Object>() {
+                @Override
+                public Object get() {
+                    next();
+                    // Long enough for the other threads to find the lock taken
+                    Blackhole.consumeCPU(100);
+                    return new Object();
+                }
+            });
+        }
+    }
+
+    /**
+     * Locking of FineGrainedLazySingletonScope before each provider owned its lock: a lock per key
+     * looked up and reference counted in a map guarded by a single monitor
+     */
+    static class GlobalMonitorScope implements com.google.inject.Scope {
+        private static final Map<Key<?>, LockRecord> locks = new HashMap<>();
+
+        private static class LockRecord {
+            private final Object lock = new Object();
+            private int useCount = 0;
+        }
+
+        @Override
+        public <T> Provider<T> scope(final Key<T> key, final Provider<T> creator) {
+            return new Provider<T>() {
+                private volatile T instance;
+
+                @Override
+                public T get() {
+                    if (instance == null) {
+                        try {
+                            synchronized (getLock(key)) {
+                                if (instance == null) {
+                                    instance = creator.get();
+                                }
+                            }
+                        }
+                        finally {
+                            releaseLock(key);
+                        }
+                    }
+                    return instance;
+                }
+            };
+        }
+
+        private static Object getLock(Key<?> key) {
+            synchronized (locks) {
+                LockRecord lock = locks.get(key);
+                if (lock == null) {
+                    lock = new LockRecord();
+                    locks.put(key, lock);
+                }
+                ++lock.useCount;
+                return lock.lock;
+            }
+        }
+
+        private static void releaseLock(Key<?> key) {
+            synchronized (locks) {
+                LockRecord lock = locks.get(key);
+                if (lock != null && --lock.useCount <= 0) {
+                    locks.remove(key);
+                }
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        shared = FineGrainedLazySingletonScope.get().scope(Key.get(Object.class, Names.named("shared")), creator);
+        shared.get();
+    }
+
+    @Benchmark
+    public Object firstAccess(ThreadKey threadKey) {
+        return FineGrainedLazySingletonScope.get().scope(threadKey.key, creator).get();
+    }
+
+    @Benchmark
+    public Object sharedAccess() {
+        return shared.get();
+    }
+
+    @Benchmark
+    @Group("contendedFirstAccess")
+    @GroupThreads(8)
+    public Object contendedFirstAccess(Race race) {
+        return race.current.get();
+    }
+}
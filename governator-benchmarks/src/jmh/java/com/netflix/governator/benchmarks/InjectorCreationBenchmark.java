@@ -0,0 +1,71 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
+
+/**
+ * Time to create an injector for eager singletons with plain Guice and with Governator, which 
+ * adds LifecycleModule, ProvisionMetricsModule and LifecycleListenerModule
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InjectorCreationBenchmark {
+    @Param({"100", "1000"})
+    int bindings;
+
+    @Param({"1", "4"})
+    int depth;
+
+    @Param({"0.0", "0.5"})
+    double lifecycleFraction;
+
+    private Module module;
+    private LifecycleInjector lifecycleInjector;
+
+    @Setup
+    public void setup() {
+        module = SyntheticModules.create(bindings, depth, lifecycleFraction, SyntheticModules.Scoping.EAGER_SINGLETON);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeInjector() {
+        if (lifecycleInjector != null) {
+            lifecycleInjector.close();
+            lifecycleInjector = null;
+        }
+    }
+
+    @Benchmark
+    public Injector guice() {
+        return Guice.createInjector(module);
+    }
+
+    @Benchmark
+    public Injector governator() {
+        lifecycleInjector = InjectorBuilder.fromModule(module).createInjector();
+        return lifecycleInjector;
+    }
+}
@@ -0,0 +1,68 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Injector;
+import com.netflix.governator.GovernatorFeature;
+import com.netflix.governator.GovernatorFeatures;
+import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
+import com.netflix.governator.LifecycleInjectorCreator;
+
+/**
+ * Time to shut down an injector, i.e. PreDestroyMonitor.close(), for singletons and unscoped 
+ * instances that all have @PreDestroy methods
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+public class PreDestroyBenchmark {
+    @Param({"100", "1000"})
+    int instances;
+
+    @Param({"1", "4"})
+    int depth;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    private LifecycleInjector injector;
+    // Unscoped instances are only weakly referenced by the injector
+    private Object[] unscoped;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.PARALLEL_PRE_DESTROY, parallel);
+        injector = InjectorBuilder
+                .fromModule(SyntheticModules.create(instances, depth, 1.0, SyntheticModules.Scoping.EAGER_SINGLETON))
+                .createInjector(new LifecycleInjectorCreator().withFeatures(features));
+        unscoped = new Object[instances];
+        for (int i = 0; i < instances; i++) {
+            unscoped[i] = injector.getInstance(SyntheticModules.LifecycleNode.class);
+        }
+    }
+
+    @Benchmark
+    public Injector close() {
+        injector.close();
+        return injector;
+    }
+}
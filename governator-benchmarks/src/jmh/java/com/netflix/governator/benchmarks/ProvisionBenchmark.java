@@ -0,0 +1,117 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.util.Modules;
+import com.netflix.governator.GovernatorFeature;
+import com.netflix.governator.GovernatorFeatures;
+import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
+import com.netflix.governator.LifecycleInjectorCreator;
+import com.netflix.governator.benchmarks.SyntheticModules.LifecycleNode;
+import com.netflix.governator.benchmarks.SyntheticModules.Node;
+import com.netflix.governator.benchmarks.SyntheticModules.PlainNode;
+import com.netflix.governator.event.guava.GuavaApplicationEventModule;
+
+/**
+ * Cost of a single provision after the injector has started.  Comparing 'guice' to the other 
+ * modes shows the overhead of Governator's provision listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProvisionBenchmark {
+    @Param({"guice", "governator", "governatorWithEvents", "governatorWithRuntimeMetrics"})
+    String mode;
+
+    private Injector injector;
+    private Provider<PlainNode> plain;
+    private Provider<LifecycleNode> lifecycle;
+    private Provider<Node> singleton;
+    private Provider<Node> chain;
+
+    @Setup
+    public void setup() {
+        Module module = Modules.combine(
+            SyntheticModules.create(4, 4, 0.5, SyntheticModules.Scoping.UNSCOPED),
+            new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(Node.class).to(LifecycleNode.class).asEagerSingleton();
+                }
+            });
+
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        switch (mode) {
+        case "guice":
+            injector = Guice.createInjector(module);
+            break;
+        case "governatorWithEvents":
+            injector = InjectorBuilder.fromModules(module, new GuavaApplicationEventModule()).createInjector();
+            break;
+        case "governatorWithRuntimeMetrics":
+            features.put(GovernatorFeatures.RUNTIME_PROVISION_METRICS, true);
+            injector = InjectorBuilder.fromModule(module).createInjector(new LifecycleInjectorCreator().withFeatures(features));
+            break;
+        default:
+            injector = InjectorBuilder.fromModule(module).createInjector();
+        }
+
+        plain = injector.getProvider(PlainNode.class);
+        lifecycle = injector.getProvider(LifecycleNode.class);
+        singleton = injector.getProvider(Node.class);
+        chain = injector.getProvider(SyntheticModules.keyOf(0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (injector instanceof LifecycleInjector) {
+            ((LifecycleInjector) injector).close();
+        }
+    }
+
+    @Benchmark
+    public Object unscoped() {
+        return plain.get();
+    }
+
+    @Benchmark
+    public Object unscopedWithLifecycle() {
+        return lifecycle.get();
+    }
+
+    @Benchmark
+    public Object singleton() {
+        return singleton.get();
+    }
+
+    /**
+     * Unscoped chain of 4 provisions, half of which have lifecycle methods
+     */
+    @Benchmark
+    public Object unscopedChain() {
+        return chain.get();
+    }
+}
@@ -0,0 +1,50 @@
+package com.netflix.governator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Key;
+import com.netflix.governator.RuntimeProvisionMetrics;
+
+/**
+ * Cost of recording a single provision latency, excluding reading the clock
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RuntimeProvisionMetricsBenchmark {
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final RuntimeProvisionMetrics metrics = new RuntimeProvisionMetrics();
+        final Key<?> key = Key.get(String.class);
+    }
+
+    private long latency;
+
+    @Benchmark
+    public void record(Shared shared) {
+        shared.metrics.record(shared.key, (latency++ & 0xFFFF) + 100);
+    }
+
+    /**
+     * All threads record to the same key
+     */
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Shared shared) {
+        shared.metrics.record(shared.key, (latency++ & 0xFFFF) + 100);
+    }
+}
@@ -0,0 +1,100 @@
+package com.netflix.governator.benchmarks;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+import com.google.inject.binder.ScopedBindingBuilder;
+import com.google.inject.name.Names;
+
+/**
+ * Generates modules with a configurable number of bindings, dependency depth and fraction of
+ * instances with lifecycle methods.
+ *
+ * Bindings are arranged in chains of 'depth' bindings where each binding depends on the next
+ * binding in its chain.  Every binding is for a distinct {@link Key} but instances are of one of
+ * two classes, so per type lifecycle metadata is only computed once per injector.
+ */
+public final class SyntheticModules {
+    public enum Scoping {
+        UNSCOPED,
+        SINGLETON,
+        EAGER_SINGLETON
+    }
+
+    public interface Node {
+    }
+
+    public static class PlainNode implements Node {
+    }
+
+    public static class LifecycleNode implements Node {
+        @PostConstruct
+        public void init() {
+        }
+
+        @PreDestroy
+        public void destroy() {
+        }
+    }
+
+    private static final class NodeProvider implements Provider<Node> {
+        private final Provider<Node> dependency;
+        private final boolean lifecycle;
+
+        NodeProvider(Provider<Node> dependency, boolean lifecycle) {
+            this.dependency = dependency;
+            this.lifecycle = lifecycle;
+        }
+
+        @Override
+        public Node get() {
+            if (dependency != null) {
+                dependency.get();
+            }
+            return lifecycle ? new LifecycleNode() : new PlainNode();
+        }
+    }
+
+    public static Key<Node> keyOf(int index) {
+        return Key.get(Node.class, Names.named("node-" + index));
+    }
+
+    /**
+     * @param bindings Number of bindings
+     * @param depth Length of each dependency chain, 1 for no dependencies
+     * @param lifecycleFraction Fraction of bindings whose instances have @PostConstruct and @PreDestroy methods
+     * @param scoping Scope of all bindings
+     */
+    public static Module create(final int bindings, final int depth, final double lifecycleFraction, final Scoping scoping) {
+        return new AbstractModule() {
+            @Override
+            protected void configure() {
+                final int lifecycleEvery = lifecycleFraction <= 0 ? 0 : (int) Math.round(1 / lifecycleFraction);
+                for (int i = 0; i < bindings; i++) {
+                    final boolean endOfChain = (i + 1) % depth == 0 || i + 1 == bindings;
+                    final Provider<Node> dependency = endOfChain ? null : getProvider(keyOf(i + 1));
+                    final boolean lifecycle = lifecycleEvery > 0 && i % lifecycleEvery == 0;
+                    final ScopedBindingBuilder builder = bind(keyOf(i)).toProvider(new NodeProvider(dependency, lifecycle));
+                    switch (scoping) {
+                    case SINGLETON:
+                        builder.in(Scopes.SINGLETON);
+                        break;
+                    case EAGER_SINGLETON:
+                        builder.asEagerSingleton();
+                        break;
+                    default:
+                        // unscoped
+                    }
+                }
+            }
+        };
+    }
+
+    private SyntheticModules() {
+    }
+}
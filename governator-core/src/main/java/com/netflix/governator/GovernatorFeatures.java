@@ -1,5 +1,6 @@
 package com.netflix.governator;
 
+import com.netflix.governator.event.async.EventOverflowPolicy;
 
 /**
  * Core Governator features.  Features are configured/enabled on {@link Governator}
@@ -22,4 +23,115 @@ public final class GovernatorFeatures  {
      */
     public static final GovernatorFeature<Boolean> STRICT_JSR250_VALIDATION = GovernatorFeature.create("Governator.features.strictJsr250Validation", false);
     
+    /**
+     * Provision eager singletons (and invoke their @PostConstruct methods) on a bounded thread pool 
+     * once the injector has been created instead of serially while Guice creates the injector.  
+     * Eager singletons are provisioned only after all the eager singletons they depend on so 
+     * independent subgraphs start concurrently.  Only explicit eager singletons are affected since 
+     * Guice instantiates all singletons itself in Stage.PRODUCTION.  Default is false.
+     */
+    public static final GovernatorFeature<Boolean> PARALLEL_EAGER_SINGLETONS = GovernatorFeature.create("Governator.features.parallelEagerSingletons", false);
+    
+    /**
+     * Maximum number of threads used to provision eager singletons when {@link #PARALLEL_EAGER_SINGLETONS}
+     * is enabled; default is the number of available processors
+     */
+    public static final GovernatorFeature<Integer> PARALLEL_EAGER_SINGLETONS_THREADS = GovernatorFeature.create("Governator.features.parallelEagerSingletons.threads", Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Invoke @PreDestroy methods of independent instances concurrently on shutdown.  Scopes are still 
+     * closed one after the other and, within a scope, dependents are destroyed before their dependencies
+     * as determined by the injector's bindings.  Default is false.
+     */
+    public static final GovernatorFeature<Boolean> PARALLEL_PRE_DESTROY = GovernatorFeature.create("Governator.features.parallelPreDestroy", false);
+    
+    /**
+     * Maximum number of threads used to invoke @PreDestroy methods when {@link #PARALLEL_PRE_DESTROY} 
+     * is enabled; default is the number of available processors
+     */
+    public static final GovernatorFeature<Integer> PARALLEL_PRE_DESTROY_THREADS = GovernatorFeature.create("Governator.features.parallelPreDestroy.threads", Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Time, in milliseconds, after which a @PreDestroy method that hasn't returned no longer holds up 
+     * the destruction of the instances it depends on when {@link #PARALLEL_PRE_DESTROY} is enabled.  
+     * The method is not interrupted.  0 for no limit; default is 30 seconds.
+     */
+    public static final GovernatorFeature<Long> PRE_DESTROY_ACTION_TIMEOUT_MS = GovernatorFeature.create("Governator.features.parallelPreDestroy.actionTimeoutMs", 30000L);
+    
+    /**
+     * Time, in milliseconds, after which no further @PreDestroy methods are invoked when 
+     * {@link #PARALLEL_PRE_DESTROY} is enabled.  0 for no limit; default is 90 seconds.
+     */
+    public static final GovernatorFeature<Long> PRE_DESTROY_TIMEOUT_MS = GovernatorFeature.create("Governator.features.parallelPreDestroy.timeoutMs", 90000L);
+    
+    /**
+     * How unscoped instances with @PreDestroy methods are tracked so those methods can be invoked on 
+     * shutdown; default is {@link UnscopedPreDestroyPolicy#TRACK}
+     */
+    public static final GovernatorFeature<UnscopedPreDestroyPolicy> UNSCOPED_PRE_DESTROY_POLICY = GovernatorFeature.create("Governator.features.unscopedPreDestroy.policy", UnscopedPreDestroyPolicy.TRACK);
+    
+    /**
+     * One in how many unscoped instances are tracked when {@link #UNSCOPED_PRE_DESTROY_POLICY} is 
+     * {@link UnscopedPreDestroyPolicy#SAMPLE}; default is 100
+     */
+    public static final GovernatorFeature<Integer> UNSCOPED_PRE_DESTROY_SAMPLE_RATE = GovernatorFeature.create("Governator.features.unscopedPreDestroy.sampleRate", 100);
+    
+    /**
+     * Keep recording per key provisioning latency into {@link RuntimeProvisionMetrics} after the 
+     * injector has started; default is false
+     */
+    public static final GovernatorFeature<Boolean> RUNTIME_PROVISION_METRICS = GovernatorFeature.create("Governator.features.runtimeProvisionMetrics", false);
+    
+    /**
+     * One in how many provisions are recorded when {@link #RUNTIME_PROVISION_METRICS} is enabled; 
+     * default is 1 (every provision)
+     */
+    public static final GovernatorFeature<Integer> RUNTIME_PROVISION_METRICS_SAMPLE_RATE = GovernatorFeature.create("Governator.features.runtimeProvisionMetrics.sampleRate", 1);
+    
+    /**
+     * Provision all singletons that weren't created with the injector on a pool of low priority 
+     * threads, in dependency order, once the injector has started.  Progress is reported by 
+     * {@link SingletonWarmUp} so that traffic can wait for the warm-up instead of paying for it 
+     * on the first requests.  Default is false.
+     */
+    public static final GovernatorFeature<Boolean> WARM_UP_SINGLETONS = GovernatorFeature.create("Governator.features.warmUpSingletons", false);
+    
+    /**
+     * Maximum number of threads used to provision singletons when {@link #WARM_UP_SINGLETONS} is 
+     * enabled; default is half the number of available processors
+     */
+    public static final GovernatorFeature<Integer> WARM_UP_SINGLETONS_THREADS = GovernatorFeature.create("Governator.features.warmUpSingletons.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    
+    /**
+     * Run the threads Governator starts itself on virtual threads unless a 
+     * {@link com.netflix.governator.spi.GovernatorExecutors} is bound.  Ignored, with a warning, before 
+     * Java 21.  Default is false.
+     */
+    public static final GovernatorFeature<Boolean> VIRTUAL_THREADS = GovernatorFeature.create("Governator.features.virtualThreads", false);
+    
+    /**
+     * Number of threads, each with its own queue, used to deliver events when 
+     * {@link com.netflix.governator.event.async.AsyncApplicationEventModule} is installed.  Events 
+     * with the same ordering key are always delivered by the same thread.  Default is the number of 
+     * available processors.
+     */
+    public static final GovernatorFeature<Integer> ASYNC_EVENTS_THREADS = GovernatorFeature.create("Governator.features.asyncEvents.threads", Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Maximum number of events queued for each thread delivering events asynchronously; default is 1024
+     */
+    public static final GovernatorFeature<Integer> ASYNC_EVENTS_QUEUE_CAPACITY = GovernatorFeature.create("Governator.features.asyncEvents.queueCapacity", 1024);
+    
+    /**
+     * What to do with an asynchronously delivered event when its queue is full; default is 
+     * {@link EventOverflowPolicy#BLOCK}
+     */
+    public static final GovernatorFeature<EventOverflowPolicy> ASYNC_EVENTS_OVERFLOW_POLICY = GovernatorFeature.create("Governator.features.asyncEvents.overflowPolicy", EventOverflowPolicy.BLOCK);
+    
+    /**
+     * Time, in milliseconds, to wait on shutdown for queued events to be delivered.  Events still 
+     * queued after that are dropped.  0 for no limit; default is 30 seconds.
+     */
+    public static final GovernatorFeature<Long> ASYNC_EVENTS_DRAIN_TIMEOUT_MS = GovernatorFeature.create("Governator.features.asyncEvents.drainTimeoutMs", 30000L);
+    
 }
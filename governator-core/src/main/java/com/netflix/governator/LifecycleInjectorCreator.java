@@ -19,11 +19,15 @@ import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.Stage;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.OptionalBinder;
 import com.netflix.governator.annotations.SuppressLifecycleUninitialized;
 import com.netflix.governator.annotations.binding.Arguments;
 import com.netflix.governator.annotations.binding.Profiles;
 import com.netflix.governator.internal.DefaultPropertySource;
+import com.netflix.governator.internal.EagerSingletonScheduler;
 import com.netflix.governator.internal.GovernatorFeatureSet;
+import com.netflix.governator.internal.SingletonWarmUpScheduler;
+import com.netflix.governator.spi.GovernatorExecutors;
 import com.netflix.governator.spi.InjectorCreator;
 import com.netflix.governator.spi.LifecycleListener;
 import com.netflix.governator.spi.PropertySource;
@@ -94,6 +98,16 @@ public class LifecycleInjectorCreator implements InjectorCreator<LifecycleInject
         
         final LifecycleManager manager = new LifecycleManager();
         
+        final GovernatorExecutors executors = defaultExecutors(featureSet);
+        
+        final EagerSingletonScheduler eagerSingletonScheduler = featureSet.get(GovernatorFeatures.PARALLEL_EAGER_SINGLETONS)
+            ? new EagerSingletonScheduler(featureSet.get(GovernatorFeatures.PARALLEL_EAGER_SINGLETONS_THREADS))
+            : null;
+        
+        final SingletonWarmUpScheduler warmUp = featureSet.get(GovernatorFeatures.WARM_UP_SINGLETONS)
+            ? new SingletonWarmUpScheduler(featureSet.get(GovernatorFeatures.WARM_UP_SINGLETONS_THREADS))
+            : SingletonWarmUpScheduler.none();
+        
         // Construct the injector using our override structure
         try {
             onBeforeInjectorCreate();
@@ -110,15 +124,24 @@ public class LifecycleInjectorCreator implements InjectorCreator<LifecycleInject
                     protected void configure() {
                         bind(GovernatorFeatureSet.class).toInstance(featureSet);
                         bind(LifecycleManager.class).toInstance(manager);
+                        bind(SingletonWarmUp.class).toInstance(warmUp);
+                        OptionalBinder.newOptionalBinder(binder(), GovernatorExecutors.class).setDefault().toInstance(executors);
                         Multibinder<String> profilesBinder = Multibinder.newSetBinder(binder(), Key.get(String.class, Profiles.class)).permitDuplicates();
                         profiles.forEach(profile -> profilesBinder.addBinding().toInstance(profile));
                         bind(String[].class).annotatedWith(Arguments.class).toInstance(args);
                         requestInjection(LifecycleInjectorCreator.this);
                     }
                 },
-                module
+                eagerSingletonScheduler != null ? eagerSingletonScheduler.deferEagerSingletons(stage, module) : module
                 );
+            if (eagerSingletonScheduler != null) {
+                eagerSingletonScheduler.provisionAll(injector);
+            }
             manager.notifyStarted();
+            if (featureSet.get(GovernatorFeatures.WARM_UP_SINGLETONS)) {
+                // warmUp was registered as a LifecycleListener when bound so it stops on shutdown
+                warmUp.start(injector);
+            }
             LifecycleInjector lifecycleInjector = LifecycleInjector.wrapInjector(injector, manager);
             onSuccessfulInjectorCreate();
             LOG.info("Injector created successfully ");
@@ -145,6 +168,16 @@ public class LifecycleInjectorCreator implements InjectorCreator<LifecycleInject
         }
     }
 
+    private static GovernatorExecutors defaultExecutors(GovernatorFeatureSet featureSet) {
+        if (featureSet.get(GovernatorFeatures.VIRTUAL_THREADS)) {
+            if (GovernatorExecutors.isVirtualThreadSupported()) {
+                return GovernatorExecutors.virtual();
+            }
+            LOG.warn("Virtual threads require Java 21 or later.  Using platform threads");
+        }
+        return GovernatorExecutors.platform();
+    }
+
     /**
      * Template method invoked immediately before the injector is created
      */
@@ -1,15 +1,8 @@
 package com.netflix.governator;
 
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Singleton;
@@ -17,7 +10,6 @@ import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.governator.annotations.SuppressLifecycleUninitialized;
 import com.netflix.governator.spi.LifecycleListener;
 
@@ -32,34 +24,25 @@ public final class LifecycleManager {
     private static final Logger LOG = LoggerFactory.getLogger(LifecycleManager.class);
     
     /**
-     * Processes unreferenced LifecycleListeners from the referenceQueue, until
-     * the 'running' flag is false or interrupted
-     * 
+     * Notified of the time taken by each {@link LifecycleListener} to handle an event
      */
-    private final class ListenerCleanupWorker implements Runnable {
-        public void run() {
-            try {
-                while (running.get()) {
-                    Reference<? extends LifecycleListener> ref = unreferencedListenersQueue.remove(1000);
-                    if (ref != null && ref instanceof SafeLifecycleListener) { 
-                        removeListener((SafeLifecycleListener)ref);
-                    }
-                }
-                LOG.info("LifecycleManager.ListenerCleanupWorker is exiting");
-            } 
-            catch (InterruptedException e) {
-                LOG.info("LifecycleManager.ListenerCleanupWorker is exiting due to thread interrupt");
-            }                
-        }
+    public interface ListenerTimingCallback {
+        /**
+         * @param listener The listener
+         * @param event {@link State#Started} for onStarted or {@link State#Stopped} for onStopped
+         * @param durationNanos Time the listener took to handle the event
+         */
+        void onTiming(LifecycleListener listener, State event, long durationNanos);
     }
-
     
-    private final Set<SafeLifecycleListener> listeners = new LinkedHashSet<>();
+    /**
+     * Listeners in order of registration.  Events are delivered to a snapshot of the list without 
+     * holding any lock so registering a listener never waits for another listener's event handler.
+     */
+    private final CopyOnWriteArrayList<SafeLifecycleListener> listeners = new CopyOnWriteArrayList<>();
     private final AtomicReference<State> state;
-    private final ReferenceQueue<LifecycleListener> unreferencedListenersQueue = new ReferenceQueue<>();
     private volatile Throwable failureReason;
-    private final ExecutorService reqQueueExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lifecycle-listener-monitor-%d").build());
-    private final AtomicBoolean running= new AtomicBoolean(true);
+    private volatile ListenerTimingCallback timingCallback;
     
     public enum State {
         Starting,
@@ -71,18 +54,35 @@ public final class LifecycleManager {
     public LifecycleManager() {        
         LOG.info("Starting '{}'", this);
         state = new AtomicReference<>(State.Starting);      
-        reqQueueExecutor.submit(new ListenerCleanupWorker());
     }
     
-    private synchronized void removeListener(SafeLifecycleListener listenerRef) {
+    private void removeListener(SafeLifecycleListener listenerRef) {
         listeners.remove(listenerRef);
     }
     
-    public synchronized void addListener(LifecycleListener listener) {
-        SafeLifecycleListener safeListener = SafeLifecycleListener.wrap(listener, unreferencedListenersQueue);
+    /**
+     * Set a callback to be notified of the time taken by each listener to handle onStarted and 
+     * onStopped, e.g. to find the listener that is holding up startup
+     */
+    public void setListenerTimingCallback(ListenerTimingCallback timingCallback) {
+        this.timingCallback = timingCallback;
+    }
+    
+    private void reportTiming(LifecycleListener listener, State event, long durationNanos) {
+        ListenerTimingCallback callback = timingCallback;
+        if (callback != null) {
+            callback.onTiming(listener, event, durationNanos);
+        }
+    }
+    
+    public void addListener(LifecycleListener listener) {
+        SafeLifecycleListener safeListener = SafeLifecycleListener.wrap(listener, this::removeListener, this::reportTiming);
         
-        if (!listeners.contains(safeListener) && listeners.add(safeListener)) {
+        if (listeners.addIfAbsent(safeListener)) {
             LOG.info("Adding listener '{}'", safeListener);
+            // The listener is added before reading the state, and the state is changed before 
+            // notifying listeners, so at least one of this thread or the notifying thread will 
+            // deliver the event.  SafeLifecycleListener ensures it's delivered only once.
             switch (state.get()) {
             case Started:
                 safeListener.onStarted();
@@ -94,49 +94,57 @@ public final class LifecycleManager {
                 // ignore
             }
         }
+        else {
+            // Duplicate registration.  Don't track the discarded wrapper
+            safeListener.clear();
+        }
     }
     
-    public synchronized void notifyStarted() {
+    public void notifyStarted() {
         if (state.compareAndSet(State.Starting, State.Started)) {
             LOG.info("Started '{}'", this);
-            for (LifecycleListener listener : new ArrayList<>(listeners)) {
+            for (LifecycleListener listener : listeners) {
                 listener.onStarted();
             }
         }
     }
     
-    public synchronized void notifyStartFailed(final Throwable t) {
+    public void notifyStartFailed(final Throwable t) {
         // State.Started added here to allow for failure  when LifecycleListener.onStarted() is called, post-injector creation
+        State current = state.get();
+        if (current == State.Starting || current == State.Started) {
+            // Set before the transition so that listeners added concurrently see the reason
+            this.failureReason = t;
+        }
         if (state.compareAndSet(State.Starting, State.Stopped) || state.compareAndSet(State.Started, State.Stopped)) {
             LOG.info("Failed start of '{}'", this);
-            if (running.compareAndSet(true, false)) {
-                reqQueueExecutor.shutdown();            
-            }
-            this.failureReason = t;
-            Iterator<SafeLifecycleListener> shutdownIter = new LinkedList<>(listeners).descendingIterator();
-            while (shutdownIter.hasNext()) {
-                shutdownIter.next().onStopped(t);
-            }
-            listeners.clear();
+            stopListeners(t);
         }
         state.set(State.Done);        
     }
     
-    public synchronized void notifyShutdown() {
-        if (running.compareAndSet(true, false)) {
-            reqQueueExecutor.shutdown();            
-        }
+    public void notifyShutdown() {
         if (state.compareAndSet(State.Started, State.Stopped)) {
             LOG.info("Stopping '{}'", this);
-            Iterator<SafeLifecycleListener> shutdownIter = new LinkedList<>(listeners).descendingIterator();
-            while (shutdownIter.hasNext()) {
-                shutdownIter.next().onStopped(null);
-            }
-            listeners.clear();
+            stopListeners(null);
         }
         state.set(State.Done);
     }
     
+    /**
+     * Notify listeners in reverse order of registration then stop tracking them
+     */
+    private void stopListeners(Throwable t) {
+        List<SafeLifecycleListener> snapshot = new ArrayList<>(listeners);
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            snapshot.get(i).onStopped(t);
+        }
+        for (SafeLifecycleListener listener : snapshot) {
+            listener.clear();
+        }
+        listeners.removeAll(snapshot);
+    }
+    
     public State getState() {
         return state.get();
     }
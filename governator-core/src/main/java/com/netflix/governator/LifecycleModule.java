@@ -1,10 +1,10 @@
 package com.netflix.governator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
@@ -21,7 +21,7 @@ import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.MultibindingsScanner;
 import com.google.inject.spi.ProvisionListener;
 import com.netflix.governator.annotations.SuppressLifecycleUninitialized;
-import com.netflix.governator.internal.BinaryConstant;
+import com.netflix.governator.internal.ExecutorsEx;
 import com.netflix.governator.internal.GovernatorFeatureSet;
 import com.netflix.governator.internal.JSR250LifecycleAction.ValidationMode;
 import com.netflix.governator.internal.PostConstructLifecycleFeature;
@@ -56,14 +56,33 @@ public final class LifecycleModule extends AbstractModule {
      * Holder of actions for a specific type.
      */
     static class TypeLifecycleActions {
-        final List<LifecycleAction> postConstructActions = new ArrayList<LifecycleAction>();
-        final List<LifecycleAction> preDestroyActions = new ArrayList<>();
+        /**
+         * Shared instance for the majority of types that have no lifecycle actions
+         */
+        static final TypeLifecycleActions NONE = new TypeLifecycleActions(Collections.emptyList(), Collections.emptyList());
+        
+        final List<LifecycleAction> postConstructActions;
+        final List<LifecycleAction> preDestroyActions;
+        
+        TypeLifecycleActions(List<LifecycleAction> postConstructActions, List<LifecycleAction> preDestroyActions) {
+            this.postConstructActions = postConstructActions;
+            this.preDestroyActions = preDestroyActions;
+        }
     }
     
     @Singleton
     @SuppressLifecycleUninitialized
     static class LifecycleProvisionListener extends AbstractLifecycleListener implements ProvisionListener {
-        private final ConcurrentMap<Class<?>, TypeLifecycleActions> cache = new ConcurrentHashMap<>(BinaryConstant.I12_4096);
+        /**
+         * Lifecycle actions are associated with the Class itself via ClassValue so that lookups 
+         * don't pin the Class (and its ClassLoader) and cost a single lookup on the hot path.
+         */
+        private final ClassValue<TypeLifecycleActions> cache = new ClassValue<TypeLifecycleActions>() {
+            @Override
+            protected TypeLifecycleActions computeValue(Class<?> type) {
+                return createActions(type);
+            }
+        };
         private Set<LifecycleFeature> features;
         private final AtomicBoolean isShutdown = new AtomicBoolean();
         private PostConstructLifecycleFeature postConstructFeature;
@@ -85,6 +104,10 @@ public final class LifecycleModule extends AbstractModule {
             ValidationMode getJsr250ValidationMode() {
                 return governatorFeatures == null ? ValidationMode.LAX : governatorFeatures.get(GovernatorFeatures.STRICT_JSR250_VALIDATION) ? ValidationMode.STRICT : ValidationMode.LAX;
             }
+            
+            <T> T get(GovernatorFeature<T> feature) {
+                return governatorFeatures == null ? feature.getDefaultValue() : governatorFeatures.get(feature);
+            }
         }
         @Inject
         public static void initialize(
@@ -98,31 +121,41 @@ public final class LifecycleModule extends AbstractModule {
             ValidationMode validationMode = args.getJsr250ValidationMode();
             provisionListener.postConstructFeature = new PostConstructLifecycleFeature(validationMode);
             provisionListener.preDestroyFeature = new PreDestroyLifecycleFeature(validationMode);
-            provisionListener.preDestroyMonitor = new PreDestroyMonitor(injector.getScopeBindings());
+            provisionListener.preDestroyMonitor = new PreDestroyMonitor(injector.getScopeBindings(), ExecutorsEx.get(injector));
+            if (args.get(GovernatorFeatures.PARALLEL_PRE_DESTROY)) {
+                provisionListener.preDestroyMonitor.enableParallelShutdown(injector, 
+                        args.get(GovernatorFeatures.PARALLEL_PRE_DESTROY_THREADS), 
+                        args.get(GovernatorFeatures.PRE_DESTROY_ACTION_TIMEOUT_MS), 
+                        args.get(GovernatorFeatures.PRE_DESTROY_TIMEOUT_MS), 
+                        TimeUnit.MILLISECONDS);
+            }
+            provisionListener.preDestroyMonitor.setUnscopedPolicy(
+                    args.get(GovernatorFeatures.UNSCOPED_PRE_DESTROY_POLICY), 
+                    args.get(GovernatorFeatures.UNSCOPED_PRE_DESTROY_SAMPLE_RATE));
             LOG.debug("LifecycleProvisionListener initialized with features {}", features);
         }
         
         public TypeLifecycleActions getOrCreateActions(Class<?> type) {
-            TypeLifecycleActions actions = cache.get(type);
-            if (actions == null) {
-                actions = new TypeLifecycleActions();
-                // Ordered set of actions to perform before PostConstruct 
-                for (LifecycleFeature feature : features) {
-                    actions.postConstructActions.addAll(feature.getActionsForType(type));
-                }
-                
-                // Finally, add @PostConstruct methods
-                actions.postConstructActions.addAll(postConstructFeature.getActionsForType(type));
-                
-                // Determine @PreDestroy methods
-                actions.preDestroyActions.addAll(preDestroyFeature.getActionsForType(type));
-                
-                TypeLifecycleActions existing = cache.putIfAbsent(type, actions);
-                if (existing != null) {
-                    return existing;
-                }
+            return cache.get(type);
+        }
+        
+        private TypeLifecycleActions createActions(Class<?> type) {
+            final List<LifecycleAction> postConstructActions = new ArrayList<>();
+            // Ordered set of actions to perform before PostConstruct 
+            for (LifecycleFeature feature : features) {
+                postConstructActions.addAll(feature.getActionsForType(type));
+            }
+            
+            // Finally, add @PostConstruct methods
+            postConstructActions.addAll(postConstructFeature.getActionsForType(type));
+            
+            // Determine @PreDestroy methods
+            final List<LifecycleAction> preDestroyActions = new ArrayList<>(preDestroyFeature.getActionsForType(type));
+            
+            if (postConstructActions.isEmpty() && preDestroyActions.isEmpty()) {
+                return TypeLifecycleActions.NONE;
             }
-            return actions;
+            return new TypeLifecycleActions(postConstructActions, preDestroyActions);
         }
         
         /**
@@ -161,14 +194,17 @@ public final class LifecycleModule extends AbstractModule {
                 return;
             }
             
+            final TypeLifecycleActions actions = getOrCreateActions(injectee.getClass());
+            if (actions == TypeLifecycleActions.NONE) {
+                return;
+            }
+            
             //Ignore for Spring-managed bindings
             Object source = provision.getBinding().getSource();
             if(source != null && source.toString().contains("spring-guice")) {
                 return;
             }
             
-            final TypeLifecycleActions actions = getOrCreateActions(injectee.getClass());
-            
             // Call all postConstructActions for this injectee
             if (!actions.postConstructActions.isEmpty()) {
                 try {
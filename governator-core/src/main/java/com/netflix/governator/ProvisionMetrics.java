@@ -27,6 +27,20 @@ public interface ProvisionMetrics {
         public long getTotalDuration(TimeUnit units);
         
         public void accept(Visitor visitor);
+        
+        /**
+         * @return Value of {@link System#nanoTime()} when provisioning started or -1 if not recorded
+         */
+        default long getStartTime() {
+            return -1;
+        }
+        
+        /**
+         * @return Value of {@link System#nanoTime()} when provisioning ended or -1 if not recorded
+         */
+        default long getEndTime() {
+            return -1;
+        }
     }
     
     /**
@@ -0,0 +1,358 @@
+package com.netflix.governator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Key;
+import com.netflix.governator.ProvisionMetrics.Element;
+import com.netflix.governator.ProvisionMetrics.Visitor;
+
+/**
+ * Merges the per-thread provisioning trees recorded by {@link ProvisionMetrics} into a single timeline
+ * to determine which provisions actually determined wall clock startup time.
+ *
+ * The critical path is found by walking back from the provision that finished last.  Within a
+ * provision the path follows the child that finished last, then the child that finished last before
+ * that child started, and so on.  Between top level provisions, which may have run on different
+ * threads, the path continues with the top level provision that finished last before the current one
+ * started.  Time not covered by a child on the path is the provision's own contribution.
+ *
+ * Only elements that report their start and end times are included.
+ *
+ * <pre>
+ * ProvisionMetricsAnalyzer analyzer = ProvisionMetricsAnalyzer.analyze(injector.getInstance(ProvisionMetrics.class));
+ * analyzer.getCriticalPath().forEach(span -&gt; LOG.info("{}", span));
+ * analyzer.writeChromeTrace(writer);
+ * </pre>
+ */
+public final class ProvisionMetricsAnalyzer {
+    /**
+     * A single provision on the merged timeline
+     */
+    public static final class Span {
+        private final Key<?> key;
+        private final long startTime;
+        private final long endTime;
+        private final int depth;
+        private final List<Span> children = new ArrayList<>();
+        private long selfTime;
+        private int lane;
+        private boolean critical;
+        private long criticalTime;
+
+        private Span(Key<?> key, long startTime, long endTime, int depth) {
+            this.key = key;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.depth = depth;
+        }
+
+        public Key<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return Value of {@link System#nanoTime()} when provisioning started
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return Value of {@link System#nanoTime()} when provisioning ended
+         */
+        public long getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * @return Nesting level, 0 for top level provisions
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getTotalDuration(TimeUnit units) {
+            return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return Time spent in this provision excluding nested provisions
+         */
+        public long getSelfDuration(TimeUnit units) {
+            return units.convert(selfTime, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return Time this provision contributed to the critical path, excluding nested provisions
+         *  that are also on the critical path, or 0 if not on the critical path
+         */
+        public long getCriticalDuration(TimeUnit units) {
+            return units.convert(criticalTime, TimeUnit.NANOSECONDS);
+        }
+
+        public boolean isOnCriticalPath() {
+            return critical;
+        }
+
+        @Override
+        public String toString() {
+            return "Span[" + key + ", total=" + getTotalDuration(TimeUnit.MILLISECONDS)
+                    + " ms, self=" + getSelfDuration(TimeUnit.MILLISECONDS)
+                    + " ms, critical=" + getCriticalDuration(TimeUnit.MILLISECONDS) + " ms]";
+        }
+    }
+
+    private static final Comparator<Span> BY_START_TIME = Comparator.comparingLong(Span::getStartTime);
+
+    private final List<Span> roots = new ArrayList<>();
+    private final List<Span> spans = new ArrayList<>();
+    private final List<Span> criticalPath = new ArrayList<>();
+    private final long startTime;
+    private final long endTime;
+    private int laneCount;
+
+    /**
+     * Analyze all elements recorded so far by the metrics
+     */
+    public static ProvisionMetricsAnalyzer analyze(ProvisionMetrics metrics) {
+        return new ProvisionMetricsAnalyzer(metrics);
+    }
+
+    private ProvisionMetricsAnalyzer(ProvisionMetrics metrics) {
+        metrics.accept(new Visitor() {
+            int depth = 0;
+            Span parent = null;
+
+            @Override
+            public void visit(Element element) {
+                long start = element.getStartTime();
+                long end = element.getEndTime();
+                if (start < 0 || end < start) {
+                    // Not recorded or still being provisioned
+                    return;
+                }
+                Span span = new Span(element.getKey(), start, end, depth);
+                spans.add(span);
+                if (parent == null) {
+                    roots.add(span);
+                }
+                else {
+                    parent.children.add(span);
+                }
+
+                Span outer = parent;
+                parent = span;
+                depth++;
+                element.accept(this);
+                depth--;
+                parent = outer;
+            }
+        });
+
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (Span span : spans) {
+            long childTime = 0;
+            for (Span child : span.children) {
+                childTime += child.endTime - child.startTime;
+            }
+            span.selfTime = Math.max(0, span.endTime - span.startTime - childTime);
+            start = Math.min(start, span.startTime);
+            end = Math.max(end, span.endTime);
+        }
+        this.startTime = spans.isEmpty() ? 0 : start;
+        this.endTime = spans.isEmpty() ? 0 : end;
+
+        assignLanes();
+        findCriticalPath();
+    }
+
+    /**
+     * Pack top level spans, and their nested spans, into as few non-overlapping lanes as possible.
+     * Concurrent provisions end up in different lanes, approximating the threads they ran on.
+     */
+    private void assignLanes() {
+        List<Span> sorted = new ArrayList<>(roots);
+        sorted.sort(BY_START_TIME);
+        List<Long> laneEnds = new ArrayList<>();
+        for (Span root : sorted) {
+            int lane = 0;
+            while (lane < laneEnds.size() && laneEnds.get(lane) > root.startTime) {
+                lane++;
+            }
+            if (lane == laneEnds.size()) {
+                laneEnds.add(root.endTime);
+            }
+            else {
+                laneEnds.set(lane, root.endTime);
+            }
+            setLane(root, lane);
+        }
+        laneCount = laneEnds.size();
+    }
+
+    private static void setLane(Span span, int lane) {
+        span.lane = lane;
+        for (Span child : span.children) {
+            setLane(child, lane);
+        }
+    }
+
+    private void findCriticalPath() {
+        long cursor = Long.MAX_VALUE;
+        Span next;
+        while ((next = lastEndingBefore(roots, cursor)) != null) {
+            markCritical(next);
+            cursor = next.startTime;
+        }
+        criticalPath.sort(BY_START_TIME);
+    }
+
+    private void markCritical(Span span) {
+        span.critical = true;
+        criticalPath.add(span);
+        long childTime = 0;
+        long cursor = span.endTime;
+        Span child;
+        while ((child = lastEndingBefore(span.children, cursor)) != null) {
+            markCritical(child);
+            childTime += child.endTime - child.startTime;
+            cursor = child.startTime;
+        }
+        span.criticalTime = Math.max(0, span.endTime - span.startTime - childTime);
+    }
+
+    private static Span lastEndingBefore(List<Span> candidates, long cursor) {
+        Span last = null;
+        for (Span span : candidates) {
+            if (!span.critical && span.endTime <= cursor && (last == null || span.endTime > last.endTime)) {
+                last = span;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * @return Time from the start of the first provision to the end of the last provision
+     */
+    public long getWallClockDuration(TimeUnit units) {
+        return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Provisions on the critical path ordered by start time.  Nested provisions follow the
+     *  provision they are nested in.
+     */
+    public List<Span> getCriticalPath() {
+        return Collections.unmodifiableList(criticalPath);
+    }
+
+    /**
+     * @return Up to 'count' provisions with the highest self time, in descending order of self time
+     */
+    public List<Span> getTopSelfTime(int count) {
+        List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(Comparator.comparingLong((Span span) -> span.selfTime).reversed());
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    /**
+     * @return All provisions ordered by start time
+     */
+    public List<Span> getSpans() {
+        List<Span> sorted = new ArrayList<>(spans);
+        sorted.sort(BY_START_TIME);
+        return sorted;
+    }
+
+    /**
+     * Write the timeline in the Chrome trace event format, which can be loaded into chrome://tracing
+     * or https://ui.perfetto.dev.  Each lane is shown as a thread and the critical path is repeated
+     * in an additional 'critical path' thread.
+     */
+    public void writeChromeTrace(Appendable out) throws IOException {
+        out.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        writeThreadName(out, 0, "critical path");
+        for (int lane = 0; lane < laneCount; lane++) {
+            out.append(',');
+            writeThreadName(out, lane + 1, "provision-" + lane);
+        }
+        for (Span span : getSpans()) {
+            out.append(',');
+            writeSpan(out, span, span.lane + 1);
+        }
+        for (Span span : criticalPath) {
+            out.append(',');
+            writeSpan(out, span, 0);
+        }
+        out.append("]}");
+    }
+
+    /**
+     * @return Timeline in the Chrome trace event format
+     * @see #writeChromeTrace(Appendable)
+     */
+    public String toChromeTrace() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeChromeTrace(sb);
+        }
+        catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    private static void writeThreadName(Appendable out, int tid, String name) throws IOException {
+        out.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(Integer.toString(tid))
+           .append(",\"args\":{\"name\":");
+        writeString(out, name);
+        out.append("}}");
+    }
+
+    private void writeSpan(Appendable out, Span span, int tid) throws IOException {
+        out.append("{\"name\":");
+        writeString(out, span.key.toString());
+        out.append(",\"cat\":\"provision\",\"ph\":\"X\",\"pid\":1,\"tid\":").append(Integer.toString(tid))
+           .append(",\"ts\":").append(toMicros(span.startTime - startTime))
+           .append(",\"dur\":").append(toMicros(span.endTime - span.startTime))
+           .append(",\"args\":{\"self_us\":").append(toMicros(span.selfTime))
+           .append(",\"critical_us\":").append(toMicros(span.criticalTime))
+           .append("}}");
+    }
+
+    private static String toMicros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static void writeString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                }
+                else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -7,9 +7,14 @@ import com.google.inject.Singleton;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.spi.ProvisionListener;
 
+import com.netflix.governator.annotations.SuppressLifecycleUninitialized;
+import com.netflix.governator.internal.GovernatorFeatureSet;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import javax.inject.Inject;
 
 public final class ProvisionMetricsModule extends AbstractModule {
@@ -19,10 +24,29 @@ public final class ProvisionMetricsModule extends AbstractModule {
     private static class MetricsProvisionListener implements ProvisionListener, com.netflix.governator.spi.LifecycleListener {
         private ProvisionMetrics metrics;
         
+        private RuntimeProvisionMetrics runtimeMetrics;
+        
+        private int runtimeSampleRate = 1;
+        
         private boolean doneLoading = false;
         
+        @SuppressLifecycleUninitialized
+        @Singleton
+        static class OptionalArgs {
+            @com.google.inject.Inject(optional = true)
+            GovernatorFeatureSet governatorFeatures;
+            
+            <T> T get(GovernatorFeature<T> feature) {
+                return governatorFeatures == null ? feature.getDefaultValue() : governatorFeatures.get(feature);
+            }
+        }
+        
         @Inject
-        public static void initialize(MetricsProvisionListener listener, ProvisionMetrics metrics)  {
+        public static void initialize(MetricsProvisionListener listener, ProvisionMetrics metrics, OptionalArgs args, RuntimeProvisionMetrics runtimeMetrics)  {
+            if (args.get(GovernatorFeatures.RUNTIME_PROVISION_METRICS)) {
+                listener.runtimeSampleRate = Math.max(1, args.get(GovernatorFeatures.RUNTIME_PROVISION_METRICS_SAMPLE_RATE));
+                listener.runtimeMetrics = runtimeMetrics;
+            }
             listener.metrics = metrics;
         }
         
@@ -36,6 +60,16 @@ public final class ProvisionMetricsModule extends AbstractModule {
             }
             
             if (doneLoading) {
+                if (runtimeMetrics != null 
+                        && (runtimeSampleRate == 1 || ThreadLocalRandom.current().nextInt(runtimeSampleRate) == 0)) {
+                    final long startTime = System.nanoTime();
+                    try {
+                        provision.provision();
+                    }
+                    finally {
+                        runtimeMetrics.record(key, System.nanoTime() - startTime);
+                    }
+                }
                 return;
             }
             
@@ -0,0 +1,280 @@
+package com.netflix.governator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Key;
+
+/**
+ * ProvisionMetrics that records each provision into per-thread parallel arrays instead of allocating
+ * an object graph.  Recording a provision only writes a few array slots so collecting metrics doesn't
+ * noticeably slow down injector creation.
+ *
+ * Each thread's arrays start small and grow up to a fixed capacity after which they are used as a
+ * ring buffer, overwriting the oldest provisions.  A warning is logged the first time a thread's
+ * buffer wraps and {@link #getOverwrittenCount()} reports how many provisions were lost.  Provisions
+ * whose parent has been overwritten are reported as top level provisions.  Element views are only
+ * created when {@link #accept(Visitor)} is called.  Call {@link #release()} once the metrics have
+ * been analyzed to free the buffers.
+ * 
+ * Metrics visited while provisioning is still in progress are best effort.  In progress provisions
+ * are skipped and provisions being overwritten concurrently may be reported inconsistently.
+ *
+ * {@link SimpleProvisionMetrics} remains the default.  To use this implementation bind it explicitly,
+ *
+ * <code>
+ * bind(ProvisionMetrics.class).to(RingBufferProvisionMetrics.class);
+ * </code>
+ */
+@Singleton
+public final class RingBufferProvisionMetrics implements ProvisionMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(RingBufferProvisionMetrics.class);
+
+    /**
+     * Default maximum number of provisions recorded per thread
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NO_PARENT = -1;
+
+    /**
+     * Provisions recorded by a single thread.  Each provision is identified by a sequence number and
+     * stored at sequence & mask.  Only the owning thread writes.  Readers see provisions up to the
+     * volatile count.
+     */
+    private static final class Buffer {
+        private final long generation;
+        private final int capacity;
+        private Key<?>[] keys;
+        private long[] startTimes;
+        private long[] endTimes;
+        private int[] parents;
+        private int mask;
+        private int[] stack = new int[32];
+        private int depth;
+        private volatile int count;
+
+        Buffer(long generation, int capacity) {
+            this.generation = generation;
+            this.capacity = capacity;
+            allocate(Math.min(INITIAL_CAPACITY, capacity));
+        }
+
+        private void allocate(int size) {
+            Key<?>[] oldKeys = keys;
+            long[] oldStartTimes = startTimes;
+            long[] oldEndTimes = endTimes;
+            int[] oldParents = parents;
+
+            keys = new Key<?>[size];
+            startTimes = new long[size];
+            endTimes = new long[size];
+            parents = new int[size];
+            mask = size - 1;
+            if (oldKeys != null) {
+                // Only grown before wrapping so sequence numbers and indexes are the same
+                System.arraycopy(oldKeys, 0, keys, 0, oldKeys.length);
+                System.arraycopy(oldStartTimes, 0, startTimes, 0, oldStartTimes.length);
+                System.arraycopy(oldEndTimes, 0, endTimes, 0, oldEndTimes.length);
+                System.arraycopy(oldParents, 0, parents, 0, oldParents.length);
+            }
+        }
+
+        void push(Key<?> key) {
+            final int seq = count;
+            if (seq == keys.length) {
+                if (keys.length < capacity) {
+                    allocate(keys.length << 1);
+                }
+                else {
+                    LOG.warn("Recorded more than {} provisions on thread '{}'.  The oldest provisions are being overwritten",
+                            capacity, Thread.currentThread().getName());
+                }
+            }
+            final int index = seq & mask;
+            keys[index] = key;
+            startTimes[index] = System.nanoTime();
+            endTimes[index] = 0;
+            parents[index] = depth == 0 ? NO_PARENT : stack[depth - 1];
+            if (depth == stack.length) {
+                int[] newStack = new int[depth << 1];
+                System.arraycopy(stack, 0, newStack, 0, depth);
+                stack = newStack;
+            }
+            stack[depth++] = seq;
+            count = seq + 1;
+        }
+
+        void pop() {
+            final int seq = stack[--depth];
+            if (isRetained(seq, count)) {
+                endTimes[seq & mask] = System.nanoTime();
+            }
+        }
+
+        boolean isRetained(int seq, int count) {
+            return seq >= 0 && seq < count && count - seq <= keys.length;
+        }
+
+        /**
+         * Create views of all retained provisions.  Provisions still in progress are excluded.
+         */
+        void collect(List<View> roots) {
+            final int end = count;
+            final int size = keys.length;
+            final int start = Math.max(0, end - size);
+            final View[] views = new View[end - start];
+            for (int seq = start; seq < end; seq++) {
+                final int index = seq & mask;
+                final long endTime = endTimes[index];
+                if (endTime == 0) {
+                    continue;
+                }
+                final View view = new View(keys[index], startTimes[index], endTime);
+                views[seq - start] = view;
+                final int parent = parents[index];
+                if (parent >= start && views[parent - start] != null) {
+                    views[parent - start].children.add(view);
+                }
+                else {
+                    roots.add(view);
+                }
+            }
+        }
+    }
+
+    /**
+     * Element view created on demand from a Buffer
+     */
+    private static final class View implements Element {
+        private final Key<?> key;
+        private final long startTime;
+        private final long endTime;
+        private final List<View> children = new ArrayList<>(0);
+
+        View(Key<?> key, long startTime, long endTime) {
+            this.key = key;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        @Override
+        public Key<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public long getDuration(TimeUnit units) {
+            long childDuration = 0;
+            for (View child : children) {
+                childDuration += child.endTime - child.startTime;
+            }
+            return units.convert(endTime - startTime - childDuration, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getTotalDuration(TimeUnit units) {
+            return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void accept(Visitor visitor) {
+            for (View child : children) {
+                visitor.visit(child);
+            }
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+    }
+
+    private final int capacity;
+    private final List<Buffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Buffer> threadBuffer = new ThreadLocal<>();
+    private volatile long generation;
+
+    public RingBufferProvisionMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of provisions retained per thread.  Rounded up to a power of 2.
+     */
+    public RingBufferProvisionMetrics(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.capacity = size < capacity ? size << 1 : size;
+    }
+
+    private Buffer currentBuffer() {
+        Buffer buffer = threadBuffer.get();
+        if (buffer == null || buffer.generation != generation) {
+            buffer = new Buffer(generation, capacity);
+            threadBuffer.set(buffer);
+            buffers.add(buffer);
+        }
+        return buffer;
+    }
+
+    @Override
+    public void push(Key<?> key) {
+        currentBuffer().push(key);
+    }
+
+    @Override
+    public void pop() {
+        Buffer buffer = threadBuffer.get();
+        // Ignore a pop for a push made before release()
+        if (buffer != null && buffer.generation == generation && buffer.depth > 0) {
+            buffer.pop();
+        }
+    }
+
+    @Override
+    public void accept(Visitor visitor) {
+        List<View> roots = new ArrayList<>();
+        for (Buffer buffer : buffers) {
+            buffer.collect(roots);
+        }
+        Collections.sort(roots, (a, b) -> Long.compare(a.startTime, b.startTime));
+        roots.forEach(visitor::visit);
+    }
+
+    /**
+     * @return Number of provisions that were overwritten because a thread recorded more than
+     *  the capacity
+     */
+    public long getOverwrittenCount() {
+        long overwritten = 0;
+        for (Buffer buffer : buffers) {
+            overwritten += Math.max(0, buffer.count - buffer.keys.length);
+        }
+        return overwritten;
+    }
+
+    /**
+     * Discard everything recorded so far.  Threads that provision afterwards start with new buffers.
+     */
+    public synchronized void release() {
+        generation++;
+        buffers.clear();
+    }
+}
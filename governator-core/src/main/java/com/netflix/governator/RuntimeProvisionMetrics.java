@@ -0,0 +1,160 @@
+package com.netflix.governator;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Singleton;
+
+import com.google.inject.Key;
+
+/**
+ * Per key provisioning latency recorded after the injector has started, when enabled through
+ * {@link GovernatorFeatures#RUNTIME_PROVISION_METRICS}.  Only provisions that actually create an
+ * instance are recorded, i.e. unscoped and custom scoped keys as well as the first provision of
+ * a singleton that wasn't created at startup.
+ *
+ * Latencies are counted in fixed size, log bucketed histograms updated without locks.  Each power
+ * of 2 is split into 4 buckets so reported percentiles are within 25% of the actual value.
+ *
+ * <pre>
+ * RuntimeProvisionMetrics.Histogram histogram = injector.getInstance(RuntimeProvisionMetrics.class).getHistogram(Key.get(Foo.class));
+ * long p99 = histogram.getPercentile(0.99, TimeUnit.MICROSECONDS);
+ * </pre>
+ */
+@Singleton
+public final class RuntimeProvisionMetrics {
+    /**
+     * Latency histogram for a single key
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        // Latencies of 2^40 ns (~18 minutes) or more are all counted in the last bucket
+        private static final int MAX_EXPONENT = 40;
+        private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(0, nanos);
+            }
+            final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            if (exponent >= MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * @return Largest latency counted in the bucket
+         */
+        static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            final int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+            final int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            final long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+        }
+
+        void record(long nanos) {
+            counts.incrementAndGet(bucketOf(nanos));
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+        }
+
+        /**
+         * @return Number of provisions recorded.  When sampling this is a fraction of all provisions.
+         */
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        public long getMax(TimeUnit units) {
+            return units.convert(max.get(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @param quantile Between 0 and 1, e.g. 0.99 for the 99th percentile
+         * @return Latency at or below which the quantile of provisions completed, or 0 if nothing
+         *  has been recorded
+         */
+        public long getPercentile(double quantile, TimeUnit units) {
+            final long[] snapshot = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long target = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    return units.convert(Math.min(upperBoundOf(i), max.get()), TimeUnit.NANOSECONDS);
+                }
+            }
+            return getMax(units);
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram[count=" + getCount()
+                + ", p50=" + getPercentile(0.5, TimeUnit.MICROSECONDS)
+                + " us, p99=" + getPercentile(0.99, TimeUnit.MICROSECONDS)
+                + " us, max=" + getMax(TimeUnit.MICROSECONDS) + " us]";
+        }
+    }
+
+    private final ConcurrentMap<Key<?>, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time taken to provision an instance for a key
+     */
+    public void record(Key<?> key, long nanos) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(key, k -> new Histogram());
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * @return Histogram for the key or null if no provision was recorded for the key
+     */
+    public Histogram getHistogram(Key<?> key) {
+        return histograms.get(key);
+    }
+
+    /**
+     * @return Live view of histograms for all keys for which a provision was recorded
+     */
+    public Map<Key<?>, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Discard all recorded latencies
+     */
+    public void clear() {
+        histograms.clear();
+    }
+}
@@ -1,51 +1,91 @@
 package com.netflix.governator;
 
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.netflix.governator.internal.ReclaimableReference;
 import com.netflix.governator.spi.LifecycleListener;
 
 /**
  * Wrapper for any LifecycleListener to provide this following functionality
  * 1.  Logging of events as INFO
  * 2.  Swallow any event handler exceptions during shutdown
+ * 3.  Deliver each event at most once, and never onStarted after onStopped, no matter how many 
+ *     threads attempt to deliver it
+ * 4.  Report how long the delegate took to handle each event
  */
-final class SafeLifecycleListener extends WeakReference<LifecycleListener> implements LifecycleListener {
+final class SafeLifecycleListener extends ReclaimableReference<LifecycleListener> implements LifecycleListener {
     private static final Logger LOG = LoggerFactory.getLogger(SafeLifecycleListener.class);
     private final int delegateHash;
     private final String asString;
+    private final Consumer<SafeLifecycleListener> onReclaimed;
+    private final LifecycleManager.ListenerTimingCallback timingCallback;
+    private LifecycleManager.State state = LifecycleManager.State.Starting;
 
     public static SafeLifecycleListener wrap(LifecycleListener listener) {
         Preconditions.checkNotNull(listener, "listener argument must be non-null");
-        return new SafeLifecycleListener(listener, null);
+        return new SafeLifecycleListener(listener, null, null);
     }
     
-    public static SafeLifecycleListener wrap(LifecycleListener listener, ReferenceQueue<LifecycleListener> refQueue) {
+    /**
+     * @param onReclaimed Invoked on the shared reclaimer thread once the listener has been garbage collected.
+     *  If null the wrapper isn't tracked by the reclaimer
+     * @param timingCallback Notified of the time taken by each event handler, may be null
+     */
+    public static SafeLifecycleListener wrap(LifecycleListener listener, Consumer<SafeLifecycleListener> onReclaimed, LifecycleManager.ListenerTimingCallback timingCallback) {
         Preconditions.checkNotNull(listener, "listener argument must be non-null");
-        return new SafeLifecycleListener(listener, refQueue);
+        return new SafeLifecycleListener(listener, onReclaimed, timingCallback);
     }
         
-    private SafeLifecycleListener(LifecycleListener delegate, ReferenceQueue<LifecycleListener> refQueue) {
-        super(delegate, refQueue);
+    private SafeLifecycleListener(LifecycleListener delegate, Consumer<SafeLifecycleListener> onReclaimed, LifecycleManager.ListenerTimingCallback timingCallback) {
+        // Without a callback there's nothing to do once the delegate is collected, and nothing
+        // would unregister a wrapper that becomes unreachable first
+        super(delegate, onReclaimed != null);
+        this.onReclaimed = onReclaimed;
+        this.timingCallback = timingCallback;
         this.delegateHash = delegate.hashCode();
         this.asString = "SafeLifecycleListener@" + System.identityHashCode(this) + " [" + delegate.toString() + "]";
     }
     
     @Override
-    public void onStarted() {
+    protected void reclaim() {
+        if (onReclaimed != null) {
+            onReclaimed.accept(this);
+        }
+    }
+
+    /**
+     * Events for a single listener are delivered while holding this wrapper's monitor so that onStopped
+     * can't overtake an onStarted that is still running
+     */
+    @Override
+    public synchronized void onStarted() {
+        if (state != LifecycleManager.State.Starting) {
+            return;
+        }
+        state = LifecycleManager.State.Started;
         LifecycleListener delegate = get();
         if (delegate != null) {
             LOG.info("Starting '{}'", delegate);
-            delegate.onStarted();
+            final long startTime = System.nanoTime();
+            try {
+                delegate.onStarted();
+            }
+            finally {
+                reportTiming(delegate, LifecycleManager.State.Started, startTime);
+            }
         }
     }
 
     @Override
-    public void onStopped(Throwable t) {
+    public synchronized void onStopped(Throwable t) {
+        if (state == LifecycleManager.State.Stopped) {
+            return;
+        }
+        state = LifecycleManager.State.Stopped;
         LifecycleListener delegate = get();
         if (delegate != null) {
             if (t != null) {
@@ -54,12 +94,27 @@ final class SafeLifecycleListener extends WeakReference<LifecycleListener> imple
             else {
                 LOG.info("Stopping '{}'", delegate);            
             }
+            final long startTime = System.nanoTime();
             try {
                 delegate.onStopped(t);
             }
             catch (Exception e) {
                 LOG.info("onStopped failed for {}", delegate, e);
             }
+            finally {
+                reportTiming(delegate, LifecycleManager.State.Stopped, startTime);
+            }
+        }
+    }
+
+    private void reportTiming(LifecycleListener delegate, LifecycleManager.State event, long startTime) {
+        if (timingCallback != null) {
+            try {
+                timingCallback.onTiming(delegate, event, System.nanoTime() - startTime);
+            }
+            catch (Exception e) {
+                LOG.warn("Listener timing callback failed for {}", delegate, e);
+            }
         }
     }
 
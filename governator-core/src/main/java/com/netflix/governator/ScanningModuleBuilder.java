@@ -3,13 +3,22 @@ package com.netflix.governator;
 import com.google.inject.Binder;
 import com.google.inject.Key;
 import com.google.inject.Module;
-import com.netflix.governator.internal.scanner.ClasspathUrlDecoder;
+import com.netflix.governator.internal.scanner.AnnotationIndex;
+import com.netflix.governator.internal.scanner.ClassAnnotationReader;
+import com.netflix.governator.internal.scanner.ClassSources;
+import com.netflix.governator.internal.scanner.ScanCache;
 import com.netflix.governator.spi.AnnotatedClassScanner;
+import com.netflix.governator.spi.ClassSource;
+import com.netflix.governator.spi.ClassSource.BytecodeSource;
+import com.netflix.governator.spi.ClassSourceProvider;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Inherited;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,15 +27,17 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 /**
  * When installed this module will scan for annotated classes and creating appropriate bindings.  
  * The specific annotation to scan and binding semantics are captured in a {@link AnnotatedClassScanner}.
  * 
+ * Only classes within the specified packages are considered and their class level annotations are 
+ * read from bytecode so that only classes annotated with one of the scanners' annotations are loaded.
+ * 
  * The following example shows how to install a module that creates bindings for classes containing
  * the AutoBindSingleton annotation.
  * 
@@ -46,6 +57,9 @@ public class ScanningModuleBuilder {
     private List<AnnotatedClassScanner> scanners = new ArrayList<>();
     private ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
     private Predicate<Class<?>> excludeRule = (cls) -> false;
+    private boolean useAnnotationIndex = false;
+    private File scanCacheDirectory = null;
+    private List<ClassSourceProvider> classSourceProviders = new ArrayList<>();
     
     /**
      * Specify a custom class loader to use.  If not specified Thread.currentThread().getContextClassLoader()
@@ -59,6 +73,45 @@ public class ScanningModuleBuilder {
         return this;
     }
     
+    /**
+     * Use the class indexes written by governator-annotation-processor instead of scanning jars
+     * and directories that have an index.  Jars and directories without an index, or whose index 
+     * doesn't include all of the scanners' annotations, are still scanned.
+     * 
+     * @return Builder for chaining
+     */
+    public ScanningModuleBuilder usingAnnotationIndex() {
+        this.useAnnotationIndex = true;
+        return this;
+    }
+    
+    /**
+     * Cache the classes found in each jar in the specified directory so that restarts with the same
+     * jars don't need to read the bytecode of every class.  The cache can be shared by all instances
+     * on a host.  Entries for a jar are invalidated when the jar changes.
+     * 
+     * @param directory Directory for the cache, created if it doesn't exist
+     * @return Builder for chaining
+     */
+    public ScanningModuleBuilder usingScanCache(File directory) {
+        this.scanCacheDirectory = directory;
+        return this;
+    }
+    
+    /**
+     * Read classes from URLs that aren't supported out of the box, such as those of a custom
+     * ClassLoader.  Directories, jars, jars and directories nested in a jar and modules of the 
+     * runtime image are supported without a provider.  Providers are consulted in the order they 
+     * were added.
+     * 
+     * @param provider Provider of the {@link ClassSource} for a package URL
+     * @return Builder for chaining
+     */
+    public ScanningModuleBuilder addClassSourceProvider(ClassSourceProvider provider) {
+        classSourceProviders.add(provider);
+        return this;
+    }
+    
     /**
      * Set of packages to scan.  
      * 
@@ -143,7 +196,16 @@ public class ScanningModuleBuilder {
 
         List<Consumer<Binder>> consumers = new ArrayList<>();
         
-        ScannerContext scanner = new ScannerContext();
+        Set<String> annotationDescriptors = annotationDescriptors();
+        // Indexes can't list subclasses that inherit an annotation either
+        AnnotationIndex index = useAnnotationIndex && annotationDescriptors != null 
+                ? AnnotationIndex.load(classLoader) 
+                : null;
+        // Cached results are the classes that passed the bytecode pre-screen
+        ScanCache scanCache = scanCacheDirectory != null && annotationDescriptors != null 
+                ? new ScanCache(scanCacheDirectory) 
+                : null;
+        ScannerContext scanner = new ScannerContext(annotationDescriptors, index, scanCache);
         for ( String basePackage : packages )  {
             scanner.doScan(basePackage, new Consumer<String>() {
                 @Override
@@ -165,6 +227,7 @@ public class ScanningModuleBuilder {
                 }
             });
         }
+        LOG.debug("Scanned {} classes, loaded {}", scanner.scannedCount, scanner.loadedCount);
         
         // Generate the list of elements here and immediately create a module from them.  This ensures
         // that the class path is canned only once as a Module's configure method may be called multiple
@@ -172,9 +235,38 @@ public class ScanningModuleBuilder {
         return binder -> consumers.forEach(consumer -> consumer.accept(binder));
     }
     
+    /**
+     * @return Descriptors of the annotations handled by the scanners or null if classes can't be 
+     *  pre-screened from their bytecode because an annotation is @Inherited
+     */
+    private Set<String> annotationDescriptors() {
+        Set<String> descriptors = new HashSet<>();
+        for (AnnotatedClassScanner scanner : scanners) {
+            if (scanner.annotationClass().isAnnotationPresent(Inherited.class)) {
+                return null;
+            }
+            descriptors.add(ClassAnnotationReader.descriptorOf(scanner.annotationClass()));
+        }
+        return descriptors;
+    }
+    
     private class ScannerContext {
         // Used to dedup packages that were already scanned
         private final Set<URL> foundUrls = new HashSet<>();
+        // Only classes with one of these annotations in their bytecode are loaded.  Null to load all classes.
+        private final Set<String> annotationDescriptors;
+        private final AnnotationIndex index;
+        private final ScanCache scanCache;
+        private final Set<String> annotationNames = new HashSet<>();
+        private int scannedCount;
+        private int loadedCount;
+        
+        ScannerContext(Set<String> annotationDescriptors, AnnotationIndex index, ScanCache scanCache) {
+            this.annotationDescriptors = annotationDescriptors;
+            this.index = index;
+            this.scanCache = scanCache;
+            scanners.forEach(scanner -> annotationNames.add(scanner.annotationClass().getName()));
+        }
         
         /**
          * Scan the specified packages and it's subpackages notifying the consumer for any new
@@ -195,32 +287,40 @@ public class ScanningModuleBuilder {
                     }
                     foundUrls.add(url);
                     
+                    Collection<String> indexed = index != null ? index.getClasses(url, basePackage, annotationNames) : null;
+                    if (indexed != null) {
+                        LOG.debug("Using annotation index for url {}", url);
+                        for (String className : indexed) {
+                            scannedCount++;
+                            loadedCount++;
+                            consumer.accept(className);
+                        }
+                        continue;
+                    }
+                    
                     try {
-                        if ( isJarURL(url)) {
-                            String jarPath = url.getFile();
-                            if ( jarPath.contains("!") ) {
-                                jarPath = jarPath.substring(0, jarPath.indexOf("!"));
-                                url = new URL(jarPath);
+                        ClassSource source = ClassSources.forUrl(url, basePackage, classSourceProviders);
+                        File archive = source.getArchive();
+                        ScanCache.Lookup lookup = scanCache != null && archive != null 
+                                ? scanCache.lookup(archive, cacheQuery(basePackage, source.getArchivePath())) 
+                                : null;
+                        if (lookup != null && lookup.getClassNames() != null) {
+                            for (String className : lookup.getClassNames()) {
+                                scannedCount++;
+                                loadedCount++;
+                                consumer.accept(className);
                             }
-                            
-                            File file = ClasspathUrlDecoder.toFile(url);
-                            try (JarFile jar = new JarFile(file)) {
-                                for (JarEntry entry : Collections.list(jar.entries())) {
-                                    try {
-                                        int pos = entry.getName().indexOf(".class");
-                                        if (pos != -1) {
-                                            consumer.accept(entry.getName().substring(0,  pos).replace('/', '.'));
-                                        }
-                                    } catch (Exception e) {
-                                        throw new Exception(
-                                                String.format("Unable to scan JarEntry '%s' in '%s'. %s", entry.getName(), file.getCanonicalPath(), e.getMessage()));
-                                    }
-                                }
-                            } catch (Exception e ) {
-                                throw new Exception(String.format("Unable to scan '%s'. %s", file.getCanonicalPath(), e.getMessage()));
+                            continue;
+                        }
+                        
+                        List<String> matched = new ArrayList<>();
+                        source.forEachClass((className, bytecode) -> {
+                            if (accept(className, bytecode, consumer)) {
+                                matched.add(className);
                             }
-                        } else {
-                            scanPackage(url, basePackage, consumer);
+                        });
+                        if (lookup != null) {
+                            lookup.store(matched);
                         }
                     } catch (Exception e) {
                         throw new Exception(String.format("Unable to scan jar '%s'. %s ", url, e.getMessage()));
@@ -231,35 +331,32 @@ public class ScanningModuleBuilder {
             }
         }
         
-        private boolean isJarURL(URL url) {
-            String protocol = url.getProtocol();
-            return "zip".equals(protocol) || "jar".equals(protocol) ||
-                    ("file".equals(protocol) && url.getPath().endsWith(".jar"));
-        }
-        
-        private void scanPackage(URL url, String basePackage, Consumer<String> consumer) {
-            File dir = ClasspathUrlDecoder.toFile(url);
-            if (dir.isDirectory()) {
-                scanDir(dir, (basePackage.length() > 0) ? (basePackage + ".") : "", consumer);
-            }
-        }
-
-        private void scanDir(File dir, String packageName, Consumer<String> consumer) {
-            LOG.debug("Scanning dir {}", packageName);
-            
-            File[] files = dir.listFiles();
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    scanDir(file, packageName + file.getName() + ".", consumer);
-                } else if (file.getName().endsWith(".class")) {
-                    String name = file.getName();
-                    name = name.replaceFirst(".class$", "");
-                    if (name.contains(".")) {
-                        continue;
+        /**
+         * Pass the class to the consumer if its bytecode contains one of the annotations.  Classes
+         * whose bytecode can't be read are passed on so they are checked after loading.
+         * 
+         * @return True if the class was passed to the consumer
+         */
+        private boolean accept(String className, BytecodeSource source, Consumer<String> consumer) {
+            scannedCount++;
+            if (annotationDescriptors != null) {
+                try (InputStream is = source.open()) {
+                    Set<String> descriptors = ClassAnnotationReader.getAnnotationDescriptors(ClassAnnotationReader.toByteArray(is));
+                    if (Collections.disjoint(descriptors, annotationDescriptors)) {
+                        return false;
                     }
-                    consumer.accept(packageName + name);
+                } catch (IOException e) {
+                    LOG.debug("Unable to read bytecode of class {}", className, e);
                 }
             }
+            loadedCount++;
+            consumer.accept(className);
+            return true;
+        }
+        
+        private String cacheQuery(String basePackage, String archivePath) {
+            return ScanningModuleBuilder.class.getName() + ":" + basePackage + ":" + new TreeSet<>(annotationDescriptors)
+                    + (archivePath.isEmpty() ? "" : ":" + archivePath);
         }
     }
 }
@@ -80,6 +80,16 @@ public final class SimpleProvisionMetrics implements ProvisionMetrics {
         public long getTotalDuration(TimeUnit units) {
             return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
         }
+        
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+        
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
     }
     
     private Node currentNode() {
@@ -0,0 +1,64 @@
+package com.netflix.governator;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Key;
+
+/**
+ * Progress of provisioning the injector's lazy singletons in the background once it has started, 
+ * when enabled through {@link GovernatorFeatures#WARM_UP_SINGLETONS}.  Injectors created in 
+ * Stage.DEVELOPMENT only create singletons on first use, which otherwise moves their construction 
+ * onto the first requests served.  Waiting for the warm-up before taking traffic avoids that.
+ * 
+ * When the feature is disabled the warm-up is done right away with nothing to provision.
+ * 
+ * <pre>
+ * {@code
+ * injector.getInstance(SingletonWarmUp.class).await(30, TimeUnit.SECONDS);
+ * }
+ * </pre>
+ */
+public interface SingletonWarmUp {
+    /**
+     * @return Number of singletons to provision
+     */
+    int getTotal();
+    
+    /**
+     * @return Number of singletons provisioned so far
+     */
+    int getCompleted();
+    
+    /**
+     * @return Number of singletons that failed to provision so far
+     */
+    int getFailed();
+    
+    /**
+     * @return Failures by key.  A singleton that failed is provisioned again on first use.
+     */
+    Map<Key<?>, Throwable> getFailures();
+    
+    /**
+     * @return Time spent warming up so far, or in total once done
+     */
+    long getDuration(TimeUnit units);
+    
+    /**
+     * @return True once all singletons have been provisioned, or the warm-up was stopped because
+     *  the injector is shutting down
+     */
+    boolean isDone();
+    
+    /**
+     * Wait for the warm-up to be done
+     */
+    void await() throws InterruptedException;
+    
+    /**
+     * Wait for the warm-up to be done
+     * @return True if done or false if the timeout elapsed first
+     */
+    boolean await(long timeout, TimeUnit units) throws InterruptedException;
+}
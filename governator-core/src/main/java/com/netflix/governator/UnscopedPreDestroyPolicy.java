@@ -0,0 +1,26 @@
+package com.netflix.governator;
+
+/**
+ * How @PreDestroy methods of unscoped instances are tracked.  Unscoped instances are only weakly 
+ * referenced so their @PreDestroy methods are invoked when the injector is shut down iff the 
+ * instance hasn't been garbage collected by then.
+ * 
+ * @see GovernatorFeatures#UNSCOPED_PRE_DESTROY_POLICY
+ */
+public enum UnscopedPreDestroyPolicy {
+    /**
+     * Track every unscoped instance
+     */
+    TRACK,
+    
+    /**
+     * Track a random sample of unscoped instances, as determined by 
+     * {@link GovernatorFeatures#UNSCOPED_PRE_DESTROY_SAMPLE_RATE}
+     */
+    SAMPLE,
+    
+    /**
+     * Don't track unscoped instances.  Their @PreDestroy methods are never invoked.
+     */
+    IGNORE
+}
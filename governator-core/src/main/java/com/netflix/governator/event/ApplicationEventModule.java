@@ -1,6 +1,8 @@
 package com.netflix.governator.event;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -10,6 +12,7 @@ import javax.inject.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.reflect.TypeToken;
 import com.google.inject.AbstractModule;
 import com.google.inject.TypeLiteral;
 import com.google.inject.matcher.Matchers;
@@ -21,7 +24,8 @@ import com.netflix.governator.event.guava.GuavaApplicationEventModule;
 
 /**
  * Adds support for passing {@link ApplicationEvent}s. Default (Guava-based) implementation
- * can be found in {@link GuavaApplicationEventModule}
+ * can be found in {@link GuavaApplicationEventModule} and an implementation that indexes listeners
+ * by event type in {@link com.netflix.governator.event.indexed.IndexedApplicationEventModule}
  * 
  * See {@link EventListener} and {@link ApplicationEventDispatcher} for usage. 
  */
@@ -78,6 +82,7 @@ public final class ApplicationEventModule extends AbstractModule {
     
     private static class ApplicationEventSubscribingProvisionListener implements ProvisionListener {
         
+        private static final Logger LOG = LoggerFactory.getLogger(ApplicationEventSubscribingProvisionListener.class);
         private final Provider<ApplicationEventDispatcher> dispatcherProvider;
         
         public ApplicationEventSubscribingProvisionListener(Provider<ApplicationEventDispatcher> dispatcherProvider) {
@@ -90,6 +95,25 @@ public final class ApplicationEventModule extends AbstractModule {
             if (provisioned != null && provisioned instanceof ApplicationEventListener) {
                 dispatcherProvider.get().registerListener((ApplicationEventListener)provisioned);
             }
+            if (provisioned != null && provisioned instanceof BatchApplicationEventListener) {
+                registerBatchListener((BatchApplicationEventListener)provisioned);
+            }
+        }
+        
+        /**
+         * Register a listener whose class binds the event type to a class.  Generic listeners, such as
+         * CoalescingBatchListener, don't know their event type at runtime and must be registered
+         * explicitly.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private void registerBatchListener(BatchApplicationEventListener listener) {
+            Type type = TypeToken.of(listener.getClass()).getSupertype(BatchApplicationEventListener.class).getType();
+            Type eventType = type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments()[0] : null;
+            if (eventType instanceof Class) {
+                dispatcherProvider.get().registerBatchListener((Class) eventType, listener);
+            } else {
+                LOG.warn("Unable to determine the event type of BatchApplicationEventListener {}.  It must be registered with the ApplicationEventDispatcher explicitly", listener);
+            }
         }
     }
 
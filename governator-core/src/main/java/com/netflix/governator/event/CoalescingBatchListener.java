@@ -0,0 +1,191 @@
+package com.netflix.governator.event;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.netflix.governator.spi.GovernatorExecutors;
+import com.netflix.governator.spi.LifecycleListener;
+
+/**
+ * {@link BatchApplicationEventListener} that coalesces the events it receives, from any number of
+ * publishes, into larger batches for a delegate listener.  A batch is delivered once it reaches
+ * maxBatchSize events or maxDelay after its first event was received, whichever comes first.
+ *
+ * <code>
+ * dispatcher.registerBatchListener(CacheInvalidation.class,
+ *     new CoalescingBatchListener&lt;&gt;(invalidator, 1000, 50, TimeUnit.MILLISECONDS));
+ * </code>
+ *
+ * Batches are delivered one at a time, in the order their events were received, by the thread
+ * publishing the event that fills the batch or by the scheduler's thread.  Publishers wait while
+ * a batch is delivered.  Exceptions thrown by the delegate are logged.  Pending events are
+ * delivered when the listener is closed and events received after that are passed on as is.
+ *
+ * The listener is also a {@link LifecycleListener} that closes itself when the injector is stopped,
+ * so pending events aren't lost when it is provided by the injector, using the injector's
+ * {@link GovernatorExecutors} for its thread:
+ *
+ * <code>
+ * {@literal @}Provides {@literal @}Singleton
+ * CoalescingBatchListener&lt;CacheInvalidation&gt; getInvalidationListener(ApplicationEventDispatcher dispatcher, GovernatorExecutors executors) {
+ *     CoalescingBatchListener&lt;CacheInvalidation&gt; listener = new CoalescingBatchListener&lt;&gt;(invalidator, 1000, 50, TimeUnit.MILLISECONDS, executors);
+ *     dispatcher.registerBatchListener(CacheInvalidation.class, listener);
+ *     return listener;
+ * }
+ * </code>
+ */
+public final class CoalescingBatchListener<T extends ApplicationEvent> implements BatchApplicationEventListener<T>, LifecycleListener, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingBatchListener.class);
+
+    private final BatchApplicationEventListener<T> delegate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService scheduler;
+    // True if the scheduler was created by, and is shut down with, this listener
+    private final boolean ownsScheduler;
+
+    // Guarded by this
+    private List<T> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    /**
+     * Create a listener whose time based flushes run on its own platform daemon thread, started when
+     * needed and stopped when the listener is closed
+     *
+     * @param delegate Listener that receives the coalesced batches
+     * @param maxBatchSize Maximum number of events in a batch
+     * @param maxDelay Maximum time an event waits for its batch to fill up
+     * @param units Units of maxDelay
+     */
+    public CoalescingBatchListener(BatchApplicationEventListener<T> delegate, int maxBatchSize, long maxDelay, TimeUnit units) {
+        this(delegate, maxBatchSize, maxDelay, units, GovernatorExecutors.platform());
+    }
+
+    /**
+     * Create a listener whose time based flushes run on its own thread, started when needed and
+     * stopped when the listener is closed
+     *
+     * @param delegate Listener that receives the coalesced batches
+     * @param maxBatchSize Maximum number of events in a batch
+     * @param maxDelay Maximum time an event waits for its batch to fill up
+     * @param units Units of maxDelay
+     * @param executors Creates the thread, normally the injector's GovernatorExecutors
+     */
+    public CoalescingBatchListener(BatchApplicationEventListener<T> delegate, int maxBatchSize, long maxDelay, TimeUnit units,
+            GovernatorExecutors executors) {
+        this(delegate, maxBatchSize, maxDelay, units, newScheduler(executors), true);
+    }
+
+    /**
+     * @param delegate Listener that receives the coalesced batches
+     * @param maxBatchSize Maximum number of events in a batch
+     * @param maxDelay Maximum time an event waits for its batch to fill up
+     * @param units Units of maxDelay
+     * @param scheduler Scheduler on which time based flushes are run.  Not shut down by the listener.
+     */
+    public CoalescingBatchListener(BatchApplicationEventListener<T> delegate, int maxBatchSize, long maxDelay, TimeUnit units,
+            ScheduledExecutorService scheduler) {
+        this(delegate, maxBatchSize, maxDelay, units, scheduler, false);
+    }
+
+    private CoalescingBatchListener(BatchApplicationEventListener<T> delegate, int maxBatchSize, long maxDelay, TimeUnit units,
+            ScheduledExecutorService scheduler, boolean ownsScheduler) {
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0");
+        Preconditions.checkArgument(maxDelay > 0, "maxDelay must be > 0");
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.scheduler = Preconditions.checkNotNull(scheduler, "scheduler");
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = units.toNanos(maxDelay);
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    private static ScheduledExecutorService newScheduler(GovernatorExecutors executors) {
+        Preconditions.checkNotNull(executors, "executors");
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                executors.newThreadFactory("governator-event-coalescer", true));
+        // Don't hold a thread while there is nothing to flush
+        scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Override
+    public synchronized void onEvents(List<T> events) {
+        if (closed) {
+            delegate.onEvents(events);
+            return;
+        }
+
+        for (T event : events) {
+            pending.add(event);
+            if (pending.size() >= maxBatchSize) {
+                flush();
+            }
+        }
+        if (!pending.isEmpty() && scheduledFlush == null) {
+            scheduledFlush = scheduler.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Deliver any pending events now
+     */
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        final List<T> batch = pending;
+        pending = new ArrayList<>();
+        try {
+            delegate.onEvents(Collections.unmodifiableList(batch));
+        }
+        catch (RuntimeException e) {
+            LOG.error("Exception thrown by batch listener {} while handling {} events", delegate, batch.size(), e);
+        }
+    }
+
+    /**
+     * Deliver any pending events and stop coalescing
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        flush();
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public void onStarted() {
+    }
+
+    /**
+     * The injector is stopping.  Deliver any pending events and stop coalescing.
+     */
+    @Override
+    public void onStopped(Throwable error) {
+        close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CoalescingBatchListener[maxBatchSize=" + maxBatchSize + ", pending=" + pending.size() + ", delegate=" + delegate + "]";
+    }
+}
@@ -0,0 +1,309 @@
+package com.netflix.governator.event.async;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.netflix.governator.event.ApplicationEvent;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.ApplicationEventListener;
+import com.netflix.governator.event.ApplicationEventRegistration;
+import com.netflix.governator.event.BatchApplicationEventListener;
+import com.netflix.governator.event.OrderedApplicationEvent;
+import com.netflix.governator.spi.LifecycleListener;
+
+/**
+ * ApplicationEventDispatcher that delivers events on its own threads so that slow listeners don't
+ * add latency to the code publishing events.  Listeners are registered with, and events delivered
+ * by, a delegate dispatcher.
+ *
+ * Each thread has its own bounded queue.  Events are assigned to a thread by their
+ * {@link OrderedApplicationEvent#getOrderingKey() ordering key}, or by their class if they don't
+ * have one, so events with the same key are delivered in the order they were published.  When a
+ * queue is full the {@link EventOverflowPolicy} decides whether the publisher blocks, the oldest
+ * queued event is dropped or the publisher delivers the event itself.  Events published by a
+ * listener to a full queue are always delivered by the listener's thread to avoid a deadlock.
+ *
+ * Queued events are delivered when the injector is stopped, for up to the drain timeout.  Events
+ * published once the injector is stopping are delivered on the publishing thread.
+ */
+public final class AsyncApplicationEventDispatcher implements ApplicationEventDispatcher, LifecycleListener {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncApplicationEventDispatcher.class);
+
+    private final ApplicationEventDispatcher delegate;
+    private final EventOverflowPolicy overflowPolicy;
+    private final long drainTimeoutNanos;
+    private final ThreadPoolExecutor[] lanes;
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Delivers a single event or, when published with publishEvents, all events of the batch
+     * that were assigned to the same thread
+     */
+    private final class EventTask implements Runnable {
+        final ApplicationEvent event;
+        final List<ApplicationEvent> batch;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        EventTask(ApplicationEvent event) {
+            this.event = event;
+            this.batch = null;
+        }
+
+        EventTask(List<ApplicationEvent> batch) {
+            this.event = null;
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                if (batch == null) {
+                    // The delegate may only queue the event, when this thread is already delivering
+                    // one, so wait for it to say that the event was delivered
+                    delegate.publishEventAsync(event).whenComplete(this::delivered);
+                }
+                else {
+                    delegate.publishEvents(batch);
+                    future.complete(null);
+                }
+            }
+            catch (RuntimeException e) {
+                LOG.error("Failed to deliver {}", batch == null ? event : batch.size() + " events", e);
+                future.completeExceptionally(e);
+            }
+            catch (Error e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private void delivered(Void ignored, Throwable error) {
+            if (error == null) {
+                future.complete(null);
+            }
+            else {
+                LOG.error("Failed to deliver {}", event, error);
+                future.completeExceptionally(error);
+            }
+        }
+
+        int size() {
+            return batch == null ? 1 : batch.size();
+        }
+
+        void drop() {
+            if (future.cancel(false)) {
+                dropped.addAndGet(size());
+            }
+        }
+    }
+
+    /**
+     * RejectedExecutionHandler for the lanes, called when a lane's queue is full or it was shut down
+     */
+    private void overflow(Runnable runnable, ThreadPoolExecutor executor) {
+        final EventTask task = (EventTask) runnable;
+        if (executor.isShutdown() || workers.contains(Thread.currentThread())) {
+            task.run();
+            return;
+        }
+
+        switch (overflowPolicy) {
+        case BLOCK:
+            try {
+                executor.getQueue().put(task);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.drop();
+                return;
+            }
+            // The lane may have been shut down while waiting in which case the task won't be run
+            if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                task.run();
+            }
+            break;
+
+        case DROP_OLDEST:
+            final Runnable oldest = executor.getQueue().poll();
+            if (oldest != null) {
+                ((EventTask) oldest).drop();
+            }
+            executor.execute(task);
+            break;
+
+        case CALLER_RUNS:
+            task.run();
+            break;
+        }
+    }
+
+    /**
+     * @param delegate Dispatcher with which listeners are registered and that delivers each event
+     * @param threadFactory Factory for the threads that deliver events
+     * @param threads Number of threads, each with its own queue
+     * @param queueCapacity Maximum number of events queued for each thread
+     * @param overflowPolicy What to do with an event published to a full queue
+     * @param drainTimeout Time to wait on shutdown for queued events to be delivered.  0 for no limit
+     * @param units Units of drainTimeout
+     */
+    public AsyncApplicationEventDispatcher(ApplicationEventDispatcher delegate, ThreadFactory threadFactory, int threads,
+            int queueCapacity, EventOverflowPolicy overflowPolicy, long drainTimeout, TimeUnit units) {
+        Preconditions.checkArgument(threads > 0, "threads must be > 0");
+        Preconditions.checkArgument(queueCapacity > 0, "queueCapacity must be > 0");
+        Preconditions.checkArgument(drainTimeout >= 0, "drainTimeout must be >= 0");
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy, "overflowPolicy");
+        this.drainTimeoutNanos = drainTimeout == 0 ? Long.MAX_VALUE : units.toNanos(drainTimeout);
+
+        final ThreadFactory workerFactory = runnable -> threadFactory.newThread(() -> {
+            workers.add(Thread.currentThread());
+            try {
+                runnable.run();
+            }
+            finally {
+                workers.remove(Thread.currentThread());
+            }
+        });
+        this.lanes = new ThreadPoolExecutor[threads];
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), workerFactory, this::overflow);
+        }
+    }
+
+    @Override
+    public <T extends ApplicationEvent> ApplicationEventRegistration registerListener(Class<T> eventType, ApplicationEventListener<T> eventListener) {
+        return delegate.registerListener(eventType, eventListener);
+    }
+
+    @Override
+    public ApplicationEventRegistration registerListener(ApplicationEventListener<? extends ApplicationEvent> eventListener) {
+        return delegate.registerListener(eventListener);
+    }
+
+    @Override
+    public ApplicationEventRegistration registerListener(Object instance, Method method, Class<? extends ApplicationEvent> acceptedType) {
+        return delegate.registerListener(instance, method, acceptedType);
+    }
+
+    @Override
+    public <T extends ApplicationEvent> ApplicationEventRegistration registerBatchListener(Class<T> eventType, BatchApplicationEventListener<T> eventListener) {
+        return delegate.registerBatchListener(eventType, eventListener);
+    }
+
+    @Override
+    public void publishEvent(ApplicationEvent event) {
+        publishEventAsync(event);
+    }
+
+    /**
+     * The future is completed once the delegate has delivered the event, by whichever thread ends up
+     * delivering it, and is cancelled if the event is dropped.  Exceptions thrown by listeners are
+     * logged by the delegate and don't fail the future.
+     */
+    @Override
+    public CompletableFuture<Void> publishEventAsync(ApplicationEvent event) {
+        final EventTask task = new EventTask(event);
+        laneFor(event).execute(task);
+        return task.future;
+    }
+
+    /**
+     * Split the events by the thread that delivers them, keeping their order, and queue each part
+     * as a single task.  A part dropped because of the {@link EventOverflowPolicy#DROP_OLDEST} policy
+     * is dropped as a whole.
+     */
+    @Override
+    public void publishEvents(Collection<? extends ApplicationEvent> events) {
+        final Map<ThreadPoolExecutor, List<ApplicationEvent>> batches = new LinkedHashMap<>();
+        for (ApplicationEvent event : events) {
+            batches.computeIfAbsent(laneFor(event), lane -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<ThreadPoolExecutor, List<ApplicationEvent>> entry : batches.entrySet()) {
+            entry.getKey().execute(new EventTask(entry.getValue()));
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(ApplicationEvent event) {
+        final Object key = event instanceof OrderedApplicationEvent
+                ? ((OrderedApplicationEvent) event).getOrderingKey()
+                : event.getClass();
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        return lanes[Math.floorMod(h, lanes.length)];
+    }
+
+    /**
+     * @return Number of events dropped because their queue was full or they were still queued
+     *  once the drain timeout expired
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void onStarted() {
+    }
+
+    /**
+     * Deliver all queued events, for up to the drain timeout, and stop the threads
+     */
+    @Override
+    public void onStopped(Throwable error) {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+
+        final long deadline = System.nanoTime() + drainTimeoutNanos;
+        try {
+            for (ThreadPoolExecutor lane : lanes) {
+                final long remaining = drainTimeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+                if (!lane.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int abandoned = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            final List<Runnable> pending = lane.shutdownNow();
+            for (Runnable runnable : pending) {
+                final EventTask task = (EventTask) runnable;
+                task.drop();
+                abandoned += task.size();
+            }
+        }
+        if (abandoned > 0) {
+            LOG.warn("Dropped {} events that were not delivered within the drain timeout", abandoned);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncApplicationEventDispatcher[threads=" + lanes.length + ", policy=" + overflowPolicy + ", dropped=" + dropped.get() + "]";
+    }
+}
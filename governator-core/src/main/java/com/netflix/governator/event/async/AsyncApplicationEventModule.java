@@ -0,0 +1,68 @@
+package com.netflix.governator.event.async;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+import com.netflix.governator.GovernatorFeature;
+import com.netflix.governator.GovernatorFeatures;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.ApplicationEventModule;
+import com.netflix.governator.event.indexed.IndexedApplicationEventDispatcher;
+import com.netflix.governator.internal.ExecutorsEx;
+import com.netflix.governator.internal.GovernatorFeatureSet;
+
+/**
+ * Binds an {@link AsyncApplicationEventDispatcher}, delivering events through an 
+ * {@link IndexedApplicationEventDispatcher}, as the {@link ApplicationEventDispatcher}.  Threads, 
+ * queue sizes and the overflow policy are configured with the ASYNC_EVENTS features in 
+ * {@link GovernatorFeatures}.
+ */
+public final class AsyncApplicationEventModule extends AbstractModule {
+
+    static class OptionalArgs {
+        @com.google.inject.Inject(optional = true)
+        GovernatorFeatureSet governatorFeatures;
+
+        <T> T get(GovernatorFeature<T> feature) {
+            return governatorFeatures == null ? feature.getDefaultValue() : governatorFeatures.get(feature);
+        }
+    }
+
+    @Override
+    protected void configure() {
+        install(new ApplicationEventModule());
+        bind(ApplicationEventDispatcher.class).to(AsyncApplicationEventDispatcher.class).asEagerSingleton();
+    }
+
+    @Provides
+    @Singleton
+    AsyncApplicationEventDispatcher getAsyncApplicationEventDispatcher(Injector injector, OptionalArgs args) {
+        return new AsyncApplicationEventDispatcher(
+                new IndexedApplicationEventDispatcher(),
+                ExecutorsEx.get(injector).newThreadFactory("governator-event", true),
+                args.get(GovernatorFeatures.ASYNC_EVENTS_THREADS),
+                args.get(GovernatorFeatures.ASYNC_EVENTS_QUEUE_CAPACITY),
+                args.get(GovernatorFeatures.ASYNC_EVENTS_OVERFLOW_POLICY),
+                args.get(GovernatorFeatures.ASYNC_EVENTS_DRAIN_TIMEOUT_MS),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return getClass().equals(obj.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncApplicationEventModule[]";
+    }
+}
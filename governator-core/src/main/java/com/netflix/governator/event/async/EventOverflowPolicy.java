@@ -0,0 +1,28 @@
+package com.netflix.governator.event.async;
+
+import com.netflix.governator.GovernatorFeatures;
+
+/**
+ * What {@link AsyncApplicationEventDispatcher} does with an event published while the queue of 
+ * its ordering key is full.
+ * 
+ * @see GovernatorFeatures#ASYNC_EVENTS_OVERFLOW_POLICY
+ */
+public enum EventOverflowPolicy {
+    /**
+     * Block the publishing thread until there is space in the queue
+     */
+    BLOCK,
+    
+    /**
+     * Drop the oldest event in the queue to make space.  The future returned when the dropped 
+     * event was published is cancelled.
+     */
+    DROP_OLDEST,
+    
+    /**
+     * Deliver the event on the publishing thread.  The event may be delivered before events with 
+     * the same ordering key that are still queued.
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,347 @@
+package com.netflix.governator.event.indexed;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.reflect.TypeToken;
+import com.netflix.governator.event.ApplicationEvent;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.ApplicationEventListener;
+import com.netflix.governator.event.ApplicationEventRegistration;
+import com.netflix.governator.event.BatchApplicationEventListener;
+import com.netflix.governator.internal.MethodInvokers;
+
+/**
+ * ApplicationEventDispatcher that indexes listeners by the event type they accept.  The listeners
+ * for a concrete event class are resolved once, from the listeners of all of its superclasses and
+ * interfaces, and cached until a listener is registered or unregistered.  Publishing an event
+ * therefore only touches the listeners that will receive it.  @EventListener methods are
+ * called through invokers generated by {@link MethodInvokers} instead of Method.invoke().
+ *
+ * Delivery follows the same rules as Guava's EventBus so that this dispatcher may replace
+ * {@link com.netflix.governator.event.guava.GuavaApplicationEventModule}
+ * <ul>
+ * <li>Events are delivered synchronously on the publishing thread, to listeners in the order
+ *     they were registered</li>
+ * <li>Events published by a listener are queued and delivered once the event being dispatched
+ *     has reached all of its listeners</li>
+ * <li>Exceptions thrown by a listener are logged and don't prevent delivery to other listeners</li>
+ * </ul>
+ *
+ * Events published together with {@link #publishEvents(Collection)} are delivered to each
+ * {@link BatchApplicationEventListener} in a single call.
+ */
+public final class IndexedApplicationEventDispatcher implements ApplicationEventDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexedApplicationEventDispatcher.class);
+
+    private static final Subscriber[] NONE = new Subscriber[0];
+
+    private static final Comparator<Subscriber> BY_REGISTRATION = Comparator.comparingLong(s -> s.sequence);
+
+    /**
+     * All classes and interfaces an event class may be assigned to, including itself
+     */
+    private static final ClassValue<Class<?>[]> HIERARCHY = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            final Set<Class<?>> types = new LinkedHashSet<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                addWithInterfaces(types, current);
+            }
+            return types.toArray(new Class<?>[types.size()]);
+        }
+
+        private void addWithInterfaces(Set<Class<?>> types, Class<?> type) {
+            if (types.add(type)) {
+                for (Class<?> iface : type.getInterfaces()) {
+                    addWithInterfaces(types, iface);
+                }
+            }
+        }
+    };
+
+    private static final class Subscriber {
+        final Class<?> acceptedType;
+        final long sequence;
+        final ApplicationEventListener<ApplicationEvent> listener;
+        final BatchApplicationEventListener<ApplicationEvent> batchListener;
+
+        Subscriber(Class<?> acceptedType, long sequence, ApplicationEventListener<ApplicationEvent> listener,
+                BatchApplicationEventListener<ApplicationEvent> batchListener) {
+            this.acceptedType = acceptedType;
+            this.sequence = sequence;
+            this.listener = listener;
+            this.batchListener = batchListener;
+        }
+    }
+
+    private static final class DispatchState {
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        boolean dispatching;
+    }
+
+    private final Object lock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Subscribers by accepted type.  Arrays are never modified once published.  Guarded by lock
+     */
+    private final Map<Class<?>, Subscriber[]> byAcceptedType = new HashMap<>();
+
+    /**
+     * Subscribers by concrete event class, resolved from byAcceptedType.  Cleared whenever a
+     * subscriber is added or removed and only populated while holding lock
+     */
+    private final Map<Class<?>, Subscriber[]> byEventType = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<DispatchState> dispatchState = ThreadLocal.withInitial(DispatchState::new);
+
+    @Override
+    public ApplicationEventRegistration registerListener(Object instance, Method method, Class<? extends ApplicationEvent> acceptedType) {
+        final BiConsumer<Object, Object> invoker = MethodInvokers.forSingleArgMethod(method);
+        return register(acceptedType, event -> invoker.accept(instance, event));
+    }
+
+    @Override
+    public <T extends ApplicationEvent> ApplicationEventRegistration registerListener(Class<T> eventType, ApplicationEventListener<T> eventListener) {
+        return register(eventType, eventListener);
+    }
+
+    @Override
+    public ApplicationEventRegistration registerListener(ApplicationEventListener<? extends ApplicationEvent> eventListener) {
+        for (Type type : eventListener.getClass().getGenericInterfaces()) {
+            if (ApplicationEventListener.class.isAssignableFrom(TypeToken.of(type).getRawType())) {
+                ParameterizedType ptype = (ParameterizedType) type;
+                Class<?> rawType = TypeToken.of(ptype.getActualTypeArguments()[0]).getRawType();
+                return register(rawType, eventListener);
+            }
+        }
+        return new ApplicationEventRegistration() {
+            public void unregister() {}  //no-op. Could not find anything to register.
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends ApplicationEvent> ApplicationEventRegistration registerBatchListener(Class<T> eventType, BatchApplicationEventListener<T> eventListener) {
+        final BatchApplicationEventListener<ApplicationEvent> batchListener = (BatchApplicationEventListener<ApplicationEvent>) eventListener;
+        return register(new Subscriber(eventType, sequence.incrementAndGet(),
+                event -> batchListener.onEvents(Collections.singletonList(event)), batchListener));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ApplicationEventRegistration register(Class<?> acceptedType, ApplicationEventListener<?> listener) {
+        return register(new Subscriber(acceptedType, sequence.incrementAndGet(),
+                (ApplicationEventListener<ApplicationEvent>) listener, null));
+    }
+
+    private ApplicationEventRegistration register(Subscriber subscriber) {
+        final Class<?> acceptedType = subscriber.acceptedType;
+        synchronized (lock) {
+            final Subscriber[] current = byAcceptedType.getOrDefault(acceptedType, NONE);
+            final Subscriber[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscriber;
+            byAcceptedType.put(acceptedType, updated);
+            byEventType.clear();
+        }
+        return () -> unregister(subscriber);
+    }
+
+    private void unregister(Subscriber subscriber) {
+        synchronized (lock) {
+            final Subscriber[] current = byAcceptedType.get(subscriber.acceptedType);
+            if (current == null) {
+                return;
+            }
+            final List<Subscriber> remaining = new ArrayList<>(Arrays.asList(current));
+            if (!remaining.remove(subscriber)) {
+                return;
+            }
+            if (remaining.isEmpty()) {
+                byAcceptedType.remove(subscriber.acceptedType);
+            }
+            else {
+                byAcceptedType.put(subscriber.acceptedType, remaining.toArray(NONE));
+            }
+            byEventType.clear();
+        }
+    }
+
+    private Subscriber[] subscribersFor(Class<?> eventType) {
+        final Subscriber[] subscribers = byEventType.get(eventType);
+        if (subscribers != null) {
+            return subscribers;
+        }
+
+        synchronized (lock) {
+            return byEventType.computeIfAbsent(eventType, type -> {
+                final List<Subscriber> resolved = new ArrayList<>();
+                for (Class<?> assignable : HIERARCHY.get(type)) {
+                    final Subscriber[] accepting = byAcceptedType.get(assignable);
+                    if (accepting != null) {
+                        resolved.addAll(Arrays.asList(accepting));
+                    }
+                }
+                resolved.sort(BY_REGISTRATION);
+                return resolved.toArray(NONE);
+            });
+        }
+    }
+
+    @Override
+    public void publishEvent(ApplicationEvent event) {
+        publish(event, null);
+    }
+
+    /**
+     * The future is completed once the event has reached all of its listeners, which for an event
+     * published by a listener is only once it has been taken off the queue
+     */
+    @Override
+    public CompletableFuture<Void> publishEventAsync(ApplicationEvent event) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        publish(event, future);
+        return future;
+    }
+
+    /**
+     * @param delivered Completed once the event has been dispatched, may be null
+     */
+    private void publish(ApplicationEvent event, CompletableFuture<Void> delivered) {
+        final Subscriber[] subscribers = subscribersFor(event.getClass());
+        if (subscribers.length == 0) {
+            complete(delivered);
+            return;
+        }
+
+        final DispatchState state = dispatchState.get();
+        if (state.dispatching) {
+            state.queue.add(() -> {
+                dispatch(event, subscribers);
+                complete(delivered);
+            });
+            return;
+        }
+
+        state.dispatching = true;
+        try {
+            dispatch(event, subscribers);
+            complete(delivered);
+            drain(state);
+        }
+        finally {
+            state.queue.clear();
+            state.dispatching = false;
+        }
+    }
+
+    /**
+     * Resolve the listeners of each event once, group the events by listener and deliver all the
+     * events of a batch listener in a single call.  Listeners are called in registration order.
+     */
+    @Override
+    public void publishEvents(Collection<? extends ApplicationEvent> events) {
+        final Map<Subscriber, List<ApplicationEvent>> batches = new TreeMap<>(BY_REGISTRATION);
+        Class<?> lastType = null;
+        Subscriber[] subscribers = NONE;
+        for (ApplicationEvent event : events) {
+            if (event.getClass() != lastType) {
+                lastType = event.getClass();
+                subscribers = subscribersFor(lastType);
+            }
+            for (Subscriber subscriber : subscribers) {
+                batches.computeIfAbsent(subscriber, s -> new ArrayList<>()).add(event);
+            }
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        final DispatchState state = dispatchState.get();
+        if (state.dispatching) {
+            state.queue.add(() -> dispatch(batches));
+            return;
+        }
+
+        state.dispatching = true;
+        try {
+            dispatch(batches);
+            drain(state);
+        }
+        finally {
+            state.queue.clear();
+            state.dispatching = false;
+        }
+    }
+
+    private static void complete(CompletableFuture<Void> delivered) {
+        if (delivered != null) {
+            delivered.complete(null);
+        }
+    }
+
+    private static void drain(DispatchState state) {
+        Runnable queued;
+        while ((queued = state.queue.poll()) != null) {
+            queued.run();
+        }
+    }
+
+    private static void dispatch(Map<Subscriber, List<ApplicationEvent>> batches) {
+        for (Map.Entry<Subscriber, List<ApplicationEvent>> entry : batches.entrySet()) {
+            final Subscriber subscriber = entry.getKey();
+            if (subscriber.batchListener == null) {
+                for (ApplicationEvent event : entry.getValue()) {
+                    dispatch(event, subscriber);
+                }
+                continue;
+            }
+            try {
+                subscriber.batchListener.onEvents(Collections.unmodifiableList(entry.getValue()));
+            }
+            catch (Exception e) {
+                LOG.error("Exception thrown by batch listener for {} while handling {} events", subscriber.acceptedType.getName(), entry.getValue().size(), e);
+            }
+        }
+    }
+
+    private static void dispatch(ApplicationEvent event, Subscriber[] subscribers) {
+        for (Subscriber subscriber : subscribers) {
+            dispatch(event, subscriber);
+        }
+    }
+
+    private static void dispatch(ApplicationEvent event, Subscriber subscriber) {
+        try {
+            subscriber.listener.onEvent(event);
+        }
+        catch (Exception e) {
+            LOG.error("Exception thrown by listener for {} while handling {}", subscriber.acceptedType.getName(), event, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedApplicationEventDispatcher[]";
+    }
+}
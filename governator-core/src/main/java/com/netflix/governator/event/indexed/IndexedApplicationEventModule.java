@@ -0,0 +1,35 @@
+package com.netflix.governator.event.indexed;
+
+import com.google.inject.AbstractModule;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.ApplicationEventModule;
+
+/**
+ * Binds {@link IndexedApplicationEventDispatcher} as the {@link ApplicationEventDispatcher}.  A drop-in
+ * replacement for {@link com.netflix.governator.event.guava.GuavaApplicationEventModule} for applications
+ * with many listeners or event types, since publishing an event doesn't visit listeners of
+ * unrelated event types.
+ */
+public final class IndexedApplicationEventModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        install(new ApplicationEventModule());
+        bind(ApplicationEventDispatcher.class).to(IndexedApplicationEventDispatcher.class).asEagerSingleton();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return getClass().equals(obj.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedApplicationEventModule[]";
+    }
+}
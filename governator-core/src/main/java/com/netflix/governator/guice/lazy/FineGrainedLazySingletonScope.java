@@ -4,6 +4,8 @@ import com.google.inject.Scope;
 
 /**
  * A singleton factory that returns a Guice {@link Scope} that enables fine grained lazy singletons.
+ * Set the system property {@value #DETECT_DEADLOCKS_PROPERTY} to true to have threads that would
+ * deadlock creating each other's singletons fail with a ProvisionException describing the cycle.
  *
  * @see FineGrainedLazySingleton
  * @deprecated Use javax.inject.Singleton instead.  FineGrainedLazySingleton is not needed 
@@ -12,7 +14,9 @@ import com.google.inject.Scope;
 @Deprecated
 public class FineGrainedLazySingletonScope
 {
-    private static final Scope instance = new FineGrainedLazySingletonScopeImpl();
+    public static final String DETECT_DEADLOCKS_PROPERTY = "governator.fineGrainedLazySingleton.detectDeadlocks";
+
+    private static final Scope instance = new FineGrainedLazySingletonScopeImpl(Boolean.getBoolean(DETECT_DEADLOCKS_PROPERTY));
 
     /**
      * Returns the scope
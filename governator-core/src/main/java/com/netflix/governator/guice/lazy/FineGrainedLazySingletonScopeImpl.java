@@ -16,15 +16,26 @@
 
 package com.netflix.governator.guice.lazy;
 
-import com.google.common.collect.Maps;
 import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
 import com.netflix.governator.internal.AbstractScope;
 
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * Creation of each binding is guarded by its own lock, owned by the provider returned from
+ * {@link #scope(Key, Provider)}, so that threads creating unrelated keys never contend and locks
+ * aren't shared across injectors.  Once the instance is set it is returned without locking.
+ *
+ * When deadlock detection is enabled a thread that finds a lock contended checks whether the owner
+ * is, directly or through other threads, waiting on a lock held by the waiting thread and fails with
+ * a ProvisionException describing the cycle instead of deadlocking.
+ *
  * @deprecated Use javax.inject.Singleton instead.  FineGrainedLazySingleton is not needed 
  * as of Guice4 which fixes the global lock issue.
  */
@@ -32,7 +43,10 @@ import java.util.Map;
 class FineGrainedLazySingletonScopeImpl extends AbstractScope
 {
     private static final Object NULL = new Object();
-    private static final Map<Key<?>, LockRecord> locks = Maps.newHashMap();
+
+    private final boolean detectDeadlocks;
+    // Lock each thread is blocked on, only tracked while the lock is contended and detection is enabled
+    private final ConcurrentMap<Thread, KeyLock> waiting = new ConcurrentHashMap<Thread, KeyLock>();
 
     private static final Class<?> circularProxyClazz;
 
@@ -47,14 +61,40 @@ class FineGrainedLazySingletonScopeImpl extends AbstractScope
         circularProxyClazz = clz;
     }
 
-    private static class LockRecord
+    @SuppressWarnings("serial")
+    private static class KeyLock extends ReentrantLock
+    {
+        private final Key<?>        key;
+
+        KeyLock(Key<?> key)
+        {
+            this.key = key;
+        }
+
+        @Override
+        protected Thread getOwner()
+        {
+            return super.getOwner();
+        }
+    }
+
+    FineGrainedLazySingletonScopeImpl()
     {
-        private final Object        lock = new Object();
-        private int                 useCount = 0;
+        this(false);
+    }
+
+    /**
+     * @param detectDeadlocks if true threads waiting on a contended lock fail with a ProvisionException
+     *        instead of deadlocking when the lock's owner is waiting on one of their locks
+     */
+    FineGrainedLazySingletonScopeImpl(boolean detectDeadlocks)
+    {
+        this.detectDeadlocks = detectDeadlocks;
     }
 
     public <T> Provider<T> scope(final Key<T> key, final Provider<T> creator)
     {
+        final KeyLock lock = new KeyLock(key);
         return new Provider<T>()
         {
             /*
@@ -69,36 +109,32 @@ class FineGrainedLazySingletonScopeImpl extends AbstractScope
             {
                 if ( instance == null )
                 {
+                    acquireLock(lock);
                     try
                     {
-                        final Object      lock = getLock(key);
-                        //noinspection SynchronizationOnLocalVariableOrMethodParameter
-                        synchronized (lock)
+                        if ( instance == null )
                         {
-                            if ( instance == null )
+                            T provided = creator.get();
+
+                            // don't remember proxies; these exist only to serve circular dependencies
+                            // Don't do an instanceof check to avoid referencing Guice internal classes.
+                            if (circularProxyClazz != null && circularProxyClazz.isInstance(provided))
                             {
-                                T provided = creator.get();
-
-                                // don't remember proxies; these exist only to serve circular dependencies
-                                // Don't do an instanceof check to avoid referencing Guice internal classes.
-                                if (circularProxyClazz != null && circularProxyClazz.isInstance(provided))
-                                {
-                                    return provided;
-                                }
-
-                                Object providedOrSentinel = (provided == null) ? NULL : provided;
-                                if ( (instance != null) && (instance != providedOrSentinel) )
-                                {
-                                    throw new ProvisionException("Provider was reentrant while creating a singleton");
-                                }
-
-                                instance = providedOrSentinel;
+                                return provided;
                             }
+
+                            Object providedOrSentinel = (provided == null) ? NULL : provided;
+                            if ( (instance != null) && (instance != providedOrSentinel) )
+                            {
+                                throw new ProvisionException("Provider was reentrant while creating a singleton");
+                            }
+
+                            instance = providedOrSentinel;
                         }
                     }
                     finally
                     {
-                        releaseLock(key);
+                        lock.unlock();
                     }
                 }
 
@@ -116,33 +152,56 @@ class FineGrainedLazySingletonScopeImpl extends AbstractScope
         };
     }
 
-    @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
-    private Object getLock(Key<?> key)
+    private void acquireLock(KeyLock lock)
     {
-        synchronized(locks)
+        if ( !detectDeadlocks )
         {
-            LockRecord      lock = locks.get(key);
-            if ( lock == null )
+            lock.lock();
+        }
+        else if ( !lock.tryLock() )
+        {
+            Thread      current = Thread.currentThread();
+            // Register before checking so that of two threads closing a cycle at least one sees it
+            waiting.put(current, lock);
+            try
+            {
+                checkForDeadlock(current, lock);
+                lock.lock();
+            }
+            finally
             {
-                lock = new LockRecord();
-                locks.put(key, lock);
+                waiting.remove(current);
             }
-            ++lock.useCount;
-            return lock.lock;
         }
     }
 
-    private void releaseLock(Key<?> key)
+    /**
+     * Follow the chain of lock owners and the locks they are waiting on
+     *
+     * @throws ProvisionException if the chain leads back to the current thread
+     */
+    private void checkForDeadlock(Thread current, KeyLock lock)
     {
-        synchronized(locks)
+        StringBuilder   cycle = new StringBuilder();
+        cycle.append(current.getName()).append(" waits for ").append(lock.key);
+
+        Set<Thread>     visited = new HashSet<Thread>();
+        for ( KeyLock next = lock; next != null; )
         {
-            LockRecord      lock = locks.get(key);
-            if ( lock != null )
+            Thread      owner = next.getOwner();
+            if ( owner == null || !visited.add(owner) )
             {
-                if ( --lock.useCount <= 0 )
-                {
-                    locks.remove(key);
-                }
+                return;
+            }
+            cycle.append(", held by ").append(owner.getName());
+            if ( owner == current )
+            {
+                throw new ProvisionException("Deadlock detected creating FineGrainedLazySingletons: " + cycle);
+            }
+            next = waiting.get(owner);
+            if ( next != null )
+            {
+                cycle.append(", which waits for ").append(next.key);
             }
         }
     }
@@ -0,0 +1,81 @@
+package com.netflix.governator.internal;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
+
+/**
+ * Resolves dependencies between keys of an injector by walking the {@link HasDependencies}
+ * information of its bindings.  Direct dependencies are cached so that resolving the
+ * dependencies for many keys of the same injector only visits each binding once.
+ *
+ * Instances are not thread safe.
+ */
+public final class BindingDependencies {
+    private final Injector injector;
+    private final Map<Key<?>, Set<Key<?>>> directDependencies = new HashMap<>();
+
+    public BindingDependencies(Injector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * Find all keys in 'targets' that 'root' depends on, either directly or through any number of
+     * intermediate bindings that are not themselves in 'targets'.
+     *
+     * @param root Key for which to resolve dependencies
+     * @param targets Keys of interest
+     * @return Subset of targets that root depends on, excluding root itself
+     */
+    public Set<Key<?>> find(Key<?> root, Set<Key<?>> targets) {
+        final Set<Key<?>> found = new HashSet<>();
+        final Set<Key<?>> visited = new HashSet<>();
+        final Deque<Key<?>> pending = new ArrayDeque<>(getDirectDependencies(root));
+        visited.add(root);
+
+        while (!pending.isEmpty()) {
+            final Key<?> key = pending.pop();
+            if (visited.add(key)) {
+                if (targets.contains(key)) {
+                    found.add(key);
+                }
+                else {
+                    pending.addAll(getDirectDependencies(key));
+                }
+            }
+        }
+        return found;
+    }
+
+    private Set<Key<?>> getDirectDependencies(Key<?> key) {
+        Set<Key<?>> dependencies = directDependencies.get(key);
+        if (dependencies == null) {
+            dependencies = new HashSet<>();
+            try {
+                final Binding<?> binding = injector.getBinding(key);
+                if (binding instanceof HasDependencies) {
+                    for (Dependency<?> dependency : ((HasDependencies)binding).getDependencies()) {
+                        dependencies.add(dependency.getKey());
+                    }
+                }
+            }
+            catch (ConfigurationException e) {
+                // Optional or otherwise unresolvable dependency.  Nothing to order on.
+                dependencies = Collections.emptySet();
+            }
+            directDependencies.put(key, dependencies);
+        }
+        return dependencies;
+    }
+}
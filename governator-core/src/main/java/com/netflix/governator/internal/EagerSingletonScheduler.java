@@ -0,0 +1,241 @@
+package com.netflix.governator.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.ProvisionException;
+import com.google.inject.Scopes;
+import com.google.inject.Stage;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
+import com.google.inject.spi.DefaultBindingTargetVisitor;
+import com.google.inject.spi.DefaultElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProviderKeyBinding;
+import com.google.inject.spi.UntargettedBinding;
+
+/**
+ * Provisions eager singletons on a bounded thread pool instead of on the thread creating
+ * the injector.
+ *
+ * Eager singleton bindings of the application module are first rebound as plain singletons
+ * so that Guice does not instantiate them while creating the injector.  Once the injector
+ * exists the dependency graph between those singletons is derived from the injector's
+ * bindings and each singleton is provisioned (and therefore post constructed) only after
+ * all of the eager singletons it depends on have been provisioned.  Independent subgraphs
+ * are provisioned concurrently.
+ *
+ * The first provisioning failure stops any further scheduling and is rethrown once all
+ * in flight provisions have completed so that the caller may treat it exactly like a
+ * failure from Guice.createInjector().
+ */
+public final class EagerSingletonScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(EagerSingletonScheduler.class);
+
+    private final int parallelism;
+    private final List<Key<?>> eagerSingletonKeys = new ArrayList<>();
+
+    public EagerSingletonScheduler(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be > 0");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Rewrite all top level eager singleton bindings of the module as lazy singletons and
+     * track their keys so that they may later be provisioned by {@link #provisionAll(Injector)}.
+     * Eager singletons bound within private modules are left untouched.
+     *
+     * Note that in Stage.PRODUCTION Guice will still instantiate all singletons itself.
+     *
+     * @param stage Stage in which the module's elements are evaluated
+     * @param module Module to transform
+     * @return Module with all eager singletons bound as lazy singletons
+     */
+    public Module deferEagerSingletons(Stage stage, Module module) {
+        final List<Element> elements = Elements.getElements(stage, module);
+        return new Module() {
+            @Override
+            public void configure(final Binder binder) {
+                for (Element element : elements) {
+                    if (!element.acceptVisitor(new DeferEagerSingletonVisitor(binder))) {
+                        element.applyTo(binder);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @return Keys of all eager singletons deferred by {@link #deferEagerSingletons(Stage, Module)}
+     *  in the order in which they were bound
+     */
+    public List<Key<?>> getEagerSingletonKeys() {
+        return Collections.unmodifiableList(eagerSingletonKeys);
+    }
+
+    /**
+     * Provision all deferred eager singletons in dependency order.
+     *
+     * @param injector Injector created from the module returned by {@link #deferEagerSingletons(Stage, Module)}
+     * @throws ProvisionException (or any other RuntimeException thrown from provisioning) for the
+     *      first singleton that failed
+     */
+    public void provisionAll(final Injector injector) {
+        if (eagerSingletonKeys.isEmpty()) {
+            return;
+        }
+
+        final TaskGraph graph = buildGraph(injector);
+        if (graph.hasCycle()) {
+            LOG.warn("Dependency cycle detected between eager singletons.  Provisioning {} eager singletons serially", graph.size());
+            for (Key<?> key : eagerSingletonKeys) {
+                injector.getInstance(key);
+            }
+            return;
+        }
+
+        final int threads = Math.min(parallelism, graph.size());
+        LOG.info("Provisioning {} eager singletons using {} threads", graph.size(), threads);
+
+        final ExecutorService executor = ExecutorsEx.get(injector).newFixedThreadPool("governator-eager-singleton", threads);
+        try {
+            final TaskGraph.Report report;
+            try {
+                report = graph.execute(executor, 0, 0, TimeUnit.MILLISECONDS, true);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProvisionException("Interrupted while provisioning eager singletons", e);
+            }
+
+            Throwable failure = null;
+            for (TaskGraph.Task task : report.getFailed()) {
+                if (failure == null) {
+                    failure = task.getFailure();
+                }
+                else {
+                    failure.addSuppressed(task.getFailure());
+                }
+            }
+            if (failure != null) {
+                Throwables.propagateIfPossible(failure);
+                throw new ProvisionException("Failed to provision eager singleton", failure);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TaskGraph buildGraph(final Injector injector) {
+        final TaskGraph graph = new TaskGraph();
+        final Map<Key<?>, TaskGraph.Task> tasks = new LinkedHashMap<>();
+        for (final Key<?> key : eagerSingletonKeys) {
+            tasks.put(key, graph.add(key.toString(), () -> {
+                LOG.debug("Provisioning eager singleton {}", key);
+                return injector.getInstance(key);
+            }));
+        }
+
+        final BindingDependencies dependencies = new BindingDependencies(injector);
+        for (Map.Entry<Key<?>, TaskGraph.Task> entry : tasks.entrySet()) {
+            for (Key<?> dependency : dependencies.find(entry.getKey(), tasks.keySet())) {
+                graph.addOrdering(tasks.get(dependency), entry.getValue());
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Rebinds an eager singleton binding as a lazy singleton.  Returns false for any
+     * element that should be applied as is.
+     */
+    private final class DeferEagerSingletonVisitor extends DefaultElementVisitor<Boolean> {
+        private final Binder binder;
+
+        DeferEagerSingletonVisitor(Binder binder) {
+            this.binder = binder;
+        }
+
+        @Override
+        protected Boolean visitOther(Element element) {
+            return false;
+        }
+
+        @Override
+        public <T> Boolean visit(final Binding<T> binding) {
+            boolean isEagerSingleton = binding.acceptScopingVisitor(new DefaultBindingScopingVisitor<Boolean>() {
+                @Override
+                public Boolean visitEagerSingleton() {
+                    return true;
+                }
+
+                @Override
+                protected Boolean visitOther() {
+                    return false;
+                }
+            });
+
+            if (isEagerSingleton && binding.acceptTargetVisitor(new LazySingletonBindingVisitor<T>(binder.withSource(binding.getSource())))) {
+                eagerSingletonKeys.add(binding.getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static final class LazySingletonBindingVisitor<T> extends DefaultBindingTargetVisitor<T, Boolean> {
+        private final Binder binder;
+
+        LazySingletonBindingVisitor(Binder binder) {
+            this.binder = binder;
+        }
+
+        @Override
+        protected Boolean visitOther(Binding<? extends T> binding) {
+            return false;
+        }
+
+        @Override
+        public Boolean visit(UntargettedBinding<? extends T> binding) {
+            binder.bind((Key)binding.getKey()).in(Scopes.SINGLETON);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LinkedKeyBinding<? extends T> binding) {
+            binder.bind((Key)binding.getKey()).to((Key)binding.getLinkedKey()).in(Scopes.SINGLETON);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(ProviderInstanceBinding<? extends T> binding) {
+            binder.bind((Key)binding.getKey()).toProvider((javax.inject.Provider)binding.getUserSuppliedProvider()).in(Scopes.SINGLETON);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(ProviderKeyBinding<? extends T> binding) {
+            binder.bind((Key)binding.getKey()).toProvider((Key)binding.getProviderKey()).in(Scopes.SINGLETON);
+            return true;
+        }
+    }
+}
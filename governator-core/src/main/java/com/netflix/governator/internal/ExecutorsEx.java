@@ -0,0 +1,22 @@
+package com.netflix.governator.internal;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.netflix.governator.spi.GovernatorExecutors;
+
+public final class ExecutorsEx {
+    private ExecutorsEx() {
+    }
+
+    /**
+     * @return The injector's {@link GovernatorExecutors} or the platform default if none is bound
+     */
+    public static GovernatorExecutors get(Injector injector) {
+        if (injector == null) {
+            return GovernatorExecutors.platform();
+        }
+        Binding<GovernatorExecutors> binding = injector.getExistingBinding(Key.get(GovernatorExecutors.class));
+        return binding != null ? binding.getProvider().get() : GovernatorExecutors.platform();
+    }
+}
@@ -1,12 +1,10 @@
 package com.netflix.governator.internal;
 
 import java.lang.annotation.Annotation;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,16 +12,13 @@ import org.slf4j.LoggerFactory;
 import com.netflix.governator.LifecycleAction;
 
 public class JSR250LifecycleAction implements LifecycleAction {
-    private static final Lookup METHOD_HANDLE_LOOKUP = MethodHandles.lookup();
-
     public enum ValidationMode {
         STRICT, LAX
     }
     
     private static final Logger LOG = LoggerFactory.getLogger(JSR250LifecycleAction.class);
-    private final Method method;
     private final String description;
-    private MethodHandle mh;
+    private final Consumer<Object> invoker;
 
     public JSR250LifecycleAction(Class<? extends Annotation> annotationClass, Method method) {
         this(annotationClass, method, ValidationMode.STRICT);
@@ -32,16 +27,7 @@ public class JSR250LifecycleAction implements LifecycleAction {
     public JSR250LifecycleAction(Class<? extends Annotation> annotationClass, Method method, ValidationMode validationMode) {
         validateAnnotationUsage(annotationClass, method, validationMode);
 
-        if (!method.isAccessible()) {
-            method.setAccessible(true);
-        }
-        this.method = method;            
-        try {
-            this.mh = METHOD_HANDLE_LOOKUP.unreflect(method);
-        } catch (IllegalAccessException e) {
-           // that's ok we'll use reflected method.invoke()
-            
-        }   
+        this.invoker = MethodInvokers.forNoArgMethod(method);
         this.description = String.format("%s@%d[%s.%s()]", annotationClass.getSimpleName(),
                 System.identityHashCode(this), method.getDeclaringClass().getSimpleName(), method.getName());
     }
@@ -77,38 +63,20 @@ public class JSR250LifecycleAction implements LifecycleAction {
 
     @Override
     public void call(Object obj) throws InvocationTargetException {
-        LOG.debug("calling action {} on instance {}", description, obj);
-       if (mh != null) {
-          try {
-              mh.invoke(obj);
-          } catch( Throwable throwable) {
-              if (throwable instanceof RuntimeException) {
-                  throw (RuntimeException) throwable;
-              } else if (throwable instanceof Error) {
-                  throw (Error) throwable;
-              }
-              throw new InvocationTargetException(throwable, "invoke-dynamic");
-          }              
-       }
-       else {
-          try { 
-              method.invoke(obj);
-          } catch (InvocationTargetException ite) {
-              Throwable cause = ite.getCause();
-              if (cause instanceof RuntimeException) {
-                  throw (RuntimeException) cause;
-              } else if (cause instanceof Error) {
-                  throw (Error) cause;
-              }
-              throw ite;
-          }
-          catch (Throwable e) {
-              // extremely unlikely, as constructor sets the method to 'accessible' and validates that it takes no parameters
-              throw new RuntimeException("unexpected exception in method invocation", e);
-          }
-       }
-
-     }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("calling action {} on instance {}", description, obj);
+        }
+        try {
+            invoker.accept(obj);
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            // checked exception thrown by the lifecycle method itself
+            throw new InvocationTargetException(e, description);
+        }
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,229 @@
+package com.netflix.governator.internal;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for functional invokers of reflected methods.  Where possible the invoker is
+ * spun by {@link LambdaMetafactory} so that it calls the target method directly and can
+ * be inlined by the JIT like any other lambda.  Methods that can't be linked this way
+ * (such as private methods on Java 8 or classes not visible from Governator's ClassLoader)
+ * fall back to an exact MethodHandle invocation and, as a last resort, Method.invoke().
+ *
+ * Exceptions thrown by the target method are propagated as is, including checked exceptions.
+ */
+public final class MethodInvokers {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodInvokers.class);
+
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONSUMER_FACTORY_TYPE = MethodType.methodType(Consumer.class);
+    private static final MethodType CONSUMER_ERASED_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final MethodType BI_CONSUMER_FACTORY_TYPE = MethodType.methodType(BiConsumer.class);
+    private static final MethodType BI_CONSUMER_ERASED_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * MethodHandles.privateLookupIn is only available on Java 9+
+     */
+    private static final MethodHandle PRIVATE_LOOKUP_IN = findPrivateLookupIn();
+
+    private MethodInvokers() {
+    }
+
+    /**
+     * Create an invoker for a non-static method that takes no arguments.  Any return value is discarded.
+     *
+     * @param method The method to invoke.  Must be non-static with no parameters
+     * @return Consumer that invokes the method on the object passed to accept()
+     */
+    public static Consumer<Object> forNoArgMethod(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+            throw new IllegalArgumentException("method must be non-static and take no parameters: " + method);
+        }
+
+        Consumer<Object> invoker = lambdaInvoker(method, CONSUMER_FACTORY_TYPE, CONSUMER_ERASED_TYPE);
+        if (invoker == null) {
+            invoker = methodHandleInvoker(method);
+        }
+        if (invoker == null) {
+            invoker = reflectiveInvoker(method);
+        }
+        return invoker;
+    }
+
+    /**
+     * Create an invoker for a non-static method that takes a single argument.  Any return value is discarded.
+     *
+     * @param method The method to invoke.  Must be non-static with exactly one parameter
+     * @return BiConsumer that invokes the method on the first object passed to accept() with the
+     *  second object as its argument
+     */
+    public static BiConsumer<Object, Object> forSingleArgMethod(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) {
+            throw new IllegalArgumentException("method must be non-static and take exactly one parameter: " + method);
+        }
+
+        BiConsumer<Object, Object> invoker = lambdaInvoker(method, BI_CONSUMER_FACTORY_TYPE, BI_CONSUMER_ERASED_TYPE);
+        if (invoker == null) {
+            invoker = singleArgMethodHandleInvoker(method);
+        }
+        if (invoker == null) {
+            invoker = singleArgReflectiveInvoker(method);
+        }
+        return invoker;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T lambdaInvoker(Method method, MethodType factoryType, MethodType erasedType) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            final Lookup caller = lookupFor(declaringClass);
+            if (caller == null) {
+                return null;
+            }
+            final MethodHandle target = caller.unreflect(method);
+            final CallSite site = LambdaMetafactory.metafactory(
+                    caller,
+                    "accept",
+                    factoryType,
+                    erasedType,
+                    target,
+                    MethodType.methodType(void.class, declaringClass, method.getParameterTypes()));
+            return (T) site.getTarget().invoke();
+        }
+        catch (Throwable e) {
+            LOG.debug("Unable to create lambda invoker for {} - {}", method, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return Lookup with private access that can be used to spin a lambda calling methods
+     *  of the specified class or null if none is available
+     */
+    private static Lookup lookupFor(Class<?> declaringClass) throws Throwable {
+        if (PRIVATE_LOOKUP_IN != null) {
+            return (Lookup) PRIVATE_LOOKUP_IN.invokeExact(declaringClass, LOOKUP);
+        }
+
+        // On Java 8 the lambda is defined against our own Lookup so the declaring class must
+        // be public and resolvable by name from Governator's ClassLoader
+        if (Modifier.isPublic(declaringClass.getModifiers()) && isVisible(declaringClass)) {
+            return LOOKUP;
+        }
+        return null;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, MethodInvokers.class.getClassLoader()) == type;
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Consumer<Object> methodHandleInvoker(Method method) {
+        try {
+            if (!method.isAccessible()) {
+                method.setAccessible(true);
+            }
+            final MethodHandle mh = LOOKUP.unreflect(method).asType(CONSUMER_ERASED_TYPE);
+            return obj -> {
+                try {
+                    mh.invokeExact(obj);
+                }
+                catch (Throwable t) {
+                    throw MethodInvokers.<RuntimeException>sneakyThrow(t);
+                }
+            };
+        }
+        catch (IllegalAccessException | RuntimeException e) {
+            LOG.debug("Unable to create MethodHandle invoker for {} - {}", method, e.getMessage());
+            return null;
+        }
+    }
+
+    private static BiConsumer<Object, Object> singleArgMethodHandleInvoker(Method method) {
+        try {
+            if (!method.isAccessible()) {
+                method.setAccessible(true);
+            }
+            final MethodHandle mh = LOOKUP.unreflect(method).asType(BI_CONSUMER_ERASED_TYPE);
+            return (obj, arg) -> {
+                try {
+                    mh.invokeExact(obj, arg);
+                }
+                catch (Throwable t) {
+                    throw MethodInvokers.<RuntimeException>sneakyThrow(t);
+                }
+            };
+        }
+        catch (IllegalAccessException | RuntimeException e) {
+            LOG.debug("Unable to create MethodHandle invoker for {} - {}", method, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Consumer<Object> reflectiveInvoker(Method method) {
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        return obj -> {
+            try {
+                method.invoke(obj);
+            }
+            catch (InvocationTargetException e) {
+                throw MethodInvokers.<RuntimeException>sneakyThrow(e.getCause());
+            }
+            catch (IllegalAccessException e) {
+                // extremely unlikely, as the method was made accessible
+                throw new RuntimeException("unexpected exception in method invocation", e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> singleArgReflectiveInvoker(Method method) {
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        return (obj, arg) -> {
+            try {
+                method.invoke(obj, arg);
+            }
+            catch (InvocationTargetException e) {
+                throw MethodInvokers.<RuntimeException>sneakyThrow(e.getCause());
+            }
+            catch (IllegalAccessException e) {
+                // extremely unlikely, as the method was made accessible
+                throw new RuntimeException("unexpected exception in method invocation", e);
+            }
+        };
+    }
+
+    private static MethodHandle findPrivateLookupIn() {
+        try {
+            return LOOKUP.findStatic(MethodHandles.class, "privateLookupIn", MethodType.methodType(Lookup.class, Class.class, Lookup.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+}
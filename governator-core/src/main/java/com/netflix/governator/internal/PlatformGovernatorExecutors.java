@@ -0,0 +1,40 @@
+package com.netflix.governator.internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.governator.spi.GovernatorExecutors;
+
+/**
+ * Default {@link GovernatorExecutors} creating platform threads named {@code <name>-<n>}
+ */
+public final class PlatformGovernatorExecutors implements GovernatorExecutors {
+    public static final PlatformGovernatorExecutors INSTANCE = new PlatformGovernatorExecutors();
+
+    private PlatformGovernatorExecutors() {
+    }
+
+    @Override
+    public ThreadFactory newThreadFactory(String name, boolean daemon) {
+        return new ThreadFactoryBuilder().setDaemon(daemon).setNameFormat(name + "-%d").build();
+    }
+
+    @Override
+    public ForkJoinPool newForkJoinPool(final String name, int parallelism) {
+        final AtomicInteger counter = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setDaemon(true);
+            thread.setName(name + "-" + counter.getAndIncrement());
+            return thread;
+        }, null, false);
+    }
+
+    @Override
+    public String toString() {
+        return "PlatformGovernatorExecutors[]";
+    }
+}
@@ -1,8 +1,8 @@
 package com.netflix.governator.internal;
 
-import com.google.common.collect.MapMaker;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.base.Preconditions;
 import com.google.inject.Binding;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.Scope;
@@ -14,14 +14,13 @@ import com.google.inject.spi.ProviderInstanceBinding;
 import com.google.inject.util.Providers;
 import com.netflix.governator.LifecycleAction;
 import com.netflix.governator.ManagedInstanceAction;
+import com.netflix.governator.UnscopedPreDestroyPolicy;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -35,9 +34,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -56,8 +58,8 @@ public class PreDestroyMonitor implements AutoCloseable {
         private final Object id = new Object();
         private final ScopeCleanupAction cleanupAction;
 
-        public ScopeCleanupMarker(ReferenceQueue<ScopeCleanupMarker> markerReferenceQueue) {
-            this.cleanupAction = new ScopeCleanupAction(this, markerReferenceQueue);
+        public ScopeCleanupMarker(ScopeCleaner scopeCleaner) {
+            this.cleanupAction = new ScopeCleanupAction(this, scopeCleaner);
         }
 
         Object getId() {
@@ -72,19 +74,24 @@ public class PreDestroyMonitor implements AutoCloseable {
     static final class ScopeCleaner implements Provider<ScopeCleanupMarker> {
         ConcurrentMap<Object, ScopeCleanupAction> scopedCleanupActions = new ConcurrentHashMap<>(
                 BinaryConstant.I14_16384);
-        ReferenceQueue<ScopeCleanupMarker> markerReferenceQueue = new ReferenceQueue<>();
-        final ExecutorService reqQueueExecutor = Executors.newSingleThreadExecutor(
-                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("predestroy-monitor-%d").build());
         final AtomicBoolean running = new AtomicBoolean(true);
-        final ScopeCleanupMarker singletonMarker = get();
-
-        {
-            this.reqQueueExecutor.submit(new ScopedCleanupWorker());
+        final ExecutorService cleanupExecutor;
+        final ScopeCleanupMarker singletonMarker;
+
+        ScopeCleaner(GovernatorExecutors executors) {
+            // Single thread per monitor so actions for closed scopes run in order, as they did when 
+            // each monitor polled its own queue.  The thread exits while there is nothing to clean up 
+            // so the executor is never shut down.
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, 
+                    new LinkedBlockingQueue<>(), executors.newThreadFactory("predestroy-monitor", true));
+            executor.allowCoreThreadTimeOut(true);
+            this.cleanupExecutor = executor;
+            this.singletonMarker = get();
         }
 
         @Override
         public ScopeCleanupMarker get() {
-            ScopeCleanupMarker marker = new ScopeCleanupMarker(markerReferenceQueue);
+            ScopeCleanupMarker marker = new ScopeCleanupMarker(this);
             scopedCleanupActions.put(marker.getId(), marker.getCleanupAction());
             return marker;
         }
@@ -94,61 +101,56 @@ public class PreDestroyMonitor implements AutoCloseable {
         }
 
         public boolean close() throws Exception {
-            boolean rv = running.compareAndSet(true, false);
-            if (rv) {
-                reqQueueExecutor.shutdown(); // executor to stop
+            List<ScopeCleanupAction> values = stop();
+            if (values != null) {
                 // process any remaining scoped cleanup actions
-                List<ScopeCleanupAction> values = new ArrayList<>(scopedCleanupActions.values());
-                scopedCleanupActions.clear();
-                Collections.sort(values);
                 for (Callable<Void> actions : values) {
                     actions.call();
                 }
-
-                // make sure executor thread really ended
-                if (!reqQueueExecutor.awaitTermination(90, TimeUnit.SECONDS)) {
-                    LOGGER.error("internal executor still active; shutting down now");
-                    reqQueueExecutor.shutdownNow();
-                }
-                markerReferenceQueue = null;
             }
-            return rv;
+            return values != null;
         }
 
         /**
-         * Processes unreferenced markers from the referenceQueue, until the 'running'
-         * flag is false or interrupted
+         * Stop processing unreferenced markers.  Markers that are unreferenced after this point are ignored.
          * 
+         * @return remaining scoped cleanup actions in the order they should be invoked or null 
+         *  if already stopped 
          */
-        final class ScopedCleanupWorker implements Runnable {
-            public void run() {
-                try {
-                    while (running.get()) {
-                        Reference<? extends ScopeCleanupMarker> ref = markerReferenceQueue.remove(1000);
-                        if (ref != null && ref instanceof ScopeCleanupAction) {
-                            Object markerKey = ((ScopeCleanupAction) ref).getId();
-                            ScopeCleanupAction cleanupAction = scopedCleanupActions.remove(markerKey);
-                            if (cleanupAction != null) {
-                                cleanupAction.call();
-                            }
-                        }
-                    }
-                    LOGGER.info("PreDestroyMonitor.ScopedCleanupWorker is exiting");
-                } catch (InterruptedException e) {
-                    LOGGER.info("PreDestroyMonitor.ScopedCleanupWorker is exiting due to thread interrupt");
-                    Thread.currentThread().interrupt(); // clear interrupted status
-                }
+        List<ScopeCleanupAction> stop() {
+            if (!running.compareAndSet(true, false)) {
+                return null;
             }
+            List<ScopeCleanupAction> values = new ArrayList<>(scopedCleanupActions.values());
+            scopedCleanupActions.clear();
+            Collections.sort(values);
+            return values;
         }
-
     }
 
-    private ConcurrentMap<Object, UnscopedCleanupAction> cleanupActions = new MapMaker().weakKeys().concurrencyLevel(256).makeMap();
-    private ScopeCleaner scopeCleaner = new ScopeCleaner();
+    private final UnscopedInstanceRegistry unscopedInstances = new UnscopedInstanceRegistry();
+    private final LongAdder unscopedSkipped = new LongAdder();
+    private volatile UnscopedPreDestroyPolicy unscopedPolicy = UnscopedPreDestroyPolicy.TRACK;
+    private volatile int unscopedSampleRate = 1;
+    private final ScopeCleaner scopeCleaner;
     private Map<Class<? extends Annotation>, Scope> scopeBindings;
+    private Injector injector;
+    private int shutdownThreads = 0;
+    private long actionTimeoutMillis;
+    private long shutdownTimeoutMillis;
+    private volatile TaskGraph.Report shutdownReport;
 
     public PreDestroyMonitor(Map<Class<? extends Annotation>, Scope> scopeBindings) {
+        this(scopeBindings, GovernatorExecutors.platform());
+    }
+
+    /**
+     * @param executors Creates the thread invoking cleanup actions for scopes that are closed while 
+     *  the monitor is running
+     */
+    public PreDestroyMonitor(Map<Class<? extends Annotation>, Scope> scopeBindings, GovernatorExecutors executors) {
         this.scopeBindings = new HashMap<>(scopeBindings);
+        this.scopeCleaner = new ScopeCleaner(executors);
     }
 
     public <T> boolean register(T destroyableInstance, Binding<T> binding, Iterable<LifecycleAction> action) {
@@ -156,7 +158,7 @@ public class PreDestroyMonitor implements AutoCloseable {
             boolean visitNoScope = Optional
                     .ofNullable(binding.acceptTargetVisitor(new ProviderInstanceBindingVisitor<>())).orElse(true);
             return binding.acceptScopingVisitor(
-                    new ManagedInstanceScopingVisitor(destroyableInstance, binding.getSource(), action, visitNoScope));
+                    new ManagedInstanceScopingVisitor(destroyableInstance, binding.getKey(), binding.getSource(), action, visitNoScope));
         }
         return false;
     }
@@ -166,7 +168,7 @@ public class PreDestroyMonitor implements AutoCloseable {
      */
     public <T> boolean register(T destroyableInstance, Object context, Iterable<LifecycleAction> action) {
         return scopeCleaner.isRunning()
-                ? new ManagedInstanceScopingVisitor(destroyableInstance, context, action).visitEagerSingleton()
+                ? new ManagedInstanceScopingVisitor(destroyableInstance, null, context, action).visitEagerSingleton()
                 : false;
     }
 
@@ -182,26 +184,85 @@ public class PreDestroyMonitor implements AutoCloseable {
         }
     }
 
+    /**
+     * Invoke cleanup actions concurrently when closed.  Instances are still destroyed in the reverse 
+     * order of their scopes and, within a scope, dependents are destroyed before the instances they 
+     * depend on as determined by the injector's bindings.  Instances for which no binding is known are 
+     * destroyed serially in the reverse order of registration.
+     * 
+     * @param injector Injector used to resolve dependencies between managed instances
+     * @param threads Maximum number of cleanup actions to run concurrently
+     * @param actionTimeout Time budget for each cleanup action after which the instances it was holding 
+     *  up are destroyed anyway, or 0 for no limit
+     * @param timeout Time budget for all cleanup actions after which no further actions are started, or 
+     *  0 for no limit
+     * @param units Units of actionTimeout and timeout
+     */
+    public void enableParallelShutdown(Injector injector, int threads, long actionTimeout, long timeout, TimeUnit units) {
+        Preconditions.checkArgument(threads > 0, "threads must be > 0");
+        this.injector = injector;
+        this.shutdownThreads = threads;
+        this.actionTimeoutMillis = units.toMillis(actionTimeout);
+        this.shutdownTimeoutMillis = units.toMillis(timeout);
+    }
+
+    /**
+     * Determine which unscoped instances are tracked.  Only affects instances registered after this call.
+     * 
+     * @param policy Tracking policy
+     * @param sampleRate One in how many instances are tracked when policy is {@link UnscopedPreDestroyPolicy#SAMPLE}
+     */
+    public void setUnscopedPolicy(UnscopedPreDestroyPolicy policy, int sampleRate) {
+        Preconditions.checkNotNull(policy, "policy must be non-null");
+        Preconditions.checkArgument(sampleRate > 0, "sampleRate must be > 0");
+        this.unscopedSampleRate = sampleRate;
+        this.unscopedPolicy = policy;
+    }
+
+    /**
+     * @return Number of unscoped instances tracked since the monitor was created
+     */
+    public long getUnscopedRegistrations() {
+        return unscopedInstances.getRegistrations();
+    }
+
+    /**
+     * @return Number of unscoped instances not tracked because of the unscoped policy
+     */
+    public long getUnscopedSkipped() {
+        return unscopedSkipped.sum();
+    }
+
+    /**
+     * @return Number of tracked unscoped instances that have not been garbage collected
+     */
+    public int getUnscopedSize() {
+        return unscopedInstances.size();
+    }
+
+    /**
+     * @return Outcome of each cleanup action invoked by a parallel shutdown or null if the monitor was 
+     *  not closed with parallel shutdown enabled
+     */
+    public TaskGraph.Report getShutdownReport() {
+        return shutdownReport;
+    }
+
     /**
      * final cleanup of managed instances if any
      */
     @Override
     public void close() throws Exception {
-        if (scopeCleaner.close()) { // executor thread to exit processing loop            
-            LOGGER.info("closing PreDestroyMonitor...");
-            List<Map.Entry<Object, UnscopedCleanupAction>> actions = new ArrayList<>(cleanupActions.entrySet());
-            if (actions.size() > 0) {
-                LOGGER.warn("invoking predestroy action for {} unscoped instances", actions.size());
-                actions.stream().map(Map.Entry::getValue).collect(
-                    Collectors.groupingBy(UnscopedCleanupAction::getContext, Collectors.counting())).forEach((source, count)->{
-                        LOGGER.warn("  including {} objects from source '{}'", count, source);
-                    });
+        List<ScopeCleanupAction> scopedActions = scopeCleaner.stop();
+        if (scopedActions != null) {
+            if (shutdownThreads > 0) {
+                closeInParallel(scopedActions);
+            } else {
+                for (ScopeCleanupAction scopedAction : scopedActions) {
+                    scopedAction.call();
+                }
+                closeUnscoped();
             }
-            actions.stream().sorted(Map.Entry.comparingByValue()).forEach(action->{
-                Optional.ofNullable(action.getKey()).ifPresent(obj->action.getValue().call(obj));                    
-            });             
-            actions.clear();
-            cleanupActions.clear();
             scopeBindings.clear();
             scopeBindings = Collections.emptyMap();
         } else {
@@ -209,27 +270,172 @@ public class PreDestroyMonitor implements AutoCloseable {
         }
     }
 
+    private void closeUnscoped() {
+        LOGGER.info("closing PreDestroyMonitor...");
+        List<Object[]> actions = unscopedInstances.drain();
+        if (actions.size() > 0) {
+            LOGGER.warn("invoking predestroy action for {} unscoped instances", actions.size());
+            actions.stream().map(action -> ((UnscopedInstanceRegistry.Entry) action[1]).getContext()).collect(
+                Collectors.groupingBy(context -> context, Collectors.counting())).forEach((source, count)->{
+                    LOGGER.warn("  including {} objects from source '{}'", count, source);
+                });
+        }
+        for (Object[] action : actions) {
+            invokeUnscoped(action[0], (UnscopedInstanceRegistry.Entry) action[1]);
+        }
+        actions.clear();
+    }
+
+    private static void invokeUnscoped(Object obj, UnscopedInstanceRegistry.Entry entry) {
+        entry.getLifecycleActions().forEach(action -> {
+            try {
+                action.call(obj);
+            } catch (Exception e) {
+                LOGGER.error("PreDestroy call failed for {} from {}", action, entry.getContext(), e);
+            }
+        });
+    }
+
+    private void closeInParallel(List<ScopeCleanupAction> scopedActions) throws InterruptedException {
+        LOGGER.info("closing PreDestroyMonitor using {} threads...", shutdownThreads);
+        final List<List<CleanupTask>> phases = new ArrayList<>();
+        for (ScopeCleanupAction scopedAction : scopedActions) {
+            phases.add(scopedAction.takeDelegates());
+        }
+        final List<CleanupTask> unscoped = new ArrayList<>();
+        for (Object[] action : unscopedInstances.drain()) {
+            final Object obj = action[0];
+            final UnscopedInstanceRegistry.Entry entry = (UnscopedInstanceRegistry.Entry) action[1];
+            unscoped.add(new CleanupTask(entry.getKey(), entry.getContext(), () -> {
+                invokeUnscoped(obj, entry);
+                return null;
+            }));
+        }
+        phases.add(unscoped);
+
+        TaskGraph graph = buildShutdownGraph(phases, true);
+        if (graph.hasCycle()) {
+            LOGGER.warn("Dependency cycle detected between managed instances.  Destroying instances in order of registration");
+            graph = buildShutdownGraph(phases, false);
+        }
+
+        final ExecutorService executor = ExecutorsEx.get(injector).newFixedThreadPool("predestroy-worker", shutdownThreads);
+        try {
+            final TaskGraph.Report report = graph.execute(executor, actionTimeoutMillis, shutdownTimeoutMillis, TimeUnit.MILLISECONDS, false);
+            for (TaskGraph.Task task : report.getFailed()) {
+                LOGGER.error("PreDestroy call failed for {}", task.getName(), task.getFailure());
+            }
+            for (TaskGraph.Task task : report.getOverrun()) {
+                LOGGER.warn("PreDestroy call for {} still running after {} ms", task.getName(), task.getDuration(TimeUnit.MILLISECONDS));
+            }
+            if (report.isTimedOut()) {
+                LOGGER.error("PreDestroy did not complete within {} ms.  Skipped {} instances", shutdownTimeoutMillis, report.getSkipped().size());
+            }
+            LOGGER.info("PreDestroyMonitor closed {}", report);
+            shutdownReport = report;
+        }
+        finally {
+            // Don't interrupt overrun actions.  Worker threads are daemons and won't hold up the JVM.
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Phases are run one after the other.  Within a phase, tasks are ordered so that dependents are 
+     * destroyed before their dependencies or, when not all dependencies can be determined or 
+     * useDependencies is false, run in the order provided.
+     */
+    private TaskGraph buildShutdownGraph(List<List<CleanupTask>> phases, boolean useDependencies) {
+        final TaskGraph graph = new TaskGraph();
+        final BindingDependencies dependencies = injector != null ? new BindingDependencies(injector) : null;
+        TaskGraph.Task barrier = null;
+        for (List<CleanupTask> phase : phases) {
+            if (phase.isEmpty()) {
+                continue;
+            }
+            final List<TaskGraph.Task> tasks = new ArrayList<>(phase.size());
+            for (CleanupTask cleanupTask : phase) {
+                final TaskGraph.Task task = graph.add(cleanupTask.getName(), cleanupTask.action);
+                if (barrier != null) {
+                    graph.addOrdering(barrier, task);
+                }
+                tasks.add(task);
+            }
+
+            if (useDependencies && dependencies != null && phase.stream().allMatch(t -> t.key != null)) {
+                final Map<Key<?>, List<TaskGraph.Task>> tasksByKey = new HashMap<>();
+                for (int i = 0; i < phase.size(); i++) {
+                    tasksByKey.computeIfAbsent(phase.get(i).key, k -> new ArrayList<>()).add(tasks.get(i));
+                }
+                for (int i = 0; i < phase.size(); i++) {
+                    for (Key<?> dependency : dependencies.find(phase.get(i).key, tasksByKey.keySet())) {
+                        for (TaskGraph.Task dependencyTask : tasksByKey.get(dependency)) {
+                            graph.addOrdering(tasks.get(i), dependencyTask);
+                        }
+                    }
+                }
+            }
+            else {
+                for (int i = 1; i < tasks.size(); i++) {
+                    graph.addOrdering(tasks.get(i - 1), tasks.get(i));
+                }
+            }
+
+            barrier = graph.addBarrier();
+            for (TaskGraph.Task task : tasks) {
+                graph.addOrdering(task, barrier);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Cleanup action for a single managed instance
+     */
+    private static final class CleanupTask {
+        private final Key<?> key;
+        private final Object context;
+        private final Callable<?> action;
+
+        CleanupTask(Key<?> key, Object context, Callable<?> action) {
+            this.key = key;
+            this.context = context;
+            this.action = action;
+        }
+
+        String getName() {
+            return key != null ? key + " from " + context : String.valueOf(context);
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
     /**
      * visits bindingScope of managed instance to set up an appropriate strategy for
      * cleanup, adding actions to either the scopedCleanupActions map or
-     * cleanupActions list. Returns true if cleanup actions were added, false if no
+     * the unscoped instance registry. Returns true if cleanup actions were added, false if no
      * cleanup strategy was selected.
      * 
      */
     private final class ManagedInstanceScopingVisitor implements BindingScopingVisitor<Boolean> {
         private final Object injectee;
+        private final Key<?> key;
         private final Object context;
         private final Iterable<LifecycleAction> lifecycleActions;
         private final boolean processNoScope;
 
-        private ManagedInstanceScopingVisitor(Object injectee, Object context,
+        private ManagedInstanceScopingVisitor(Object injectee, Key<?> key, Object context,
                 Iterable<LifecycleAction> lifecycleActions) {
-            this(injectee, context, lifecycleActions, true);
+            this(injectee, key, context, lifecycleActions, true);
         }
 
-        private ManagedInstanceScopingVisitor(Object injectee, Object context,
+        private ManagedInstanceScopingVisitor(Object injectee, Key<?> key, Object context,
                 Iterable<LifecycleAction> lifecycleActions, boolean processNoScope) {
             this.injectee = injectee;
+            this.key = key;
             this.context = context;
             this.lifecycleActions = lifecycleActions;
             this.processNoScope = processNoScope;
@@ -261,7 +467,8 @@ public class PreDestroyMonitor implements AutoCloseable {
                 scopedMarkerProvider = scope.scope(ScopeCleanupMarker.MARKER_KEY, scopeCleaner);
             }
             ScopeCleanupMarker marker = scopedMarkerProvider.get();
-            marker.getCleanupAction().add(scopedMarkerProvider, new ManagedInstanceAction(injectee, lifecycleActions));
+            marker.getCleanupAction().add(scopedMarkerProvider, 
+                    new CleanupTask(key, context, new ManagedInstanceAction(injectee, lifecycleActions)));
             return true;
         }
 
@@ -289,46 +496,26 @@ public class PreDestroyMonitor implements AutoCloseable {
         @Override
         public Boolean visitNoScoping() {
             if (processNoScope) {
-                cleanupActions.computeIfAbsent(injectee, i->{
-                    LOGGER.debug("predestroy action registered for unscoped instance {} from {}", i, context);
-                    return new UnscopedCleanupAction(context, lifecycleActions);
-                });
+                if (isUnscopedTracked()) {
+                    if (unscopedInstances.add(injectee, key, context, lifecycleActions)) {
+                        LOGGER.debug("predestroy action registered for unscoped instance {} from {}", injectee, context);
+                    }
+                } else {
+                    unscopedSkipped.increment();
+                }
             }
             return true;
         }
-    }
-
-    private static final class UnscopedCleanupAction implements LifecycleAction, Comparable<UnscopedCleanupAction> {
-        private volatile static long instanceCounter = 0;
-        private final long ordinal;
-        private final Object context;
-        private final Iterable<LifecycleAction> lifecycleActions;
-
-        public UnscopedCleanupAction(Object context, Iterable<LifecycleAction> lifecycleActions) {
-            this.context = context;
-            this.lifecycleActions = lifecycleActions;
-            this.ordinal = instanceCounter++;
-        }
 
-        @Override
-        public void call(Object obj) {
-            lifecycleActions.forEach(action -> {
-                try {
-                    action.call(obj);
-                } catch (Exception e) {
-                    LOGGER.error("PreDestroy call failed for {} from {}", action, context, e);
-                }
-            });
-        }
-
-        @Override
-        public int compareTo(UnscopedCleanupAction o) {
-            // invert so higher numbers are at the beginning of the list
-            return Long.compare(o.ordinal, ordinal);
-        }
-
-        public Object getContext() {
-            return context;
+        private boolean isUnscopedTracked() {
+            switch (unscopedPolicy) {
+            case IGNORE:
+                return false;
+            case SAMPLE:
+                return ThreadLocalRandom.current().nextInt(unscopedSampleRate) == 0;
+            default:
+                return true;
+            }
         }
     }
 
@@ -337,47 +524,74 @@ public class PreDestroyMonitor implements AutoCloseable {
      * a list of delegate runnables. When the marker is unreferenced, delegates will
      * be invoked in the reverse order of addition.
      */
-    private static final class ScopeCleanupAction extends WeakReference<ScopeCleanupMarker>
+    private static final class ScopeCleanupAction extends ReclaimableReference<ScopeCleanupMarker>
             implements Callable<Void>, Comparable<ScopeCleanupAction> {
         private volatile static long instanceCounter = 0;
         private final Object id;
         private final long ordinal;
+        private final ScopeCleaner scopeCleaner;
         private Deque<Object[]> delegates = new ConcurrentLinkedDeque<>();
         private final AtomicBoolean complete = new AtomicBoolean(false);
 
-        public ScopeCleanupAction(ScopeCleanupMarker marker, ReferenceQueue<ScopeCleanupMarker> refQueue) {
-            super(marker, refQueue);
+        public ScopeCleanupAction(ScopeCleanupMarker marker, ScopeCleaner scopeCleaner) {
+            super(marker);
             this.id = marker.getId();
             this.ordinal = instanceCounter++;
+            this.scopeCleaner = scopeCleaner;
+        }
+
+        /**
+         * The scope has been closed.  Hand the cleanup actions to the monitor's own thread, since 
+         * @PreDestroy methods may block and the reclaimer thread is shared by all injectors, unless 
+         * the PreDestroyMonitor already took ownership of them when it was closed.
+         */
+        @Override
+        protected void reclaim() {
+            if (scopeCleaner.scopedCleanupActions.remove(id) != null) {
+                scopeCleaner.cleanupExecutor.execute(this::call);
+            }
         }
 
         public Object getId() {
             return id;
         }
 
-        public void add(Provider<ScopeCleanupMarker> scopeProvider, Callable<Void> action) {
+        public void add(Provider<ScopeCleanupMarker> scopeProvider, CleanupTask action) {
             if (!complete.get()) {
                 delegates.addFirst(new Object[] { action, scopeProvider }); // add first
             }
         }
 
-        @SuppressWarnings("unchecked")
         @Override
         public Void call() {
-            if (complete.compareAndSet(false, true) && delegates != null) {
-                for (Object[] r : delegates) {
-                    try {
-                        ((Callable<Void>) r[0]).call();
-                    } catch (Exception e) {
-                        LOGGER.error("PreDestroy call failed for " + r, e);
-                    }
+            for (CleanupTask r : takeDelegates()) {
+                try {
+                    r.action.call();
+                } catch (Exception e) {
+                    LOGGER.error("PreDestroy call failed for " + r, e);
                 }
-                delegates.clear();
-                clear();
             }
             return null;
         }
 
+        /**
+         * Mark this action as complete and hand off the delegates to the caller
+         * 
+         * @return Delegates in the order they should be invoked or an empty list if already complete
+         */
+        List<CleanupTask> takeDelegates() {
+            if (!complete.compareAndSet(false, true) || delegates == null) {
+                return Collections.emptyList();
+            }
+            List<CleanupTask> tasks = new ArrayList<>(delegates.size());
+            for (Object[] r : delegates) {
+                tasks.add((CleanupTask) r[0]);
+            }
+            delegates.clear();
+            clear();
+            return tasks;
+        }
+
         @Override
         public int compareTo(ScopeCleanupAction o) {
             return Long.compare(ordinal, o.ordinal);
@@ -0,0 +1,50 @@
+package com.netflix.governator.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * WeakReference for which {@link #reclaim()} is invoked by the shared {@link ReferenceReclaimer}
+ * once the referent has been garbage collected.  Calling {@link #clear()} before then
+ * unregisters the reference and reclaim() will not be called.
+ */
+public abstract class ReclaimableReference<T> extends WeakReference<T> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ReclaimableReference> DONE =
+            AtomicIntegerFieldUpdater.newUpdater(ReclaimableReference.class, "done");
+
+    private volatile int done;
+
+    protected ReclaimableReference(T referent) {
+        this(referent, true);
+    }
+
+    /**
+     * @param reclaimable If false the reference isn't tracked by the ReferenceReclaimer and
+     *  {@link #reclaim()} is never called
+     */
+    protected ReclaimableReference(T referent, boolean reclaimable) {
+        super(referent, reclaimable ? ReferenceReclaimer.getInstance().register() : null);
+        this.done = reclaimable ? 0 : 1;
+    }
+
+    /**
+     * Invoked on the shared reclaimer thread once the referent has been collected.  Should not block.
+     */
+    protected abstract void reclaim();
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (DONE.compareAndSet(this, 0, 1)) {
+            ReferenceReclaimer.getInstance().unregister();
+        }
+    }
+
+    final void reclaimed() {
+        if (DONE.compareAndSet(this, 0, 1)) {
+            ReferenceReclaimer.getInstance().unregister();
+            reclaim();
+        }
+    }
+}
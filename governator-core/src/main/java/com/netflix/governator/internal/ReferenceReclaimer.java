@@ -0,0 +1,211 @@
+package com.netflix.governator.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide service that invokes {@link ReclaimableReference#reclaim()} once the referent of a
+ * {@link ReclaimableReference} has been garbage collected.
+ *
+ * All references share a single ReferenceQueue drained by a single daemon thread that blocks until
+ * a reference is enqueued, so the cost of tracking references is independent of the number of
+ * injectors and no thread wakes up while there is nothing to reclaim.  The thread is started when
+ * the first reference is created and runs for the lifetime of the process.
+ *
+ * Reclaim actions run on the shared thread so a slow action delays reclamation for all injectors.
+ * Actions that may block, such as invoking the @PreDestroy methods of a closed scope, must be handed
+ * off to an executor owned by the injector.
+ * {@link #getStats()} reports the resulting queue depth and reclamation lag.  The JVM doesn't tell when
+ * a reference is enqueued so the queue is polled after every reclaim action and references are timed
+ * from the previous poll, or from when the thread woke up if it was idle.  Lag is therefore overstated
+ * by at most the duration of one reclaim action but includes the time spent waiting in the queue.
+ */
+public final class ReferenceReclaimer {
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceReclaimer.class);
+
+    private static final ReferenceReclaimer INSTANCE = new ReferenceReclaimer();
+
+    public static ReferenceReclaimer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Snapshot of the reclaimer's counters
+     */
+    public static final class Stats {
+        private final long liveReferences;
+        private final long reclaimedReferences;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long totalLagNanos;
+        private final long maxLagNanos;
+
+        private Stats(long liveReferences, long reclaimedReferences, int queueDepth, int maxQueueDepth, long totalLagNanos, long maxLagNanos) {
+            this.liveReferences = liveReferences;
+            this.reclaimedReferences = reclaimedReferences;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.totalLagNanos = totalLagNanos;
+            this.maxLagNanos = maxLagNanos;
+        }
+
+        /**
+         * @return Number of references that have been created but neither reclaimed nor cleared
+         */
+        public long getLiveReferences() {
+            return liveReferences;
+        }
+
+        /**
+         * @return Number of references reclaimed since the process started
+         */
+        public long getReclaimedReferences() {
+            return reclaimedReferences;
+        }
+
+        /**
+         * @return Number of collected references waiting to be reclaimed, as of the last poll of the queue
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * @return Largest number of collected references waiting to be reclaimed at once
+         */
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        /**
+         * @return Sum of the time between each reference being enqueued and its reclaim action completing
+         */
+        public long getTotalLagNanos() {
+            return totalLagNanos;
+        }
+
+        /**
+         * @return Longest time between a reference being enqueued and its reclaim action completing
+         */
+        public long getMaxLagNanos() {
+            return maxLagNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats[live=" + liveReferences
+                + ", reclaimed=" + reclaimedReferences
+                + ", queueDepth=" + queueDepth
+                + ", maxQueueDepth=" + maxQueueDepth
+                + ", maxLagNanos=" + maxLagNanos + "]";
+        }
+    }
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicLong liveReferences = new AtomicLong();
+    private final AtomicLong reclaimedReferences = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private volatile int queueDepth;
+    private volatile int maxQueueDepth;
+    private volatile long maxLagNanos;
+
+    private ReferenceReclaimer() {
+    }
+
+    public Stats getStats() {
+        return new Stats(liveReferences.get(), reclaimedReferences.get(), queueDepth, maxQueueDepth, totalLagNanos.get(), maxLagNanos);
+    }
+
+    /**
+     * Called for each new reference
+     * @return Queue with which the reference must be created
+     */
+    ReferenceQueue<Object> register() {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::run, "governator-reclaimer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        liveReferences.incrementAndGet();
+        return queue;
+    }
+
+    /**
+     * Called once a reference is either reclaimed or cleared
+     */
+    void unregister() {
+        liveReferences.decrementAndGet();
+    }
+
+    /**
+     * Collected reference and the earliest time it may have been enqueued
+     */
+    private static final class Pending {
+        private final Reference<?> ref;
+        private final long enqueued;
+
+        Pending(Reference<?> ref, long enqueued) {
+            this.ref = ref;
+            this.enqueued = enqueued;
+        }
+    }
+
+    private void run() {
+        final ArrayDeque<Pending> pending = new ArrayDeque<>();
+        long lastPoll = 0;
+        while (true) {
+            lastPoll = poll(pending, lastPoll);
+            if (pending.isEmpty()) {
+                try {
+                    // Returns as soon as a reference is enqueued
+                    Reference<?> ref = queue.remove();
+                    lastPoll = System.nanoTime();
+                    pending.add(new Pending(ref, lastPoll));
+                }
+                catch (InterruptedException e) {
+                    // This thread is shared by all injectors so keep going
+                }
+                continue;
+            }
+
+            final Pending next = pending.remove();
+            reclaimedReferences.incrementAndGet();
+            try {
+                ((ReclaimableReference<?>) next.ref).reclaimed();
+            }
+            catch (Throwable t) {
+                LOG.error("Failed to reclaim {}", next.ref, t);
+            }
+            final long lag = System.nanoTime() - next.enqueued;
+            totalLagNanos.addAndGet(lag);
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+            queueDepth = pending.size();
+        }
+    }
+
+    /**
+     * Move references enqueued since the last poll to pending
+     * @return Time of this poll
+     */
+    private long poll(ArrayDeque<Pending> pending, long lastPoll) {
+        final long now = System.nanoTime();
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            pending.add(new Pending(ref, lastPoll));
+        }
+        queueDepth = pending.size();
+        if (pending.size() > maxQueueDepth) {
+            maxQueueDepth = pending.size();
+        }
+        return now;
+    }
+}
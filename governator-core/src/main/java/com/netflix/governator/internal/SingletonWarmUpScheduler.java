@@ -0,0 +1,258 @@
+package com.netflix.governator.internal;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+import com.google.inject.Stage;
+import com.google.inject.spi.BindingScopingVisitor;
+import com.google.inject.spi.DefaultBindingTargetVisitor;
+import com.google.inject.spi.InstanceBinding;
+import com.netflix.governator.SingletonWarmUp;
+import com.netflix.governator.spi.LifecycleListener;
+
+/**
+ * Provisions all singletons of an injector that haven't been created yet on a bounded pool of low
+ * priority daemon threads, in dependency order, once the injector has started.
+ *
+ * Only keys bound in Guice's singleton scope are provisioned.  Eager singletons already exist and
+ * keys in Governator's lazy singleton scopes were explicitly bound to only be created on use.
+ * Nothing is provisioned for injectors created in Stage.PRODUCTION since Guice creates all
+ * singletons up front.
+ *
+ * Failures are logged and reported through {@link #getFailures()} but don't stop the warm-up.
+ * Once the injector shuts down no further singletons are provisioned.
+ */
+public final class SingletonWarmUpScheduler implements SingletonWarmUp, LifecycleListener {
+    private static final Logger LOG = LoggerFactory.getLogger(SingletonWarmUpScheduler.class);
+
+    private final int parallelism;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final AtomicInteger completed = new AtomicInteger();
+    private final Map<Key<?>, Throwable> failures = new ConcurrentHashMap<>();
+    private volatile int total;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile boolean stopped;
+
+    /**
+     * @return Warm-up that is already done, for when the feature is disabled
+     */
+    public static SingletonWarmUpScheduler none() {
+        SingletonWarmUpScheduler scheduler = new SingletonWarmUpScheduler(1);
+        scheduler.startNanos = scheduler.endNanos = System.nanoTime();
+        scheduler.done.countDown();
+        return scheduler;
+    }
+
+    public SingletonWarmUpScheduler(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be > 0");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Start provisioning the injector's singletons in the background
+     */
+    public void start(final Injector injector) {
+        Preconditions.checkState(startNanos == 0, "Warm-up already started");
+        startNanos = System.nanoTime();
+
+        final ThreadFactory executorsFactory = ExecutorsEx.get(injector).newThreadFactory("governator-warm-up", true);
+        final ThreadFactory threadFactory = runnable -> {
+            Thread thread = executorsFactory.newThread(runnable);
+            // Ignored by virtual threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        threadFactory.newThread(() -> {
+            try {
+                warmUp(injector, threadFactory);
+            }
+            catch (RuntimeException e) {
+                LOG.warn("Failed to warm up singletons", e);
+            }
+            finally {
+                endNanos = System.nanoTime();
+                done.countDown();
+            }
+        }).start();
+    }
+
+    private void warmUp(final Injector injector, ThreadFactory threadFactory) {
+        if (injector.getInstance(Stage.class) == Stage.PRODUCTION) {
+            return;
+        }
+
+        final TaskGraph graph = new TaskGraph();
+        final Map<Key<?>, TaskGraph.Task> tasks = new LinkedHashMap<>();
+        for (final Binding<?> binding : injector.getAllBindings().values()) {
+            if (isLazySingleton(binding)) {
+                final Key<?> key = binding.getKey();
+                tasks.put(key, graph.add(key.toString(), () -> provision(injector, key)));
+            }
+        }
+        total = tasks.size();
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        final BindingDependencies dependencies = new BindingDependencies(injector);
+        for (Map.Entry<Key<?>, TaskGraph.Task> entry : tasks.entrySet()) {
+            for (Key<?> dependency : dependencies.find(entry.getKey(), tasks.keySet())) {
+                graph.addOrdering(tasks.get(dependency), entry.getValue());
+            }
+        }
+
+        if (graph.hasCycle()) {
+            LOG.info("Dependency cycle detected between singletons.  Warming up {} singletons serially", tasks.size());
+            for (Key<?> key : tasks.keySet()) {
+                provision(injector, key);
+            }
+        }
+        else {
+            final int threads = Math.min(parallelism, tasks.size());
+            LOG.info("Warming up {} singletons using {} threads", tasks.size(), threads);
+            final ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+            try {
+                graph.execute(executor, 0, 0, TimeUnit.MILLISECONDS, false);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        LOG.info("Warmed up {} of {} singletons in {} ms, {} failed", completed.get(), tasks.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), failures.size());
+    }
+
+    private Void provision(Injector injector, Key<?> key) {
+        if (stopped) {
+            return null;
+        }
+        try {
+            injector.getInstance(key);
+            completed.incrementAndGet();
+        }
+        catch (RuntimeException e) {
+            LOG.warn("Failed to warm up singleton {}", key, e);
+            failures.put(key, e);
+        }
+        return null;
+    }
+
+    private static boolean isLazySingleton(Binding<?> binding) {
+        final boolean isSingleton = binding.acceptScopingVisitor(new BindingScopingVisitor<Boolean>() {
+            @Override
+            public Boolean visitEagerSingleton() {
+                return false;
+            }
+
+            @Override
+            public Boolean visitScope(Scope scope) {
+                return scope == Scopes.SINGLETON;
+            }
+
+            @Override
+            public Boolean visitScopeAnnotation(Class<? extends Annotation> scopeAnnotation) {
+                return scopeAnnotation == Singleton.class || scopeAnnotation == javax.inject.Singleton.class;
+            }
+
+            @Override
+            public Boolean visitNoScoping() {
+                return false;
+            }
+        });
+
+        return isSingleton && binding.acceptTargetVisitor(new DefaultBindingTargetVisitor<Object, Boolean>() {
+            @Override
+            protected Boolean visitOther(Binding<?> binding) {
+                return true;
+            }
+
+            @Override
+            public Boolean visit(InstanceBinding<?> binding) {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void onStarted() {
+    }
+
+    @Override
+    public void onStopped(Throwable error) {
+        stopped = true;
+    }
+
+    @Override
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public int getFailed() {
+        return failures.size();
+    }
+
+    @Override
+    public Map<Key<?>, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public long getDuration(TimeUnit units) {
+        final long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        final long end = endNanos;
+        return units.convert((end == 0 ? System.nanoTime() : end) - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public void await() throws InterruptedException {
+        done.await();
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit units) throws InterruptedException {
+        return done.await(timeout, units);
+    }
+
+    @Override
+    public String toString() {
+        return "SingletonWarmUp[total=" + total + ", completed=" + completed.get() + ", failed=" + failures.size() + ", done=" + isDone() + "]";
+    }
+}
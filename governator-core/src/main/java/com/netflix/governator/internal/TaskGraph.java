@@ -0,0 +1,375 @@
+package com.netflix.governator.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph of tasks to be executed concurrently where a task may only start once all of the
+ * tasks ordered before it have completed.  Tasks that don't depend on each other run in
+ * parallel on the provided executor.
+ *
+ * Execution may be bounded by an overall deadline and by a per task time budget.  A task
+ * that exceeds its time budget is reported as overrun and no longer holds up the tasks
+ * ordered after it.  Once the overall deadline is reached no new tasks are started.  Note
+ * that overrun tasks are not interrupted and will continue to run in the background.
+ *
+ * The graph is built and executed by a single thread and may only be executed once.
+ */
+public final class TaskGraph {
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        OVERRUN,
+        SKIPPED
+    }
+
+    public static final class Task {
+        private final String name;
+        private final Callable<?> action;
+        private final boolean barrier;
+        private final List<Task> successors = new ArrayList<>();
+        private int pendingPredecessors;
+        private State state = State.PENDING;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile Throwable failure;
+
+        private Task(String name, Callable<?> action, boolean barrier) {
+            this.name = name;
+            this.action = action;
+            this.barrier = barrier;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return Failure thrown by the task or null if the task didn't fail
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * @return Time the task ran for, or has been running for if it overran, or 0 if it never started
+         */
+        public long getDuration(TimeUnit units) {
+            final long start = startNanos;
+            if (start == 0) {
+                return 0;
+            }
+            final long end = endNanos;
+            return units.convert((end == 0 ? System.nanoTime() : end) - start, TimeUnit.NANOSECONDS);
+        }
+
+        private Task run() {
+            startNanos = System.nanoTime();
+            try {
+                action.call();
+            }
+            catch (Throwable t) {
+                failure = t;
+            }
+            finally {
+                endNanos = System.nanoTime();
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Outcome of executing the graph
+     */
+    public static final class Report {
+        private final List<Task> tasks;
+        private final boolean timedOut;
+
+        private Report(List<Task> tasks, boolean timedOut) {
+            this.tasks = tasks;
+            this.timedOut = timedOut;
+        }
+
+        /**
+         * @return True if the overall deadline was reached before all tasks completed
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * @return All tasks, in the order they were added, with their final state.  Barriers are
+         *  not included.
+         */
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        public List<Task> getTasks(State state) {
+            final List<Task> result = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task.state == state) {
+                    result.add(task);
+                }
+            }
+            return result;
+        }
+
+        public List<Task> getFailed() {
+            return getTasks(State.FAILED);
+        }
+
+        public List<Task> getOverrun() {
+            return getTasks(State.OVERRUN);
+        }
+
+        public List<Task> getSkipped() {
+            return getTasks(State.SKIPPED);
+        }
+
+        @Override
+        public String toString() {
+            return "Report[tasks=" + tasks.size()
+                + ", completed=" + getTasks(State.COMPLETED).size()
+                + ", failed=" + getFailed().size()
+                + ", overrun=" + getOverrun().size()
+                + ", skipped=" + getSkipped().size()
+                + ", timedOut=" + timedOut + "]";
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private boolean executed = false;
+
+    /**
+     * Add a task to the graph
+     * @param name Name used for reporting
+     * @param action Action to invoke
+     * @return Handle to the task that may be used to order it relative to other tasks
+     */
+    public Task add(String name, Callable<?> action) {
+        final Task task = new Task(name, action, false);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Add a task that does nothing and only serves to order other tasks, for example to have all the
+     * tasks of one phase complete before any task of the next phase starts.  Barriers are left out
+     * of the Report.
+     * @return Handle to the barrier that may be used to order it relative to other tasks
+     */
+    public Task addBarrier() {
+        final Task task = new Task("barrier", () -> null, true);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Require that 'after' only starts once 'before' is done
+     */
+    public void addOrdering(Task before, Task after) {
+        if (before != after) {
+            before.successors.add(after);
+            after.pendingPredecessors++;
+        }
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * @return True if the ordering constraints contain a cycle, in which case the graph can't be executed
+     */
+    public boolean hasCycle() {
+        final Map<Task, Integer> remaining = new HashMap<>();
+        final Deque<Task> ready = new ArrayDeque<>();
+        for (Task task : tasks) {
+            remaining.put(task, task.pendingPredecessors);
+            if (task.pendingPredecessors == 0) {
+                ready.add(task);
+            }
+        }
+
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            final Task task = ready.pop();
+            visited++;
+            for (Task successor : task.successors) {
+                if (remaining.merge(successor, -1, Integer::sum) == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        return visited != tasks.size();
+    }
+
+    /**
+     * Execute all tasks, blocking until all tasks have completed, overrun or the overall deadline
+     * has been reached.
+     *
+     * @param executor Executor on which tasks are run.  The amount of parallelism is determined by the executor.
+     * @param taskTimeout Time budget for each task or 0 for no limit
+     * @param timeout Overall deadline or 0 for no limit
+     * @param units Units for taskTimeout and timeout
+     * @param stopOnFailure When true no new tasks are started after the first failure
+     * @return Report of the outcome of all tasks
+     * @throws InterruptedException if interrupted while waiting for tasks to complete.  Tasks already
+     *  running are not interrupted.
+     */
+    public Report execute(Executor executor, long taskTimeout, long timeout, TimeUnit units, boolean stopOnFailure) throws InterruptedException {
+        if (executed) {
+            throw new IllegalStateException("TaskGraph may only be executed once");
+        }
+        if (hasCycle()) {
+            throw new IllegalStateException("TaskGraph contains a cycle");
+        }
+        executed = true;
+
+        final boolean hasTaskTimeout = taskTimeout > 0;
+        final boolean hasDeadline = timeout > 0;
+        final long taskTimeoutNanos = units.toNanos(taskTimeout);
+        final long deadline = System.nanoTime() + units.toNanos(timeout);
+        final CompletionService<Task> completionService = new ExecutorCompletionService<>(executor);
+        final Set<Task> running = new LinkedHashSet<>();
+        boolean halted = false;
+        boolean timedOut = false;
+
+        for (Task task : tasks) {
+            if (task.pendingPredecessors == 0) {
+                submit(completionService, running, task);
+            }
+        }
+
+        while (!running.isEmpty()) {
+            final Future<Task> future;
+            if (hasTaskTimeout || hasDeadline) {
+                final long now = System.nanoTime();
+                long waitNanos = hasDeadline ? deadline - now : Long.MAX_VALUE;
+                if (hasTaskTimeout) {
+                    for (Task task : running) {
+                        // Time budget starts once the task is actually running, not while it's queued
+                        final long start = task.startNanos != 0 ? task.startNanos : now;
+                        waitNanos = Math.min(waitNanos, start + taskTimeoutNanos - now);
+                    }
+                }
+                future = completionService.poll(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+            }
+            else {
+                future = completionService.take();
+            }
+
+            if (future != null) {
+                final Task task = getDone(future);
+                if (task.state != State.RUNNING) {
+                    // Overran but eventually finished.  Successors were already released
+                    continue;
+                }
+                running.remove(task);
+                if (task.failure == null) {
+                    task.state = State.COMPLETED;
+                }
+                else {
+                    task.state = State.FAILED;
+                    halted |= stopOnFailure;
+                }
+                if (!halted) {
+                    release(completionService, running, task);
+                }
+                continue;
+            }
+
+            final long now = System.nanoTime();
+            if (hasDeadline && now - deadline >= 0) {
+                timedOut = true;
+                halted = true;
+                for (Task task : running) {
+                    task.state = State.OVERRUN;
+                }
+                running.clear();
+                break;
+            }
+
+            final List<Task> overrun = new ArrayList<>();
+            for (Iterator<Task> iter = running.iterator(); iter.hasNext(); ) {
+                final Task task = iter.next();
+                final long start = task.startNanos;
+                if (hasTaskTimeout && start != 0 && now - start >= taskTimeoutNanos) {
+                    task.state = State.OVERRUN;
+                    overrun.add(task);
+                    iter.remove();
+                }
+            }
+            if (!halted) {
+                for (Task task : overrun) {
+                    release(completionService, running, task);
+                }
+            }
+        }
+
+        for (Task task : tasks) {
+            if (task.state == State.PENDING) {
+                task.state = State.SKIPPED;
+            }
+        }
+
+        final List<Task> reported = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (!task.barrier) {
+                reported.add(task);
+            }
+        }
+        return new Report(Collections.unmodifiableList(reported), timedOut);
+    }
+
+    private static void submit(CompletionService<Task> completionService, Set<Task> running, Task task) {
+        task.state = State.RUNNING;
+        running.add(task);
+        completionService.submit(task::run);
+    }
+
+    private static void release(CompletionService<Task> completionService, Set<Task> running, Task task) {
+        for (Task successor : task.successors) {
+            if (--successor.pendingPredecessors == 0 && successor.state == State.PENDING) {
+                submit(completionService, running, successor);
+            }
+        }
+    }
+
+    private static Task getDone(Future<Task> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException | ExecutionException e) {
+            // Not possible since the future is done and Task.run() doesn't throw
+            throw new IllegalStateException(e);
+        }
+    }
+}
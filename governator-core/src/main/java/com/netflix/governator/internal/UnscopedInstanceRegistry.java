@@ -0,0 +1,185 @@
+package com.netflix.governator.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.inject.Key;
+import com.netflix.governator.LifecycleAction;
+
+/**
+ * Weakly references unscoped instances that have @PreDestroy actions so the actions can be invoked
+ * if the instance is still alive when the PreDestroyMonitor is closed.
+ *
+ * Instances are spread over lock striped maps by identity hash so concurrent registrations rarely
+ * contend.  Entries are removed by the shared {@link ReferenceReclaimer} once their instance has been
+ * collected so the registry only ever holds live instances.
+ */
+final class UnscopedInstanceRegistry {
+    /**
+     * Unscoped instance along with its cleanup actions
+     */
+    static final class Entry extends ReclaimableReference<Object> {
+        private final Stripe stripe;
+        private final int hash;
+        private final long ordinal;
+        private final Key<?> key;
+        private final Object context;
+        private final Iterable<LifecycleAction> lifecycleActions;
+
+        private Entry(Stripe stripe, Object instance, int hash, long ordinal, Key<?> key, Object context, Iterable<LifecycleAction> lifecycleActions) {
+            super(instance);
+            this.stripe = stripe;
+            this.hash = hash;
+            this.ordinal = ordinal;
+            this.key = key;
+            this.context = context;
+            this.lifecycleActions = lifecycleActions;
+        }
+
+        @Override
+        protected void reclaim() {
+            stripe.remove(this);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        long getOrdinal() {
+            return ordinal;
+        }
+
+        Key<?> getKey() {
+            return key;
+        }
+
+        Object getContext() {
+            return context;
+        }
+
+        Iterable<LifecycleAction> getLifecycleActions() {
+            return lifecycleActions;
+        }
+    }
+
+    /**
+     * Matches the Entry for an instance without creating (and registering) a new reference
+     */
+    private static final class Probe {
+        private final Object instance;
+        private final int hash;
+
+        Probe(Object instance, int hash) {
+            this.instance = instance;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entry && ((Entry) obj).get() == instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<Object, Entry> entries = new HashMap<>();
+
+        synchronized boolean add(Object instance, int hash, AtomicLong ordinals, Key<?> key, Object context, Iterable<LifecycleAction> lifecycleActions) {
+            if (entries.containsKey(new Probe(instance, hash))) {
+                return false;
+            }
+            Entry entry = new Entry(this, instance, hash, ordinals.getAndIncrement(), key, context, lifecycleActions);
+            entries.put(entry, entry);
+            return true;
+        }
+
+        synchronized void remove(Entry entry) {
+            entries.remove(entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void drainTo(List<Object[]> live) {
+            for (Entry entry : entries.values()) {
+                Object instance = entry.get();
+                if (instance != null) {
+                    live.add(new Object[] { instance, entry });
+                }
+                entry.clear();
+            }
+            entries.clear();
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final AtomicLong ordinals = new AtomicLong();
+    private final LongAdder registrations = new LongAdder();
+
+    UnscopedInstanceRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    UnscopedInstanceRegistry(int concurrency) {
+        int size = Integer.highestOneBit(Math.max(1, concurrency) - 1) << 1;
+        stripes = new Stripe[Math.max(1, size)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return true if the instance was added or false if it was already registered
+     */
+    boolean add(Object instance, Key<?> key, Object context, Iterable<LifecycleAction> lifecycleActions) {
+        int hash = System.identityHashCode(instance);
+        // spread the identity hash so the low bits used for the stripe index aren't clustered
+        int index = (hash ^ (hash >>> 16)) & (stripes.length - 1);
+        if (stripes[index].add(instance, hash, ordinals, key, context, lifecycleActions)) {
+            registrations.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Number of instances added since the registry was created
+     */
+    long getRegistrations() {
+        return registrations.sum();
+    }
+
+    /**
+     * @return Number of registered instances that have not yet been collected
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all entries.  Entries whose instance has not been collected are returned, in reverse order
+     * of registration, as pairs of the instance and its {@link Entry}.
+     */
+    List<Object[]> drain() {
+        List<Object[]> live = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(live);
+        }
+        live.sort((a, b) -> Long.compare(((Entry) b[1]).ordinal, ((Entry) a[1]).ordinal));
+        return live;
+    }
+}
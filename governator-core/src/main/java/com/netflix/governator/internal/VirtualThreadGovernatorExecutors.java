@@ -0,0 +1,37 @@
+package com.netflix.governator.internal;
+
+import java.util.concurrent.ThreadFactory;
+
+import com.netflix.governator.spi.GovernatorExecutors;
+
+/**
+ * {@link GovernatorExecutors} running tasks on virtual threads named {@code <name>-<n>}.  Virtual
+ * threads are always daemon threads so non daemon threads, and the workers of ForkJoinPools, are 
+ * still platform threads.  Pools keep their maximum number of concurrent tasks.
+ */
+public final class VirtualThreadGovernatorExecutors implements GovernatorExecutors {
+    public static boolean isSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException if virtual threads aren't supported, before Java 21
+     */
+    public VirtualThreadGovernatorExecutors() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+    }
+
+    @Override
+    public ThreadFactory newThreadFactory(String name, boolean daemon) {
+        return daemon
+            ? VirtualThreads.newThreadFactory(name)
+            : PlatformGovernatorExecutors.INSTANCE.newThreadFactory(name, false);
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadGovernatorExecutors[]";
+    }
+}
@@ -0,0 +1,77 @@
+package com.netflix.governator.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to virtual threads.  Governator is compiled for Java 8 so the Java 21 Thread.ofVirtual()
+ * API is looked up at runtime.  Virtual threads aren't supported when it can't be found, or can't
+ * be used such as when it is still a preview feature.
+ */
+final class VirtualThreads {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle FACTORY;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Class<?> virtualBuilderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderType));
+            name = lookup.findVirtual(builderType, "name", MethodType.methodType(builderType, String.class, long.class));
+            factory = lookup.findVirtual(builderType, "factory", MethodType.methodType(ThreadFactory.class));
+
+            // Fails if virtual threads are a preview feature that isn't enabled
+            newThreadFactory(ofVirtual, name, factory, "probe");
+        }
+        catch (Throwable t) {
+            LOG.debug("Virtual threads are not available - {}", t.toString());
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @return Factory for virtual threads named {@code <name>-<n>}
+     * @throws UnsupportedOperationException if virtual threads aren't supported
+     */
+    static ThreadFactory newThreadFactory(String name) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        try {
+            return newThreadFactory(OF_VIRTUAL, NAME, FACTORY, name);
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable t) {
+            throw new IllegalStateException("Failed to create virtual thread factory", t);
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(MethodHandle ofVirtual, MethodHandle name, MethodHandle factory, String prefix) throws Throwable {
+        final Object builder = name.invoke(ofVirtual.invoke(), prefix + "-", 0L);
+        return (ThreadFactory) factory.invoke(builder);
+    }
+}
@@ -0,0 +1,154 @@
+package com.netflix.governator.internal.scanner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class indexes written at compile time by governator-annotation-processor, one per jar or classes
+ * directory.  Lets classpath scanners look up the classes in which an annotation appears instead of
+ * walking every entry of a jar or directory.  Jars and directories without an index, or whose index
+ * doesn't cover all of the requested annotations, must still be scanned.
+ */
+public final class AnnotationIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(AnnotationIndex.class);
+
+    /**
+     * Location of the index within a jar or classes directory
+     */
+    public static final String RESOURCE = "META-INF/governator/annotated-classes.index";
+
+    // Classpath root -> annotation name -> binary names of classes in which the annotation appears
+    private final Map<String, Map<String, List<String>>> indexes;
+
+    private AnnotationIndex(Map<String, Map<String, List<String>>> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Read all indexes visible to the class loader.  Indexes that can't be read are ignored so the
+     * corresponding jars are scanned.
+     */
+    public static AnnotationIndex load(ClassLoader classLoader) {
+        Map<String, Map<String, List<String>>> indexes = new HashMap<>();
+        try {
+            for (URL url : Collections.list(classLoader.getResources(RESOURCE))) {
+                String root = rootOf(url, RESOURCE);
+                if (root == null || indexes.containsKey(root)) {
+                    continue;
+                }
+                try {
+                    indexes.put(root, read(url));
+                } catch (IOException e) {
+                    LOG.warn("Unable to read annotation index '{}'. {}", url, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to locate annotation indexes. {}", e.getMessage());
+        }
+        LOG.debug("Found {} annotation indexes", indexes.size());
+        return new AnnotationIndex(indexes);
+    }
+
+    private static Map<String, List<String>> read(URL url) throws IOException {
+        Map<String, List<String>> index = new HashMap<>();
+        URLConnection connection = url.openConnection();
+        // Don't hold on to the jar, the scanners open it themselves if needed
+        connection.setUseCaches(false);
+        try (InputStream is = connection.getInputStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            List<String> classes = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith("@")) {
+                    classes = index.computeIfAbsent(line.substring(1), name -> new ArrayList<>());
+                } else if (classes != null) {
+                    classes.add(line);
+                } else {
+                    throw new IOException("Class '" + line + "' listed before any annotation");
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return Number of jars and directories with an index
+     */
+    public int size() {
+        return indexes.size();
+    }
+
+    /**
+     * Look up the classes within a package that may contain one of the annotations.  Classes are
+     * listed if the annotation appears on the class or any of its members.
+     *
+     * @param packageUrl URL of the package as returned by ClassLoader.getResources() for the package
+     * @param basePackage The package, subpackages are included
+     * @param annotations Fully qualified names of the annotations
+     * @return Binary names of the classes or null if the jar or directory containing the package
+     *  has no index or the index doesn't cover all of the annotations
+     */
+    public Collection<String> getClasses(URL packageUrl, String basePackage, Collection<String> annotations) {
+        String root = rootOf(packageUrl, basePackage.replace('.', '/'));
+        Map<String, List<String>> index = root != null ? indexes.get(root) : null;
+        if (index == null || !index.keySet().containsAll(annotations)) {
+            return null;
+        }
+
+        String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        Set<String> classes = new LinkedHashSet<>();
+        for (String annotation : annotations) {
+            for (String className : index.get(annotation)) {
+                if (className.startsWith(prefix)) {
+                    classes.add(className);
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return Jar or directory containing a resource, in a form that can be compared across resources
+     *  of the same jar or directory, or null if the URL isn't a resource of the expected path.  For
+     *  jars nested in another jar, such as BOOT-INF/lib/x.jar in a Spring Boot jar, this is the full
+     *  path to the nested jar.
+     */
+    static String rootOf(URL url, String path) {
+        String externalForm = url.toExternalForm();
+        if (externalForm.startsWith("jar:")) {
+            int pos = externalForm.lastIndexOf("!/");
+            return pos == -1 ? null : externalForm.substring("jar:".length(), pos);
+        }
+
+        if (externalForm.endsWith("/")) {
+            externalForm = externalForm.substring(0, externalForm.length() - 1);
+        }
+        if (path.isEmpty()) {
+            return externalForm;
+        }
+        if (!externalForm.endsWith("/" + path)) {
+            return null;
+        }
+        return externalForm.substring(0, externalForm.length() - path.length() - 1);
+    }
+}
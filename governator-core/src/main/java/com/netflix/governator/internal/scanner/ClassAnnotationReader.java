@@ -0,0 +1,195 @@
+package com.netflix.governator.internal.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Minimal class file parser that reads the runtime visible class level annotations directly from
+ * bytecode.  Used to determine whether a class is a candidate for scanning without loading it.
+ * Only the constant pool and the class attributes are parsed, fields and methods are skipped.
+ *
+ * Note that annotations inherited from a super class via {@link java.lang.annotation.Inherited}
+ * are not visible in the bytecode of the subclass.
+ */
+public final class ClassAnnotationReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private ClassAnnotationReader() {
+    }
+
+    /**
+     * @return Descriptor of the type as it appears in bytecode, e.g. Lcom/example/Foo;
+     */
+    public static String descriptorOf(Class<?> type) {
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
+    /**
+     * Read the stream to the end
+     */
+    public static byte[] toByteArray(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = is.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param bytecode Contents of a .class file
+     * @return Descriptors of all runtime visible annotations on the class
+     * @throws IOException if the bytecode isn't a valid class file
+     */
+    public static Set<String> getAnnotationDescriptors(byte[] bytecode) throws IOException {
+        try {
+            return parse(bytecode);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed class file", e);
+        }
+    }
+
+    private static Set<String> parse(byte[] bytecode) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytecode);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // minor and major version
+        skip(buffer, 4);
+
+        // Only record the offsets of Utf8 entries, these are decoded on demand
+        final int poolCount = buffer.getShort() & 0xFFFF;
+        final int[] utf8Offsets = new int[poolCount];
+        for (int i = 1; i < poolCount; i++) {
+            final int tag = buffer.get();
+            switch (tag) {
+            case 1:     // Utf8
+                utf8Offsets[i] = buffer.position();
+                skip(buffer, buffer.getShort() & 0xFFFF);
+                break;
+            case 7:     // Class
+            case 8:     // String
+            case 16:    // MethodType
+            case 19:    // Module
+            case 20:    // Package
+                skip(buffer, 2);
+                break;
+            case 15:    // MethodHandle
+                skip(buffer, 3);
+                break;
+            case 3:     // Integer
+            case 4:     // Float
+            case 9:     // Fieldref
+            case 10:    // Methodref
+            case 11:    // InterfaceMethodref
+            case 12:    // NameAndType
+            case 17:    // Dynamic
+            case 18:    // InvokeDynamic
+                skip(buffer, 4);
+                break;
+            case 5:     // Long
+            case 6:     // Double
+                skip(buffer, 8);
+                i++;
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        // access flags, this class, super class
+        skip(buffer, 6);
+        skip(buffer, (buffer.getShort() & 0xFFFF) * 2);
+        skipMembers(buffer);
+        skipMembers(buffer);
+
+        final Set<String> descriptors = new HashSet<>();
+        final int attributeCount = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributeCount; i++) {
+            final int nameIndex = buffer.getShort() & 0xFFFF;
+            final int length = buffer.getInt();
+            final int end = buffer.position() + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(utf8(bytecode, utf8Offsets, nameIndex))) {
+                final int annotationCount = buffer.getShort() & 0xFFFF;
+                for (int j = 0; j < annotationCount; j++) {
+                    descriptors.add(utf8(bytecode, utf8Offsets, buffer.getShort() & 0xFFFF));
+                    skipElementValuePairs(buffer);
+                }
+            }
+            // Through Buffer as JDK 9+ added a covariant ByteBuffer.position(int) that Java 8 lacks
+            ((Buffer) buffer).position(end);
+        }
+        return descriptors;
+    }
+
+    private static void skipMembers(ByteBuffer buffer) {
+        final int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            // access flags, name, descriptor
+            skip(buffer, 6);
+            final int attributeCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < attributeCount; j++) {
+                skip(buffer, 2);
+                skip(buffer, buffer.getInt());
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(ByteBuffer buffer) throws IOException {
+        final int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2);
+            skipElementValue(buffer);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer buffer) throws IOException {
+        final char tag = (char) buffer.get();
+        switch (tag) {
+        case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z':
+        case 's': case 'c':
+            skip(buffer, 2);
+            break;
+        case 'e':
+            skip(buffer, 4);
+            break;
+        case '@':
+            skip(buffer, 2);
+            skipElementValuePairs(buffer);
+            break;
+        case '[':
+            final int count = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                skipElementValue(buffer);
+            }
+            break;
+        default:
+            throw new IOException("Unknown element value tag " + tag);
+        }
+    }
+
+    private static void skip(ByteBuffer buffer, int count) {
+        ((Buffer) buffer).position(buffer.position() + count);
+    }
+
+    private static String utf8(byte[] bytecode, int[] offsets, int index) throws IOException {
+        final int offset = offsets[index];
+        if (offset == 0) {
+            throw new IOException("Constant pool entry " + index + " is not Utf8");
+        }
+        final int length = ((bytecode[offset] & 0xFF) << 8) | (bytecode[offset + 1] & 0xFF);
+        // Constant pool strings use the same modified UTF-8 encoding as DataInput
+        return new DataInputStream(new ByteArrayInputStream(bytecode, offset, length + 2)).readUTF();
+    }
+}
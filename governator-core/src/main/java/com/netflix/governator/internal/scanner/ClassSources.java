@@ -0,0 +1,244 @@
+package com.netflix.governator.internal.scanner;
+
+import com.netflix.governator.spi.ClassSource;
+import com.netflix.governator.spi.ClassSourceProvider;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Built in {@link ClassSource}s for the URLs returned by ClassLoader.getResources() for a package
+ *
+ * <ul>
+ * <li>Directories, {@code file:/build/classes/org/example}</li>
+ * <li>Jars, {@code jar:file:/lib/app.jar!/org/example}</li>
+ * <li>Jars and directories nested in jars, such as those of single file deployments,
+ *     {@code jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/org/example} or
+ *     {@code jar:file:/app.jar!/BOOT-INF/classes!/org/example}.  Nested jars are streamed from the
+ *     enclosing jar.</li>
+ * <li>Modules of the runtime image, {@code jrt:/java.base/java/util}</li>
+ * </ul>
+ */
+public final class ClassSources {
+    private static final String SEPARATOR = "!/";
+
+    private ClassSources() {
+    }
+
+    /**
+     * @param url URL returned by ClassLoader.getResources() for the package
+     * @param basePackage Name of the package
+     * @throws IllegalArgumentException if the URL isn't supported
+     */
+    public static ClassSource forUrl(URL url, String basePackage) throws IOException {
+        return forUrl(url, basePackage, Collections.<ClassSourceProvider>emptyList());
+    }
+
+    /**
+     * @param url URL returned by ClassLoader.getResources() for the package
+     * @param basePackage Name of the package
+     * @param providers Consulted in order before the built in sources
+     * @throws IllegalArgumentException if the URL isn't supported
+     */
+    public static ClassSource forUrl(URL url, String basePackage, List<ClassSourceProvider> providers) throws IOException {
+        for (ClassSourceProvider provider : providers) {
+            ClassSource source = provider.get(url, basePackage);
+            if (source != null) {
+                return source;
+            }
+        }
+
+        String protocol = url.getProtocol();
+        if ("jrt".equals(protocol)) {
+            try {
+                return new PathClassSource(Paths.get(url.toURI()), basePackage);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Invalid url " + url, e);
+            }
+        }
+        if ("file".equals(protocol) && url.getPath().endsWith(".jar")) {
+            return new ArchiveClassSource(ClasspathUrlDecoder.toFile(url), Collections.<String>emptyList(), "", basePackage);
+        }
+        if ("zip".equals(protocol) || "jar".equals(protocol)) {
+            // The last part is the package itself
+            String[] parts = url.getFile().split(SEPARATOR, -1);
+            String archive = parts[0];
+            File file = archive.contains(":")
+                    ? ClasspathUrlDecoder.toFile(new URL(archive))
+                    : new File(ClasspathUrlDecoder.decode(archive));
+
+            List<String> nested = new ArrayList<>();
+            String root = "";
+            for (int i = 1; i < parts.length - 1; i++) {
+                if (!root.isEmpty()) {
+                    throw new IllegalArgumentException("Unsupported nesting in url " + url);
+                }
+                if (isArchive(parts[i])) {
+                    nested.add(parts[i]);
+                } else {
+                    root = parts[i].endsWith("/") ? parts[i] : parts[i] + "/";
+                }
+            }
+            return new ArchiveClassSource(file, nested, root, basePackage);
+        }
+        return new PathClassSource(ClasspathUrlDecoder.toFile(url).toPath(), basePackage);
+    }
+
+    private static boolean isArchive(String path) {
+        return path.endsWith(".jar") || path.endsWith(".war") || path.endsWith(".zip");
+    }
+
+    /**
+     * Classes in a jar on disk or in a jar or directory nested in it
+     */
+    private static final class ArchiveClassSource implements ClassSource {
+        private final File file;
+        private final List<String> nested;
+        private final String root;
+        private final String entryPrefix;
+
+        ArchiveClassSource(File file, List<String> nested, String root, String basePackage) {
+            this.file = file;
+            this.nested = nested;
+            this.root = root;
+            this.entryPrefix = root + (basePackage.isEmpty() ? "" : basePackage.replace('.', '/') + "/");
+        }
+
+        @Override
+        public File getArchive() {
+            return file;
+        }
+
+        @Override
+        public String getArchivePath() {
+            List<String> path = new ArrayList<>(nested);
+            if (!root.isEmpty()) {
+                path.add(root.substring(0, root.length() - 1));
+            }
+            return String.join(SEPARATOR, path);
+        }
+
+        @Override
+        public void forEachClass(ClassConsumer consumer) throws IOException {
+            try (JarFile jar = new JarFile(file)) {
+                if (nested.isEmpty()) {
+                    for (JarEntry entry : Collections.list(jar.entries())) {
+                        accept(entry, () -> jar.getInputStream(entry), consumer);
+                    }
+                } else {
+                    JarEntry entry = jar.getJarEntry(nested.get(0));
+                    if (entry == null) {
+                        throw new FileNotFoundException(nested.get(0) + " not found in " + file);
+                    }
+                    try (InputStream is = jar.getInputStream(entry)) {
+                        forEachNestedClass(new ZipInputStream(is), 1, consumer);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Stream the entries of a nested jar until reaching the jar containing the classes
+         */
+        private void forEachNestedClass(ZipInputStream zip, int depth, ClassConsumer consumer) throws IOException {
+            InputStream entryStream = new FilterInputStream(zip) {
+                @Override
+                public void close() {
+                    // Closing would close the enclosing jar
+                }
+            };
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (depth < nested.size()) {
+                    if (entry.getName().equals(nested.get(depth))) {
+                        forEachNestedClass(new ZipInputStream(entryStream), depth + 1, consumer);
+                        return;
+                    }
+                } else {
+                    accept(entry, () -> entryStream, consumer);
+                }
+            }
+            if (depth < nested.size()) {
+                throw new FileNotFoundException(nested.get(depth) + " not found in " + file + SEPARATOR + nested.get(depth - 1));
+            }
+        }
+
+        private void accept(ZipEntry entry, BytecodeSource bytecode, ClassConsumer consumer) throws IOException {
+            String name = entry.getName();
+            if (!entry.isDirectory() && name.startsWith(entryPrefix) && name.endsWith(".class")) {
+                consumer.accept(name.substring(root.length(), name.length() - ".class".length()).replace('/', '.'), bytecode);
+            }
+        }
+
+        @Override
+        public String toString() {
+            String path = getArchivePath();
+            return path.isEmpty() ? file.toString() : file + SEPARATOR + path;
+        }
+    }
+
+    /**
+     * Classes in a directory or a module of the runtime image
+     */
+    private static final class PathClassSource implements ClassSource {
+        private final Path dir;
+        private final String packagePrefix;
+
+        PathClassSource(Path dir, String basePackage) {
+            this.dir = dir;
+            this.packagePrefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        }
+
+        @Override
+        public File getArchive() {
+            return null;
+        }
+
+        @Override
+        public String getArchivePath() {
+            return "";
+        }
+
+        @Override
+        public void forEachClass(ClassConsumer consumer) throws IOException {
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".class") && name.indexOf('.') == name.length() - ".class".length()) {
+                        String relative = dir.relativize(file).toString();
+                        String className = packagePrefix + relative.substring(0, relative.length() - ".class".length())
+                                .replace(file.getFileSystem().getSeparator(), ".");
+                        consumer.accept(className, () -> Files.newInputStream(file));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        @Override
+        public String toString() {
+            return dir.toString();
+        }
+    }
+}
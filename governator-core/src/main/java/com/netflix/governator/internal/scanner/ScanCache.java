@@ -0,0 +1,206 @@
+package com.netflix.governator.internal.scanner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * On disk cache of classpath scan results per jar, shared by all JVMs using the same directory.
+ * Each entry holds the names of the classes in a jar that matched a scan, identified by a query
+ * string describing the scan, so that restarts with unchanged jars don't have to parse the bytecode
+ * of every class in the jar.
+ *
+ * Entries are keyed by the jar's path and the query and are only used if the jar's size, last
+ * modified time and content hash still match.  The content hash is computed from the jar's central
+ * directory (entry names, CRCs and sizes) so the jar's contents don't need to be read.  Entries
+ * for a jar that changed are replaced the next time the jar is scanned.
+ *
+ * Entries are written to a temporary file and atomically renamed so concurrent readers never see
+ * a partially written entry.  Any entry that can't be read is treated as a miss.
+ */
+public final class ScanCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ScanCache.class);
+
+    private static final int MAGIC = 0x47565343;    // 'GVSC'
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".scan";
+
+    private final File directory;
+
+    public ScanCache(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Cached results of a single scan of a jar
+     */
+    public final class Lookup {
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private final long contentHash;
+        private final List<String> classNames;
+
+        private Lookup(File file, long size, long lastModified, long contentHash, List<String> classNames) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.classNames = classNames;
+        }
+
+        /**
+         * @return Names of the classes that matched the last scan of the same jar or null if the
+         *  jar hasn't been scanned for this query or has changed since
+         */
+        public List<String> getClassNames() {
+            return classNames;
+        }
+
+        /**
+         * Store the names of the classes that matched a scan of the jar.  Failures are logged and
+         * otherwise ignored.
+         */
+        public void store(Collection<String> classNames) {
+            try {
+                Files.createDirectories(directory.toPath());
+                File temp = File.createTempFile(file.getName(), ".tmp", directory);
+                try {
+                    try (OutputStream os = new FileOutputStream(temp);
+                         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                        out.writeInt(MAGIC);
+                        out.writeInt(VERSION);
+                        out.writeLong(size);
+                        out.writeLong(lastModified);
+                        out.writeLong(contentHash);
+                        out.writeInt(classNames.size());
+                        for (String className : classNames) {
+                            byte[] bytes = className.getBytes(StandardCharsets.UTF_8);
+                            out.writeShort(bytes.length);
+                            out.write(bytes);
+                        }
+                    }
+                    move(temp, file);
+                } finally {
+                    temp.delete();
+                }
+            } catch (IOException e) {
+                LOG.debug("Unable to write scan cache entry '{}'. {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Look up the results of a previous scan of the jar
+     *
+     * @param jar The jar
+     * @param query Identifies what was scanned for, such as the scanner, package and annotations
+     * @throws IOException if the jar can't be read
+     */
+    public Lookup lookup(File jar, String query) throws IOException {
+        long size = jar.length();
+        long lastModified = jar.lastModified();
+        long contentHash = contentHash(jar);
+        File file = new File(directory, hex(digest(jar.getAbsolutePath() + '\0' + query), 16) + SUFFIX);
+
+        List<String> classNames = null;
+        if (file.isFile()) {
+            classNames = read(file, size, lastModified, contentHash);
+            LOG.debug("Scan cache {} for '{}'", classNames != null ? "hit" : "stale", jar);
+        }
+        return new Lookup(file, size, lastModified, contentHash, classNames);
+    }
+
+    private static List<String> read(File file, long size, long lastModified, long contentHash) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != size || buffer.getLong() != lastModified || buffer.getLong() != contentHash) {
+                return null;
+            }
+            int count = buffer.getInt();
+            List<String> classNames = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                classNames.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return Collections.unmodifiableList(classNames);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            LOG.debug("Unable to read scan cache entry '{}'. {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Hash of the names, CRCs and sizes of all entries, read from the jar's central directory
+     */
+    static long contentHash(File jar) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        try (JarFile jarFile = new JarFile(jar, false)) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                buffer.putLong(0, entry.getCrc()).putLong(8, entry.getSize());
+                digest.update(buffer.array());
+            }
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static byte[] digest(String value) {
+        return newDigest().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes, int length) {
+        StringBuilder sb = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.netflix.governator.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Classes found at one of the URLs a ClassLoader returns for a package, such as a directory, a jar,
+ * a jar nested in another jar or a module of the runtime image.  Bytecode is read straight from the
+ * source so that nothing needs to be extracted to disk first.
+ * 
+ * @see ClassSourceProvider
+ */
+public interface ClassSource {
+    /**
+     * Receives the classes of a {@link ClassSource}
+     */
+    @FunctionalInterface
+    public interface ClassConsumer {
+        /**
+         * @param className Binary name of the class
+         * @param bytecode Bytecode of the class.  Only valid until this method returns.
+         */
+        void accept(String className, BytecodeSource bytecode) throws IOException;
+    }
+    
+    @FunctionalInterface
+    public interface BytecodeSource {
+        InputStream open() throws IOException;
+    }
+    
+    /**
+     * @return Archive on disk containing the classes, used to cache scan results, or null if the 
+     *  classes aren't in an archive
+     */
+    File getArchive();
+    
+    /**
+     * @return Location of the classes within {@link #getArchive()}, such as the path of a nested jar, 
+     *  or an empty string if the classes are in the archive itself
+     */
+    String getArchivePath();
+    
+    /**
+     * Pass every class in the package and its subpackages to the consumer
+     */
+    void forEachClass(ClassConsumer consumer) throws IOException;
+}
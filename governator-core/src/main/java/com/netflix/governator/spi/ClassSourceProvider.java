@@ -0,0 +1,18 @@
+package com.netflix.governator.spi;
+
+import java.net.URL;
+
+/**
+ * Creates the {@link ClassSource} for URLs that the built in sources don't support, such as the URLs
+ * of a custom ClassLoader.
+ * 
+ * @see com.netflix.governator.ScanningModuleBuilder#addClassSourceProvider(ClassSourceProvider)
+ */
+public interface ClassSourceProvider {
+    /**
+     * @param packageUrl URL returned by ClassLoader.getResources() for the package
+     * @param basePackage Name of the package
+     * @return Source for the classes at the URL or null if the URL isn't supported
+     */
+    ClassSource get(URL packageUrl, String basePackage);
+}
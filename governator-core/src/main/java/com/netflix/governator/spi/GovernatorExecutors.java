@@ -0,0 +1,68 @@
+package com.netflix.governator.spi;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+
+import com.netflix.governator.internal.PlatformGovernatorExecutors;
+import com.netflix.governator.internal.VirtualThreadGovernatorExecutors;
+
+/**
+ * Creates every thread Governator starts itself, such as the threads provisioning eager singletons,
+ * invoking @PreDestroy methods or stopping Jetty, so that they can be capped, named, monitored or 
+ * run on virtual threads.
+ * 
+ * Bind an implementation to replace the default, e.g.
+ * {@code OptionalBinder.newOptionalBinder(binder(), GovernatorExecutors.class).setBinding().toInstance(executors)}
+ * with a LifecycleInjectorCreator or {@code bind(GovernatorExecutors.class).toInstance(executors)} 
+ * otherwise.  The default is chosen by {@link com.netflix.governator.GovernatorFeatures#VIRTUAL_THREADS}.
+ */
+public interface GovernatorExecutors {
+    /**
+     * @return Implementation running on platform threads
+     */
+    static GovernatorExecutors platform() {
+        return PlatformGovernatorExecutors.INSTANCE;
+    }
+    
+    /**
+     * @return Implementation running on virtual threads
+     * @throws UnsupportedOperationException if virtual threads aren't supported, before Java 21
+     */
+    static GovernatorExecutors virtual() {
+        return new VirtualThreadGovernatorExecutors();
+    }
+    
+    /**
+     * @return True if running on a JVM with virtual threads, Java 21 or later
+     */
+    static boolean isVirtualThreadSupported() {
+        return VirtualThreadGovernatorExecutors.isSupported();
+    }
+    
+    /**
+     * @param name Purpose of the threads, used as the prefix of their names
+     * @param daemon True if the threads must not keep the JVM running
+     * @return Factory for threads running Governator's own tasks
+     */
+    ThreadFactory newThreadFactory(String name, boolean daemon);
+    
+    /**
+     * @param name Purpose of the threads, used as the prefix of their names
+     * @param threads Maximum number of tasks run concurrently
+     * @return Pool of daemon threads that the caller shuts down once done
+     */
+    default ExecutorService newFixedThreadPool(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, newThreadFactory(name, true));
+    }
+    
+    /**
+     * @param name Purpose of the threads, used as the prefix of their names
+     * @param parallelism Maximum number of tasks run concurrently
+     * @return Work stealing pool of daemon threads, for tasks that wait on the tasks they fork
+     */
+    default ForkJoinPool newForkJoinPool(String name, int parallelism) {
+        return PlatformGovernatorExecutors.INSTANCE.newForkJoinPool(name, parallelism);
+    }
+}
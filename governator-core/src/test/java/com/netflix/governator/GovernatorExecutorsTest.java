@@ -0,0 +1,88 @@
+package com.netflix.governator;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Singleton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.multibindings.OptionalBinder;
+import com.netflix.governator.spi.GovernatorExecutors;
+
+public class GovernatorExecutorsTest {
+    @Singleton
+    public static class RecordsThread {
+        volatile String threadName;
+
+        @PostConstruct
+        public void init() {
+            threadName = Thread.currentThread().getName();
+        }
+    }
+
+    public static class CustomExecutors implements GovernatorExecutors {
+        @Override
+        public ThreadFactory newThreadFactory(String name, boolean daemon) {
+            return GovernatorExecutors.platform().newThreadFactory("custom-" + name, daemon);
+        }
+    }
+
+    private static LifecycleInjectorCreator creator(boolean virtualThreads) {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.PARALLEL_EAGER_SINGLETONS, true);
+        features.put(GovernatorFeatures.VIRTUAL_THREADS, virtualThreads);
+        return new LifecycleInjectorCreator().withFeatures(features);
+    }
+
+    @Test
+    public void boundExecutorsCreateGovernatorThreads() {
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(RecordsThread.class).asEagerSingleton();
+                        OptionalBinder.newOptionalBinder(binder(), GovernatorExecutors.class).setBinding().to(CustomExecutors.class);
+                    }
+                })
+                .createInjector(creator(false))) {
+
+            Assert.assertTrue(injector.getInstance(RecordsThread.class).threadName.startsWith("custom-governator-eager-singleton-"));
+        }
+    }
+
+    @Test
+    public void virtualThreadsFeatureSelectsDefault() {
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(RecordsThread.class).asEagerSingleton();
+                    }
+                })
+                .createInjector(creator(true))) {
+
+            GovernatorExecutors executors = injector.getInstance(GovernatorExecutors.class);
+            if (GovernatorExecutors.isVirtualThreadSupported()) {
+                Assert.assertNotSame(GovernatorExecutors.platform(), executors);
+            }
+            else {
+                Assert.assertSame(GovernatorExecutors.platform(), executors);
+            }
+            Assert.assertTrue(injector.getInstance(RecordsThread.class).threadName.startsWith("governator-eager-singleton-"));
+        }
+    }
+
+    @Test
+    public void virtualThreadFactoryCreatesVirtualThreads() throws Exception {
+        if (!GovernatorExecutors.isVirtualThreadSupported()) {
+            return;
+        }
+        Thread thread = GovernatorExecutors.virtual().newThreadFactory("test", true).newThread(() -> {});
+        Assert.assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        Assert.assertEquals("test-0", thread.getName());
+        Assert.assertFalse((Boolean) Thread.class.getMethod("isVirtual").invoke(
+                GovernatorExecutors.virtual().newThreadFactory("test", false).newThread(() -> {})));
+    }
+}
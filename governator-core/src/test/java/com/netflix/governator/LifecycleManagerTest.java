@@ -0,0 +1,114 @@
+package com.netflix.governator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.netflix.governator.internal.ReferenceReclaimer;
+import com.netflix.governator.spi.LifecycleListener;
+
+public class LifecycleManagerTest {
+    private static class RecordingListener implements LifecycleListener {
+        private final String name;
+        private final List<String> events;
+
+        RecordingListener(String name, List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public void onStarted() {
+            events.add(name + ".started");
+        }
+
+        @Override
+        public void onStopped(Throwable error) {
+            events.add(name + ".stopped");
+        }
+    }
+
+    @Test
+    public void listenersAreStoppedInReverseOrder() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        LifecycleManager manager = new LifecycleManager();
+        RecordingListener a = new RecordingListener("a", events);
+        RecordingListener b = new RecordingListener("b", events);
+        manager.addListener(a);
+        manager.addListener(b);
+        manager.addListener(a);
+        manager.notifyStarted();
+        manager.notifyShutdown();
+
+        Assert.assertEquals(Arrays.asList("a.started", "b.started", "b.stopped", "a.stopped"), events);
+    }
+
+    @Test
+    public void addListenerDoesNotWaitForSlowListener() throws Exception {
+        final LifecycleManager manager = new LifecycleManager();
+        final CountDownLatch inOnStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // Listeners are weakly referenced so keep a reference until the end of the test
+        final LifecycleListener slowListener = new AbstractLifecycleListener() {
+            @Override
+            public void onStarted() {
+                inOnStarted.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        manager.addListener(slowListener);
+
+        Thread starter = new Thread(manager::notifyStarted);
+        starter.start();
+        Assert.assertTrue(inOnStarted.await(5, TimeUnit.SECONDS));
+
+        final AtomicInteger started = new AtomicInteger();
+        Thread adder = new Thread(() -> manager.addListener(new AbstractLifecycleListener() {
+            @Override
+            public void onStarted() {
+                started.incrementAndGet();
+            }
+        }));
+        adder.start();
+        adder.join(5000);
+        Assert.assertFalse("addListener blocked behind a slow onStarted", adder.isAlive());
+
+        release.countDown();
+        starter.join(5000);
+        Assert.assertEquals(1, started.get());
+        Assert.assertNotNull(slowListener);
+    }
+
+    @Test
+    public void timingCallbackReportsEachEvent() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        LifecycleManager manager = new LifecycleManager();
+        manager.setListenerTimingCallback((listener, event, durationNanos) -> events.add(event.name()));
+        RecordingListener listener = new RecordingListener("a", new CopyOnWriteArrayList<>());
+        manager.addListener(listener);
+        manager.notifyStarted();
+        manager.notifyShutdown();
+        Assert.assertNotNull(listener);
+
+        Assert.assertEquals(Arrays.asList("Started", "Stopped"), events);
+    }
+
+    @Test
+    public void wrapperWithoutCallbackIsNotTrackedByTheReclaimer() {
+        final long live = ReferenceReclaimer.getInstance().getStats().getLiveReferences();
+        RecordingListener listener = new RecordingListener("a", new CopyOnWriteArrayList<>());
+        SafeLifecycleListener.wrap(listener).onStarted();
+        Assert.assertEquals(live, ReferenceReclaimer.getInstance().getStats().getLiveReferences());
+    }
+}
@@ -0,0 +1,119 @@
+package com.netflix.governator;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+
+public class ParallelEagerSingletonTest {
+    private static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+    @Singleton
+    public static class SlowA {
+        volatile boolean initialized;
+
+        @PostConstruct
+        public void init() throws Exception {
+            // Will only pass if SlowB is initialized concurrently
+            BARRIER.await(5, TimeUnit.SECONDS);
+            initialized = true;
+        }
+    }
+
+    @Singleton
+    public static class SlowB {
+        volatile boolean initialized;
+
+        @PostConstruct
+        public void init() throws Exception {
+            BARRIER.await(5, TimeUnit.SECONDS);
+            initialized = true;
+        }
+    }
+
+    @Singleton
+    public static class DependsOnBoth {
+        final SlowA a;
+        final SlowB b;
+
+        @Inject
+        DependsOnBoth(SlowA a, SlowB b) {
+            Assert.assertTrue(a.initialized);
+            Assert.assertTrue(b.initialized);
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    @Singleton
+    public static class FailingSingleton {
+        @PostConstruct
+        public void init() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private static LifecycleInjectorCreator parallelCreator() {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.PARALLEL_EAGER_SINGLETONS, true);
+        features.put(GovernatorFeatures.PARALLEL_EAGER_SINGLETONS_THREADS, 4);
+        return new LifecycleInjectorCreator().withFeatures(features);
+    }
+
+    @Test
+    public void independentEagerSingletonsArePostConstructedConcurrently() {
+        BARRIER.reset();
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(DependsOnBoth.class).asEagerSingleton();
+                        bind(SlowA.class).asEagerSingleton();
+                        bind(SlowB.class).asEagerSingleton();
+                    }
+                })
+                .createInjector(parallelCreator())) {
+
+            DependsOnBoth instance = injector.getInstance(DependsOnBoth.class);
+            Assert.assertTrue(instance.a.initialized);
+            Assert.assertTrue(instance.b.initialized);
+        }
+    }
+
+    private final AtomicReference<Throwable> stopReason = new AtomicReference<>();
+
+    // LifecycleManager only references listeners weakly so the test holds on to it
+    private final com.netflix.governator.spi.LifecycleListener stopReasonListener = new AbstractLifecycleListener() {
+        @Override
+        public void onStopped(Throwable error) {
+            stopReason.set(error);
+        }
+    };
+
+    @Test
+    public void failureNotifiesStartFailed() {
+        try {
+            InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(FailingSingleton.class).asEagerSingleton();
+                        bind(com.netflix.governator.spi.LifecycleListener.class).toInstance(stopReasonListener);
+                    }
+                })
+                .createInjector(parallelCreator());
+            Assert.fail("Expected injector creation to fail");
+        }
+        catch (RuntimeException e) {
+            Assert.assertNotNull(stopReason.get());
+            Assert.assertSame(e, stopReason.get());
+        }
+    }
+}
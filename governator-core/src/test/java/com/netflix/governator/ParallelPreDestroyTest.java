@@ -0,0 +1,137 @@
+package com.netflix.governator;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+
+public class ParallelPreDestroyTest {
+    private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+    private static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    @Singleton
+    public static class Dependency {
+        @PreDestroy
+        public void shutdown() {
+            DESTROYED.add("dependency");
+        }
+    }
+
+    @Singleton
+    public static class Dependent {
+        @Inject
+        Dependent(Dependency dependency) {
+        }
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            // Give the dependency a chance to be (incorrectly) destroyed first
+            Thread.sleep(50);
+            DESTROYED.add("dependent");
+        }
+    }
+
+    @Singleton
+    public static class SlowA {
+        @PreDestroy
+        public void shutdown() throws Exception {
+            // Will only pass if SlowB is destroyed concurrently
+            BARRIER.await(5, TimeUnit.SECONDS);
+            DESTROYED.add("a");
+        }
+    }
+
+    @Singleton
+    public static class SlowB {
+        @PreDestroy
+        public void shutdown() throws Exception {
+            BARRIER.await(5, TimeUnit.SECONDS);
+            DESTROYED.add("b");
+        }
+    }
+
+    @Singleton
+    public static class HangingDependent {
+        @Inject
+        HangingDependent(Dependency dependency) {
+        }
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            RELEASE.await();
+        }
+    }
+
+    private static LifecycleInjectorCreator parallelCreator(long actionTimeoutMs) {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.PARALLEL_PRE_DESTROY, true);
+        features.put(GovernatorFeatures.PARALLEL_PRE_DESTROY_THREADS, 4);
+        features.put(GovernatorFeatures.PRE_DESTROY_ACTION_TIMEOUT_MS, actionTimeoutMs);
+        return new LifecycleInjectorCreator().withFeatures(features);
+    }
+
+    @Test
+    public void dependentsAreDestroyedBeforeDependencies() {
+        DESTROYED.clear();
+        LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(Dependency.class).asEagerSingleton();
+                    bind(Dependent.class).asEagerSingleton();
+                }
+            })
+            .createInjector(parallelCreator(0));
+        injector.close();
+        Assert.assertEquals(Arrays.asList("dependent", "dependency"), DESTROYED);
+    }
+
+    @Test
+    public void independentInstancesAreDestroyedConcurrently() {
+        DESTROYED.clear();
+        BARRIER.reset();
+        LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(SlowA.class).asEagerSingleton();
+                    bind(SlowB.class).asEagerSingleton();
+                }
+            })
+            .createInjector(parallelCreator(0));
+        injector.close();
+        Assert.assertTrue(DESTROYED.contains("a"));
+        Assert.assertTrue(DESTROYED.contains("b"));
+    }
+
+    @Test
+    public void overrunActionDoesNotHoldUpDependencies() {
+        DESTROYED.clear();
+        LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                @Override
+                protected void configure() {
+                    bind(Dependency.class).asEagerSingleton();
+                    bind(HangingDependent.class).asEagerSingleton();
+                }
+            })
+            .createInjector(parallelCreator(100));
+        try {
+            injector.close();
+            Assert.assertEquals(Arrays.asList("dependency"), DESTROYED);
+        }
+        finally {
+            RELEASE.countDown();
+        }
+    }
+}
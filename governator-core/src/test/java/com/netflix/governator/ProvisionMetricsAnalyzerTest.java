@@ -0,0 +1,122 @@
+package com.netflix.governator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Key;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+public class ProvisionMetricsAnalyzerTest {
+    private static class FixedElement implements ProvisionMetrics.Element {
+        private final Key<?> key;
+        private final long startTime;
+        private final long endTime;
+        private final List<FixedElement> children;
+
+        FixedElement(String name, long startMs, long endMs, FixedElement... children) {
+            this.key = Key.get(String.class, Names.named(name));
+            this.startTime = TimeUnit.MILLISECONDS.toNanos(startMs);
+            this.endTime = TimeUnit.MILLISECONDS.toNanos(endMs);
+            this.children = Arrays.asList(children);
+        }
+
+        @Override
+        public Key<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public long getDuration(TimeUnit units) {
+            return 0;
+        }
+
+        @Override
+        public long getTotalDuration(TimeUnit units) {
+            return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void accept(ProvisionMetrics.Visitor visitor) {
+            children.forEach(visitor::visit);
+        }
+
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public long getEndTime() {
+            return endTime;
+        }
+    }
+
+    private static ProvisionMetrics metricsOf(FixedElement... roots) {
+        return new NullProvisionMetrics() {
+            @Override
+            public void accept(Visitor visitor) {
+                Arrays.stream(roots).forEach(visitor::visit);
+            }
+        };
+    }
+
+    private static List<String> names(List<ProvisionMetricsAnalyzer.Span> spans) {
+        return spans.stream()
+                .map(span -> ((Named) span.getKey().getAnnotation()).value())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void criticalPathFollowsLatestFinishingChain() {
+        // Two threads: 'a' (0-100) with a slow child 'a2', and 'b' (10-35) running concurrently.
+        // 'a' waits on a1 then a2, and 'c' starts after 'a' finishes, so 'b' is the only provision off the path
+        ProvisionMetricsAnalyzer analyzer = ProvisionMetricsAnalyzer.analyze(metricsOf(
+                new FixedElement("a", 0, 100,
+                        new FixedElement("a1", 5, 15),
+                        new FixedElement("a2", 20, 90)),
+                new FixedElement("b", 10, 35),
+                new FixedElement("c", 100, 130)));
+
+        Assert.assertEquals(130, analyzer.getWallClockDuration(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Arrays.asList("a", "a1", "a2", "c"), names(analyzer.getCriticalPath()));
+        Assert.assertEquals(Arrays.asList("a2", "c", "b"), names(analyzer.getTopSelfTime(3)));
+
+        ProvisionMetricsAnalyzer.Span a = analyzer.getCriticalPath().get(0);
+        Assert.assertEquals(20, a.getSelfDuration(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(20, a.getCriticalDuration(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void chromeTraceContainsAllSpans() {
+        ProvisionMetricsAnalyzer analyzer = ProvisionMetricsAnalyzer.analyze(metricsOf(
+                new FixedElement("a", 0, 100),
+                new FixedElement("b", 10, 40)));
+
+        String trace = analyzer.toChromeTrace();
+        Assert.assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        Assert.assertTrue(trace.contains("\"ts\":10000.000,\"dur\":30000.000"));
+        Assert.assertTrue(trace.contains("\"name\":\"provision-1\""));
+        Assert.assertTrue(trace.contains("\\\"a\\\""));
+    }
+
+    @Test
+    public void recordedMetricsCanBeAnalyzed() {
+        SimpleProvisionMetrics metrics = new SimpleProvisionMetrics();
+        metrics.push(Key.get(String.class));
+        metrics.push(Key.get(Integer.class));
+        metrics.pop();
+        metrics.pop();
+
+        ProvisionMetricsAnalyzer analyzer = ProvisionMetricsAnalyzer.analyze(metrics);
+        List<Key<?>> keys = new ArrayList<>();
+        analyzer.getCriticalPath().forEach(span -> keys.add(span.getKey()));
+        Assert.assertEquals(Arrays.asList(Key.get(String.class), Key.get(Integer.class)), keys);
+    }
+}
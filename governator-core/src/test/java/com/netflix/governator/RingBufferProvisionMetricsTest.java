@@ -0,0 +1,120 @@
+package com.netflix.governator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.netflix.governator.ProvisionMetrics.Element;
+
+public class RingBufferProvisionMetricsTest {
+    private static List<Element> roots(ProvisionMetrics metrics) {
+        List<Element> roots = new ArrayList<>();
+        metrics.accept(roots::add);
+        return roots;
+    }
+
+    private static List<Element> children(Element element) {
+        List<Element> children = new ArrayList<>();
+        element.accept(children::add);
+        return children;
+    }
+
+    @Test
+    public void recordsNestedProvisions() throws InterruptedException {
+        RingBufferProvisionMetrics metrics = new RingBufferProvisionMetrics();
+        metrics.push(Key.get(String.class));
+        metrics.push(Key.get(Integer.class));
+        TimeUnit.MILLISECONDS.sleep(10);
+        metrics.pop();
+        metrics.push(Key.get(Long.class));
+        metrics.pop();
+        metrics.pop();
+
+        List<Element> roots = roots(metrics);
+        Assert.assertEquals(1, roots.size());
+        Element root = roots.get(0);
+        Assert.assertEquals(Key.get(String.class), root.getKey());
+        List<Element> children = children(root);
+        Assert.assertEquals(2, children.size());
+        Assert.assertEquals(Key.get(Integer.class), children.get(0).getKey());
+        Assert.assertEquals(Key.get(Long.class), children.get(1).getKey());
+        Assert.assertTrue(children.get(0).getTotalDuration(TimeUnit.MILLISECONDS) >= 10);
+        Assert.assertTrue(root.getDuration(TimeUnit.NANOSECONDS) < root.getTotalDuration(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void oldestProvisionsAreOverwrittenWhenFull() {
+        RingBufferProvisionMetrics metrics = new RingBufferProvisionMetrics(4);
+        metrics.push(Key.get(String.class));
+        for (int i = 0; i < 10; i++) {
+            metrics.push(Key.get(Integer.class));
+            metrics.pop();
+        }
+        metrics.pop();
+
+        // The outer provision was overwritten so the last 4 inner provisions are reported as top level
+        List<Element> roots = roots(metrics);
+        Assert.assertEquals(4, roots.size());
+        for (Element root : roots) {
+            Assert.assertEquals(Key.get(Integer.class), root.getKey());
+        }
+        Assert.assertEquals(7, metrics.getOverwrittenCount());
+    }
+
+    @Test
+    public void wrapIsCountedOncePerOverwrittenProvision() {
+        RingBufferProvisionMetrics metrics = new RingBufferProvisionMetrics(300);
+        for (int i = 0; i < 512; i++) {
+            metrics.push(Key.get(Integer.class));
+            metrics.pop();
+        }
+        // Grown from the initial 256 entries up to the capacity, rounded up to 512, without wrapping
+        Assert.assertEquals(0, metrics.getOverwrittenCount());
+        Assert.assertEquals(512, roots(metrics).size());
+
+        metrics.push(Key.get(Long.class));
+        metrics.pop();
+        Assert.assertEquals(1, metrics.getOverwrittenCount());
+        List<Element> roots = roots(metrics);
+        Assert.assertEquals(512, roots.size());
+        Assert.assertEquals(Key.get(Long.class), roots.get(roots.size() - 1).getKey());
+    }
+
+    @Test
+    public void simpleProvisionMetricsIsTheDefault() {
+        Assert.assertTrue(Guice.createInjector().getInstance(ProvisionMetrics.class) instanceof SimpleProvisionMetrics);
+    }
+
+    @Test
+    public void provisionsOnOtherThreadsAreIncluded() throws InterruptedException {
+        RingBufferProvisionMetrics metrics = new RingBufferProvisionMetrics();
+        metrics.push(Key.get(String.class));
+        metrics.pop();
+        Thread thread = new Thread(() -> {
+            metrics.push(Key.get(Integer.class));
+            metrics.pop();
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertEquals(2, roots(metrics).size());
+    }
+
+    @Test
+    public void releaseDiscardsRecordedProvisions() {
+        RingBufferProvisionMetrics metrics = new RingBufferProvisionMetrics();
+        metrics.push(Key.get(String.class));
+        metrics.release();
+        metrics.pop();
+        Assert.assertTrue(roots(metrics).isEmpty());
+
+        metrics.push(Key.get(Integer.class));
+        metrics.pop();
+        Assert.assertEquals(1, roots(metrics).size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.netflix.governator;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+
+public class RuntimeProvisionMetricsTest {
+    public static class Unscoped {
+    }
+
+    @Test
+    public void bucketsBoundLatency() {
+        for (long nanos : new long[] { 0, 1, 3, 4, 7, 8, 100, 1000, 123456789L, TimeUnit.HOURS.toNanos(1) }) {
+            int bucket = RuntimeProvisionMetrics.Histogram.bucketOf(nanos);
+            long upperBound = RuntimeProvisionMetrics.Histogram.upperBoundOf(bucket);
+            if (bucket < RuntimeProvisionMetrics.Histogram.bucketOf(Long.MAX_VALUE)) {
+                Assert.assertTrue(nanos + " <= " + upperBound, nanos <= upperBound);
+                Assert.assertTrue(nanos + " within 25% of " + upperBound, upperBound - nanos <= nanos / 4 + 1);
+            }
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        RuntimeProvisionMetrics metrics = new RuntimeProvisionMetrics();
+        Key<String> key = Key.get(String.class);
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(key, TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        RuntimeProvisionMetrics.Histogram histogram = metrics.getHistogram(key);
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(100, histogram.getMax(TimeUnit.MICROSECONDS));
+        long p50 = histogram.getPercentile(0.5, TimeUnit.MICROSECONDS);
+        Assert.assertTrue("p50=" + p50, p50 >= 50 && p50 <= 63);
+        long p99 = histogram.getPercentile(0.99, TimeUnit.MICROSECONDS);
+        Assert.assertTrue("p99=" + p99, p99 >= 99 && p99 <= 100);
+        Assert.assertNull(metrics.getHistogram(Key.get(Integer.class)));
+    }
+
+    @Test
+    public void recordsProvisionsAfterStartupWhenEnabled() {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.RUNTIME_PROVISION_METRICS, true);
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                @Override
+                protected void configure() {
+                }
+            })
+            .createInjector(new LifecycleInjectorCreator().withFeatures(features))) {
+
+            for (int i = 0; i < 10; i++) {
+                injector.getInstance(Unscoped.class);
+            }
+            RuntimeProvisionMetrics.Histogram histogram = injector.getInstance(RuntimeProvisionMetrics.class)
+                    .getHistogram(Key.get(Unscoped.class));
+            Assert.assertNotNull(histogram);
+            Assert.assertEquals(10, histogram.getCount());
+        }
+    }
+
+    @Test
+    public void disabledByDefault() {
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                @Override
+                protected void configure() {
+                }
+            })
+            .createInjector()) {
+
+            injector.getInstance(Unscoped.class);
+            Assert.assertTrue(injector.getInstance(RuntimeProvisionMetrics.class).getHistograms().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.netflix.governator;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.netflix.governator.guice.lazy.LazySingleton;
+
+public class SingletonWarmUpTest {
+    private static final AtomicInteger created = new AtomicInteger();
+
+    @Singleton
+    public static class Dependency {
+        volatile boolean initialized;
+
+        @PostConstruct
+        public void init() {
+            created.incrementAndGet();
+            initialized = true;
+        }
+    }
+
+    @Singleton
+    public static class Dependent {
+        final Dependency dependency;
+
+        @Inject
+        Dependent(Dependency dependency) {
+            Assert.assertTrue(dependency.initialized);
+            this.dependency = dependency;
+            created.incrementAndGet();
+        }
+    }
+
+    @LazySingleton
+    public static class ExplicitlyLazy {
+        ExplicitlyLazy() {
+            created.incrementAndGet();
+        }
+    }
+
+    @Singleton
+    public static class Failing {
+        @PostConstruct
+        public void init() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private static LifecycleInjectorCreator warmUpCreator() {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.WARM_UP_SINGLETONS, true);
+        features.put(GovernatorFeatures.WARM_UP_SINGLETONS_THREADS, 2);
+        return new LifecycleInjectorCreator().withFeatures(features);
+    }
+
+    @Test
+    public void lazySingletonsAreProvisionedInTheBackground() throws InterruptedException {
+        created.set(0);
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Dependent.class);
+                        bind(Dependency.class);
+                        bind(ExplicitlyLazy.class);
+                        bind(Failing.class);
+                    }
+                })
+                .createInjector(warmUpCreator())) {
+
+            SingletonWarmUp warmUp = injector.getInstance(SingletonWarmUp.class);
+            Assert.assertTrue(warmUp.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, created.get());
+            Assert.assertEquals(1, warmUp.getFailed());
+            Assert.assertTrue(warmUp.getFailures().containsKey(Key.get(Failing.class)));
+            Assert.assertEquals(warmUp.getTotal(), warmUp.getCompleted() + warmUp.getFailed());
+
+            injector.getInstance(Dependent.class);
+            Assert.assertEquals(2, created.get());
+        }
+    }
+
+    @Test
+    public void warmUpIsDoneWhenDisabled() {
+        try (LifecycleInjector injector = InjectorBuilder.fromModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Dependency.class);
+                    }
+                })
+                .createInjector()) {
+
+            SingletonWarmUp warmUp = injector.getInstance(SingletonWarmUp.class);
+            Assert.assertTrue(warmUp.isDone());
+            Assert.assertEquals(0, warmUp.getTotal());
+        }
+    }
+}
@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -12,20 +15,32 @@ import org.junit.Test;
 import com.google.inject.AbstractModule;
 import com.google.inject.CreationException;
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
 import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
 import com.netflix.governator.event.guava.GuavaApplicationEventModule;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 public class ApplicationEventModuleTest {
 
     private Injector injector;
 
+    protected Module createEventModule() {
+        return new GuavaApplicationEventModule();
+    }
+
     @Before
     public void setup() {
-        injector = InjectorBuilder.fromModules(new GuavaApplicationEventModule(), new AbstractModule() {
+        injector = InjectorBuilder.fromModules(createEventModule(), new AbstractModule() {
             @Override
             protected void configure() {
                 bind(TestAnnotatedListener.class).toInstance(new TestAnnotatedListener());
                 bind(TestListenerInterface.class).toInstance(new TestListenerInterface());
+                bind(TestBatchListener.class).toInstance(new TestBatchListener());
             }
         }).createInjector();
     }
@@ -120,6 +135,57 @@ public class ApplicationEventModuleTest {
         assertEquals(1, listener.invocationCount.get());
     }
     
+    @Test
+    public void testInjectorDiscoveredBatchApplicationEventListeners() throws Exception {
+        ApplicationEventDispatcher dispatcher = injector.getInstance(ApplicationEventDispatcher.class);
+        TestBatchListener listener = injector.getInstance(TestBatchListener.class);
+        dispatcher.publishEvents(Arrays.asList(new TestEvent(), new NotTestEvent(), new TestEvent()));
+        assertEquals(2, listener.eventCount.get());
+        dispatcher.publishEvent(new TestEvent());
+        assertEquals(3, listener.eventCount.get());
+    }
+    
+    @Test
+    public void testGenericBatchApplicationEventListenersAreNotDiscovered() throws Exception {
+        final TestBatchListener delegate = new TestBatchListener();
+        final CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(delegate, 10, 1, TimeUnit.MINUTES);
+        Injector injector = InjectorBuilder.fromModules(createEventModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(new TypeLiteral<CoalescingBatchListener<TestEvent>>() {}).toInstance(listener);
+            }
+        }).createInjector();
+
+        injector.getInstance(ApplicationEventDispatcher.class).publishEvents(Arrays.asList(new TestEvent(), new NotTestEvent()));
+        listener.close();
+        assertEquals(0, delegate.eventCount.get());
+    }
+
+    @Test
+    public void testProvidedCoalescingBatchListenerIsFlushedOnShutdown() throws Exception {
+        final TestBatchListener delegate = new TestBatchListener();
+        LifecycleInjector injector = InjectorBuilder.fromModules(createEventModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+            }
+
+            @Provides
+            @Singleton
+            CoalescingBatchListener<TestEvent> getListener(ApplicationEventDispatcher dispatcher, GovernatorExecutors executors) {
+                CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(delegate, 10, 1, TimeUnit.MINUTES, executors);
+                dispatcher.registerBatchListener(TestEvent.class, listener);
+                return listener;
+            }
+        }).createInjector();
+
+        CoalescingBatchListener<TestEvent> listener = injector.getInstance(Key.get(new TypeLiteral<CoalescingBatchListener<TestEvent>>() {}));
+        assertNotNull(listener);
+        injector.getInstance(ApplicationEventDispatcher.class).publishEvent(new TestEvent());
+        assertEquals(0, delegate.eventCount.get());
+        injector.close();
+        assertEquals(1, delegate.eventCount.get());
+    }
+
     @Test
     public void testUnregisterApplicationEventListener() throws Exception {
         ApplicationEventDispatcher dispatcher = injector.getInstance(ApplicationEventDispatcher.class);
@@ -139,7 +205,7 @@ public class ApplicationEventModuleTest {
     
     @Test(expected=CreationException.class)
     public void testEventListenerWithInvalidArgumentsFailsFast() {
-        injector = InjectorBuilder.fromModules(new GuavaApplicationEventModule(), new AbstractModule() {
+        injector = InjectorBuilder.fromModules(createEventModule(), new AbstractModule() {
             @Override
             protected void configure() {
                 bind(TestFailFastEventListener.class).toInstance(new TestFailFastEventListener());
@@ -172,6 +238,15 @@ public class ApplicationEventModuleTest {
         }
     }
 
+    private class TestBatchListener implements BatchApplicationEventListener<TestEvent> {
+        AtomicInteger eventCount = new AtomicInteger();
+
+        @Override
+        public void onEvents(List<TestEvent> events) {
+            eventCount.addAndGet(events.size());
+        }
+    }
+
     private class TestEvent implements ApplicationEvent {
 
     }
@@ -0,0 +1,127 @@
+package com.netflix.governator.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.netflix.governator.event.indexed.IndexedApplicationEventDispatcher;
+import com.netflix.governator.spi.GovernatorExecutors;
+
+public class CoalescingBatchListenerTest {
+
+    static class TestEvent implements ApplicationEvent {
+        final int id;
+
+        TestEvent(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toString(id);
+        }
+    }
+
+    static class RecordingListener implements BatchApplicationEventListener<TestEvent> {
+        final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch delivered = new CountDownLatch(1);
+
+        @Override
+        public void onEvents(List<TestEvent> events) {
+            batches.add(events.toString());
+            delivered.countDown();
+        }
+    }
+
+    private static List<TestEvent> events(int from, int to) {
+        List<TestEvent> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add(new TestEvent(i));
+        }
+        return events;
+    }
+
+    @Test
+    public void fullBatchesAreDeliveredImmediately() {
+        RecordingListener recording = new RecordingListener();
+        CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(recording, 3, 1, TimeUnit.HOURS);
+
+        listener.onEvents(events(0, 2));
+        Assert.assertTrue(recording.batches.isEmpty());
+        listener.onEvents(events(2, 7));
+        Assert.assertEquals(Arrays.asList("[0, 1, 2]", "[3, 4, 5]"), recording.batches);
+
+        listener.close();
+        Assert.assertEquals(Arrays.asList("[0, 1, 2]", "[3, 4, 5]", "[6]"), recording.batches);
+
+        listener.onEvents(events(7, 8));
+        Assert.assertEquals("[7]", recording.batches.get(3));
+    }
+
+    @Test
+    public void partialBatchIsDeliveredAfterMaxDelay() throws InterruptedException {
+        RecordingListener recording = new RecordingListener();
+        CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(recording, 100, 20, TimeUnit.MILLISECONDS);
+
+        listener.onEvents(events(0, 1));
+        listener.onEvents(events(1, 2));
+        Assert.assertTrue(recording.delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("[0, 1]"), recording.batches);
+    }
+
+    @Test
+    public void coalescesEventsPublishedToDispatcher() {
+        ApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        RecordingListener recording = new RecordingListener();
+        CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(recording, 4, 1, TimeUnit.HOURS);
+        dispatcher.registerBatchListener(TestEvent.class, listener);
+
+        dispatcher.publishEvent(new TestEvent(0));
+        dispatcher.publishEvents(events(1, 3));
+        dispatcher.publishEvent(new TestEvent(3));
+        Assert.assertEquals(Collections.singletonList("[0, 1, 2, 3]"), recording.batches);
+    }
+
+    @Test
+    public void flushesOnThreadFromExecutorsAndStopsItOnClose() throws InterruptedException {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final GovernatorExecutors executors = (name, daemon) -> runnable -> {
+            Thread thread = new Thread(runnable, "custom-" + name);
+            thread.setDaemon(daemon);
+            threads.add(thread);
+            return thread;
+        };
+        final List<String> flushedBy = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch delivered = new CountDownLatch(1);
+        CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(events -> {
+            flushedBy.add(Thread.currentThread().getName());
+            delivered.countDown();
+        }, 100, 20, TimeUnit.MILLISECONDS, executors);
+
+        listener.onEvents(events(0, 1));
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("custom-governator-event-coalescer"), flushedBy);
+
+        listener.close();
+        for (Thread thread : threads) {
+            thread.join(5000);
+            Assert.assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    public void pendingEventsAreDeliveredWhenStopped() {
+        RecordingListener recording = new RecordingListener();
+        CoalescingBatchListener<TestEvent> listener = new CoalescingBatchListener<>(recording, 100, 1, TimeUnit.HOURS);
+
+        listener.onEvents(events(0, 2));
+        listener.onStopped(null);
+        Assert.assertEquals(Collections.singletonList("[0, 1]"), recording.batches);
+    }
+}
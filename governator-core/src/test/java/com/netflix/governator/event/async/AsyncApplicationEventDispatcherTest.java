@@ -0,0 +1,273 @@
+package com.netflix.governator.event.async;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.netflix.governator.GovernatorFeature;
+import com.netflix.governator.GovernatorFeatures;
+import com.netflix.governator.InjectorBuilder;
+import com.netflix.governator.LifecycleInjector;
+import com.netflix.governator.LifecycleInjectorCreator;
+import com.netflix.governator.event.ApplicationEvent;
+import com.netflix.governator.event.ApplicationEventDispatcher;
+import com.netflix.governator.event.EventListener;
+import com.netflix.governator.event.OrderedApplicationEvent;
+import com.netflix.governator.event.indexed.IndexedApplicationEventDispatcher;
+
+public class AsyncApplicationEventDispatcherTest {
+
+    static class KeyedEvent implements OrderedApplicationEvent {
+        final String key;
+        final int sequence;
+
+        KeyedEvent(String key, int sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public Object getOrderingKey() {
+            return key;
+        }
+    }
+
+    static class BlockingEvent implements ApplicationEvent {
+    }
+
+    static class OtherEvent implements ApplicationEvent {
+    }
+
+    static class Listener {
+        final CountDownLatch received = new CountDownLatch(1);
+        volatile String thread;
+
+        @EventListener
+        public void onEvent(OtherEvent event) {
+            thread = Thread.currentThread().getName();
+            received.countDown();
+        }
+    }
+
+    private static AsyncApplicationEventDispatcher create(int threads, int capacity, EventOverflowPolicy policy) {
+        return new AsyncApplicationEventDispatcher(new IndexedApplicationEventDispatcher(), Executors.defaultThreadFactory(),
+                threads, capacity, policy, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Block delivery of BlockingEvents until the returned latch is counted down
+     */
+    private static CountDownLatch blockOn(ApplicationEventDispatcher dispatcher, final CountDownLatch started) {
+        final CountDownLatch release = new CountDownLatch(1);
+        dispatcher.registerListener(BlockingEvent.class, event -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return release;
+    }
+
+    @Test
+    public void eventsWithTheSameKeyAreDeliveredInOrder() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(4, 1000, EventOverflowPolicy.BLOCK);
+        final List<Integer> a = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> b = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerListener(KeyedEvent.class, event -> ("a".equals(event.key) ? a : b).add(event.sequence));
+
+        List<Integer> expected = new ArrayList<>();
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < 500; i++) {
+            expected.add(i);
+            dispatcher.publishEvent(new KeyedEvent("a", i));
+            last = dispatcher.publishEventAsync(new KeyedEvent("b", i));
+        }
+        last.get(5, TimeUnit.SECONDS);
+        dispatcher.onStopped(null);
+
+        Assert.assertEquals(expected, a);
+        Assert.assertEquals(expected, b);
+    }
+
+    @Test
+    public void publisherDoesNotWaitForListeners() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(1, 10, EventOverflowPolicy.BLOCK);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockOn(dispatcher, started);
+
+        CompletableFuture<Void> future = dispatcher.publishEventAsync(new BlockingEvent());
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(future.isDone());
+        release.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        dispatcher.onStopped(null);
+    }
+
+    @Test
+    public void dropOldestCancelsDroppedEvents() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(1, 2, EventOverflowPolicy.DROP_OLDEST);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockOn(dispatcher, started);
+
+        dispatcher.publishEvent(new BlockingEvent());
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> first = dispatcher.publishEventAsync(new BlockingEvent());
+        dispatcher.publishEvent(new BlockingEvent());
+        CompletableFuture<Void> third = dispatcher.publishEventAsync(new BlockingEvent());
+
+        Assert.assertTrue(first.isCancelled());
+        Assert.assertEquals(1, dispatcher.getDroppedCount());
+        release.countDown();
+        third.get(5, TimeUnit.SECONDS);
+        dispatcher.onStopped(null);
+    }
+
+    @Test
+    public void callerRunsDeliversOnPublishingThread() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(1, 1, EventOverflowPolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockOn(dispatcher, started);
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerListener(OtherEvent.class, event -> threads.add(Thread.currentThread()));
+
+        dispatcher.publishEvent(new BlockingEvent());
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.publishEvent(new OtherEvent());
+        // The queue holds a single event so this one is delivered by the caller
+        dispatcher.publishEvent(new OtherEvent());
+        Assert.assertEquals(Collections.singletonList(Thread.currentThread()), threads);
+
+        release.countDown();
+        dispatcher.onStopped(null);
+        Assert.assertEquals(2, threads.size());
+        Assert.assertNotSame(Thread.currentThread(), threads.get(1));
+        Assert.assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void blockWaitsForSpace() throws Exception {
+        final AsyncApplicationEventDispatcher dispatcher = create(1, 1, EventOverflowPolicy.BLOCK);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockOn(dispatcher, started);
+
+        dispatcher.publishEvent(new BlockingEvent());
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.publishEvent(new BlockingEvent());
+
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            dispatcher.publishEvent(new BlockingEvent());
+            published.countDown();
+        });
+        publisher.start();
+        Assert.assertFalse(published.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assert.assertTrue(published.await(5, TimeUnit.SECONDS));
+        dispatcher.onStopped(null);
+        Assert.assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void listenerPublishingToFullQueueDoesNotDeadlock() throws Exception {
+        final AsyncApplicationEventDispatcher dispatcher = create(1, 1, EventOverflowPolicy.BLOCK);
+        final AtomicInteger delivered = new AtomicInteger();
+        dispatcher.registerListener(BlockingEvent.class, event -> {
+            for (int i = 0; i < 3; i++) {
+                dispatcher.publishEvent(new OtherEvent());
+            }
+        });
+        dispatcher.registerListener(OtherEvent.class, event -> delivered.incrementAndGet());
+
+        dispatcher.publishEventAsync(new BlockingEvent()).get(5, TimeUnit.SECONDS);
+        dispatcher.onStopped(null);
+        Assert.assertEquals(3, delivered.get());
+    }
+
+    @Test
+    public void futureOfEventPublishedByListenerToFullQueueCompletesOnDelivery() throws Exception {
+        final AsyncApplicationEventDispatcher dispatcher = create(1, 1, EventOverflowPolicy.BLOCK);
+        final AtomicInteger delivered = new AtomicInteger();
+        final List<Boolean> doneWhenPublished = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> deliveredWhenDone = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerListener(BlockingEvent.class, event -> {
+            // The first event fills the queue and the second is delivered by this thread
+            for (int i = 0; i < 2; i++) {
+                CompletableFuture<Void> future = dispatcher.publishEventAsync(new OtherEvent());
+                doneWhenPublished.add(future.isDone());
+                future.thenRun(() -> deliveredWhenDone.add(delivered.get()));
+            }
+        });
+        dispatcher.registerListener(OtherEvent.class, event -> delivered.incrementAndGet());
+
+        dispatcher.publishEventAsync(new BlockingEvent()).get(5, TimeUnit.SECONDS);
+        dispatcher.onStopped(null);
+        Assert.assertEquals(Arrays.asList(false, false), doneWhenPublished);
+        Assert.assertEquals(Arrays.asList(1, 2), deliveredWhenDone);
+    }
+
+    @Test
+    public void queuedEventsAreDeliveredOnStop() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(2, 1000, EventOverflowPolicy.BLOCK);
+        final AtomicInteger delivered = new AtomicInteger();
+        dispatcher.registerListener(KeyedEvent.class, event -> delivered.incrementAndGet());
+        for (int i = 0; i < 100; i++) {
+            dispatcher.publishEvent(new KeyedEvent(Integer.toString(i), i));
+        }
+        dispatcher.onStopped(null);
+        Assert.assertEquals(100, delivered.get());
+
+        // Delivered by the caller once stopped
+        dispatcher.publishEvent(new KeyedEvent("a", 100));
+        Assert.assertEquals(101, delivered.get());
+    }
+
+    @Test
+    public void publishEventsQueuesOneBatchPerThread() throws Exception {
+        AsyncApplicationEventDispatcher dispatcher = create(1, 1, EventOverflowPolicy.BLOCK);
+        final List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.registerBatchListener(KeyedEvent.class, events -> sizes.add(events.size()));
+
+        List<KeyedEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(new KeyedEvent(Integer.toString(i), i));
+        }
+        dispatcher.publishEvents(events);
+        dispatcher.onStopped(null);
+        Assert.assertEquals(Collections.singletonList(10), sizes);
+    }
+
+    @Test
+    public void moduleDeliversToEventListenerMethods() throws Exception {
+        IdentityHashMap<GovernatorFeature<?>, Object> features = new IdentityHashMap<>();
+        features.put(GovernatorFeatures.ASYNC_EVENTS_THREADS, 2);
+        final Listener listener = new Listener();
+        try (LifecycleInjector injector = InjectorBuilder.fromModules(new AsyncApplicationEventModule(), new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Listener.class).toInstance(listener);
+                    }
+                })
+                .createInjector(new LifecycleInjectorCreator().withFeatures(features))) {
+
+            ApplicationEventDispatcher dispatcher = injector.getInstance(ApplicationEventDispatcher.class);
+            Assert.assertTrue(dispatcher instanceof AsyncApplicationEventDispatcher);
+            dispatcher.publishEventAsync(new OtherEvent()).get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(listener.received.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(listener.thread, listener.thread.startsWith("governator-event-"));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.netflix.governator.event.indexed;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.inject.Module;
+import com.netflix.governator.event.ApplicationEvent;
+import com.netflix.governator.event.ApplicationEventModuleTest;
+import com.netflix.governator.event.ApplicationEventRegistration;
+
+public class IndexedApplicationEventModuleTest extends ApplicationEventModuleTest {
+
+    interface Marker extends ApplicationEvent {
+    }
+
+    static class BaseEvent implements ApplicationEvent {
+    }
+
+    static class DerivedEvent extends BaseEvent implements Marker {
+    }
+
+    static class OtherEvent implements ApplicationEvent {
+    }
+
+    @Override
+    protected Module createEventModule() {
+        return new IndexedApplicationEventModule();
+    }
+
+    @Test
+    public void testListenersOfSupertypesReceiveEventsInRegistrationOrder() {
+        IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<String> received = new ArrayList<>();
+        dispatcher.registerListener(DerivedEvent.class, event -> received.add("derived"));
+        dispatcher.registerListener(ApplicationEvent.class, event -> received.add("any"));
+        dispatcher.registerListener(OtherEvent.class, event -> received.add("other"));
+        dispatcher.registerListener(BaseEvent.class, event -> received.add("base"));
+        dispatcher.registerListener(Marker.class, event -> received.add("marker"));
+
+        dispatcher.publishEvent(new DerivedEvent());
+        assertEquals(Arrays.asList("derived", "any", "base", "marker"), received);
+
+        received.clear();
+        dispatcher.publishEvent(new BaseEvent());
+        assertEquals(Arrays.asList("any", "base"), received);
+    }
+
+    @Test
+    public void testEventListenerMethodsAreInvoked() throws Exception {
+        IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final MethodListener listener = new MethodListener();
+        dispatcher.registerListener(listener, MethodListener.class.getDeclaredMethod("onAny", ApplicationEvent.class), ApplicationEvent.class);
+        dispatcher.registerListener(listener, MethodListener.class.getDeclaredMethod("onDerived", DerivedEvent.class), DerivedEvent.class);
+
+        dispatcher.publishEvent(new DerivedEvent());
+        dispatcher.publishEvent(new OtherEvent());
+        assertEquals(2, listener.any);
+        assertEquals(1, listener.derived);
+    }
+
+    @Test
+    public void testRegistrationChangesInvalidateResolvedListeners() {
+        IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<String> received = new ArrayList<>();
+        dispatcher.registerListener(BaseEvent.class, event -> received.add("base"));
+        dispatcher.publishEvent(new DerivedEvent());
+
+        ApplicationEventRegistration registration = dispatcher.registerListener(DerivedEvent.class, event -> received.add("derived"));
+        dispatcher.publishEvent(new DerivedEvent());
+        registration.unregister();
+        registration.unregister();
+        dispatcher.publishEvent(new DerivedEvent());
+
+        assertEquals(Arrays.asList("base", "base", "derived", "base"), received);
+    }
+
+    @Test
+    public void testEventsPublishedByListenersAreQueued() {
+        final IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<String> received = new ArrayList<>();
+        dispatcher.registerListener(BaseEvent.class, event -> {
+            received.add("base-1");
+            dispatcher.publishEvent(new OtherEvent());
+        });
+        dispatcher.registerListener(BaseEvent.class, event -> received.add("base-2"));
+        dispatcher.registerListener(OtherEvent.class, event -> received.add("other"));
+
+        dispatcher.publishEvent(new BaseEvent());
+        assertEquals(Arrays.asList("base-1", "base-2", "other"), received);
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopDelivery() {
+        IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<String> received = new ArrayList<>();
+        dispatcher.registerListener(BaseEvent.class, event -> {
+            throw new IllegalStateException("failed");
+        });
+        dispatcher.registerListener(BaseEvent.class, event -> received.add("base"));
+
+        dispatcher.publishEvent(new BaseEvent());
+        assertEquals(Arrays.asList("base"), received);
+    }
+
+    @Test
+    public void testPublishEventsDeliversBatches() {
+        IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<List<BaseEvent>> batches = new ArrayList<>();
+        final List<ApplicationEvent> derived = new ArrayList<>();
+        dispatcher.registerBatchListener(BaseEvent.class, batches::add);
+        dispatcher.registerListener(DerivedEvent.class, derived::add);
+
+        BaseEvent base = new BaseEvent();
+        DerivedEvent derivedEvent = new DerivedEvent();
+        dispatcher.publishEvents(Arrays.asList(base, new OtherEvent(), derivedEvent));
+        assertEquals(Collections.singletonList(Arrays.asList(base, derivedEvent)), batches);
+        assertEquals(Collections.singletonList(derivedEvent), derived);
+
+        dispatcher.publishEvent(base);
+        assertEquals(Arrays.asList(Arrays.asList(base, derivedEvent), Collections.singletonList(base)), batches);
+    }
+
+    @Test
+    public void testEventsPublishedByBatchListenersAreQueued() {
+        final IndexedApplicationEventDispatcher dispatcher = new IndexedApplicationEventDispatcher();
+        final List<String> received = new ArrayList<>();
+        dispatcher.registerBatchListener(BaseEvent.class, events -> {
+            received.add("batch-" + events.size());
+            dispatcher.publishEvents(Arrays.asList(new OtherEvent(), new OtherEvent()));
+        });
+        dispatcher.registerListener(BaseEvent.class, event -> received.add("base"));
+        dispatcher.registerBatchListener(OtherEvent.class, events -> received.add("other-" + events.size()));
+
+        dispatcher.publishEvents(Arrays.asList(new BaseEvent(), new BaseEvent()));
+        assertEquals(Arrays.asList("batch-2", "base", "base", "other-2"), received);
+    }
+
+    static class MethodListener {
+        int any;
+        int derived;
+
+        void onAny(ApplicationEvent event) {
+            any++;
+        }
+
+        private void onDerived(DerivedEvent event) {
+            derived++;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.netflix.governator.guice.lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.ProvisionException;
+import com.netflix.governator.LegacyScopesModule;
+
+public class FineGrainedLazySingletonScopeTest {
+    private static final ExecutorService executor = Executors.newCachedThreadPool();
+    private static final AtomicInteger created = new AtomicInteger();
+    private static final List<Throwable> failures = new ArrayList<>();
+    private static final CountDownLatch secondStarted = new CountDownLatch(1);
+    private static final AtomicBoolean secondInBackground = new AtomicBoolean(true);
+    private static volatile Future<?> background;
+
+    @FineGrainedLazySingleton
+    public static class Slow {
+        @Inject
+        Slow() throws InterruptedException {
+            Thread.sleep(10);
+            created.incrementAndGet();
+        }
+    }
+
+    @FineGrainedLazySingleton
+    public static class First {
+        @Inject
+        First(final Injector injector) throws InterruptedException {
+            background = executor.submit(() -> injector.getInstance(Second.class));
+            secondStarted.await();
+            try {
+                injector.getInstance(Second.class);
+            } catch (ProvisionException e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        }
+    }
+
+    @FineGrainedLazySingleton
+    public static class Second {
+        @Inject
+        Second(Injector injector) {
+            if (secondInBackground.compareAndSet(true, false)) {
+                secondStarted.countDown();
+                injector.getInstance(First.class);
+            }
+        }
+    }
+
+    private static Injector createInjector() {
+        return Guice.createInjector(new LegacyScopesModule());
+    }
+
+    @Test
+    public void concurrentFirstAccessCreatesOneInstance() throws Exception {
+        created.set(0);
+        final Injector injector = createInjector();
+        List<Callable<Slow>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> injector.getInstance(Slow.class));
+        }
+        Slow expected = null;
+        for (Future<Slow> future : executor.invokeAll(tasks)) {
+            Slow slow = future.get(5, TimeUnit.SECONDS);
+            if (expected == null) {
+                expected = slow;
+            }
+            Assert.assertSame(expected, slow);
+        }
+        Assert.assertEquals(1, created.get());
+    }
+
+    @Test
+    public void deadlockIsReported() throws Exception {
+        final Injector injector = Guice.createInjector(binder ->
+                binder.bindScope(FineGrainedLazySingleton.class, new FineGrainedLazySingletonScopeImpl(true)));
+        Future<First> first = executor.submit(() -> injector.getInstance(First.class));
+        first.get(5, TimeUnit.SECONDS);
+        try {
+            background.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            synchronized (failures) {
+                failures.add(e.getCause());
+            }
+        }
+
+        synchronized (failures) {
+            Assert.assertEquals(1, failures.size());
+            Assert.assertTrue(failures.get(0).getMessage(), failures.get(0).getMessage().contains("Deadlock detected"));
+        }
+    }
+}
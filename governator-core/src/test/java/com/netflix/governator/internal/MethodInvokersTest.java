@@ -0,0 +1,128 @@
+package com.netflix.governator.internal;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodInvokersTest {
+    public static class PublicTarget {
+        int count;
+
+        public void increment() {
+            count++;
+        }
+
+        public String withReturnValue() {
+            count++;
+            return "ignored";
+        }
+
+        public void throwsChecked() throws IOException {
+            throw new IOException("checked");
+        }
+
+        public void add(Integer amount) {
+            count += amount;
+        }
+    }
+
+    private static class PrivateTarget {
+        int count;
+
+        @SuppressWarnings("unused")
+        private void increment() {
+            count++;
+        }
+
+        @SuppressWarnings("unused")
+        private void add(Integer amount) {
+            count += amount;
+        }
+    }
+
+    public static class Parent {
+        int count;
+
+        public void increment() {
+            count++;
+        }
+    }
+
+    public static class Child extends Parent {
+    }
+
+    @Test
+    public void invokesPublicMethod() throws Exception {
+        Consumer<Object> invoker = MethodInvokers.forNoArgMethod(PublicTarget.class.getMethod("increment"));
+        PublicTarget target = new PublicTarget();
+        invoker.accept(target);
+        invoker.accept(target);
+        Assert.assertEquals(2, target.count);
+    }
+
+    @Test
+    public void invokesPrivateMethod() throws Exception {
+        Consumer<Object> invoker = MethodInvokers.forNoArgMethod(PrivateTarget.class.getDeclaredMethod("increment"));
+        PrivateTarget target = new PrivateTarget();
+        invoker.accept(target);
+        Assert.assertEquals(1, target.count);
+    }
+
+    @Test
+    public void invokesInheritedMethodOnSubclass() throws Exception {
+        Consumer<Object> invoker = MethodInvokers.forNoArgMethod(Parent.class.getDeclaredMethod("increment"));
+        Child target = new Child();
+        invoker.accept(target);
+        Assert.assertEquals(1, target.count);
+    }
+
+    @Test
+    public void discardsReturnValue() throws Exception {
+        Consumer<Object> invoker = MethodInvokers.forNoArgMethod(PublicTarget.class.getMethod("withReturnValue"));
+        PublicTarget target = new PublicTarget();
+        invoker.accept(target);
+        Assert.assertEquals(1, target.count);
+    }
+
+    @Test
+    public void propagatesCheckedException() throws Exception {
+        Consumer<Object> invoker = MethodInvokers.forNoArgMethod(PublicTarget.class.getMethod("throwsChecked"));
+        try {
+            invoker.accept(new PublicTarget());
+            Assert.fail("Expected IOException");
+        }
+        catch (Exception e) {
+            Assert.assertEquals(IOException.class, e.getClass());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMethodWithParameters() throws Exception {
+        MethodInvokers.forNoArgMethod(Object.class.getMethod("equals", Object.class));
+    }
+
+    @Test
+    public void invokesSingleArgMethod() throws Exception {
+        BiConsumer<Object, Object> invoker = MethodInvokers.forSingleArgMethod(PublicTarget.class.getMethod("add", Integer.class));
+        PublicTarget target = new PublicTarget();
+        invoker.accept(target, 2);
+        invoker.accept(target, 3);
+        Assert.assertEquals(5, target.count);
+    }
+
+    @Test
+    public void invokesPrivateSingleArgMethod() throws Exception {
+        BiConsumer<Object, Object> invoker = MethodInvokers.forSingleArgMethod(PrivateTarget.class.getDeclaredMethod("add", Integer.class));
+        PrivateTarget target = new PrivateTarget();
+        invoker.accept(target, 2);
+        Assert.assertEquals(2, target.count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMethodWithoutSingleParameter() throws Exception {
+        MethodInvokers.forSingleArgMethod(PublicTarget.class.getMethod("increment"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.netflix.governator.internal;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.netflix.governator.LifecycleAction;
+import com.netflix.governator.ThreadLocalScope;
+
+public class PreDestroyMonitorTest {
+    public static class Scoped {
+    }
+
+    @Test
+    public void blockingScopedPreDestroyDoesNotHoldUpTheReclaimer() throws Exception {
+        final ThreadLocalScope scope = new ThreadLocalScope();
+        final Injector injector = Guice.createInjector(binder -> binder.bind(Scoped.class).in(scope));
+        final CountDownLatch destroying = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<String> destroyThread = new AtomicReference<>();
+        final LifecycleAction action = obj -> {
+            destroyThread.set(Thread.currentThread().getName());
+            destroying.countDown();
+            release.await();
+        };
+
+        PreDestroyMonitor monitor = new PreDestroyMonitor(injector.getScopeBindings());
+        try {
+            scope.enter();
+            monitor.register(new Scoped(), injector.getBinding(Scoped.class), Collections.singletonList(action));
+            scope.exit();
+            for (int i = 0; i < 20 && destroying.getCount() > 0; i++) {
+                System.gc();
+                destroying.await(100, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertEquals(0, destroying.getCount());
+            Assert.assertTrue(destroyThread.get(), destroyThread.get().startsWith("predestroy-monitor-"));
+
+            // The @PreDestroy method is still blocked but other references are reclaimed
+            final CountDownLatch reclaimed = new CountDownLatch(1);
+            final ReclaimableReference<Object> ref = new ReclaimableReference<Object>(new Object()) {
+                @Override
+                protected void reclaim() {
+                    reclaimed.countDown();
+                }
+            };
+            for (int i = 0; i < 20 && reclaimed.getCount() > 0; i++) {
+                System.gc();
+                reclaimed.await(100, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertEquals(0, reclaimed.getCount());
+            Assert.assertNull(ref.get());
+        }
+        finally {
+            release.countDown();
+            monitor.close();
+        }
+    }
+}
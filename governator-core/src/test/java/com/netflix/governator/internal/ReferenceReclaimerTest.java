@@ -0,0 +1,118 @@
+package com.netflix.governator.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReferenceReclaimerTest {
+    private static class CountingReference extends ReclaimableReference<Object> {
+        private final AtomicInteger reclaimed;
+        private final CountDownLatch latch;
+
+        CountingReference(Object referent, AtomicInteger reclaimed, CountDownLatch latch) {
+            this(referent, reclaimed, latch, true);
+        }
+
+        CountingReference(Object referent, AtomicInteger reclaimed, CountDownLatch latch, boolean reclaimable) {
+            super(referent, reclaimable);
+            this.reclaimed = reclaimed;
+            this.latch = latch;
+        }
+
+        @Override
+        protected void reclaim() {
+            reclaimed.incrementAndGet();
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void reclaimsManyReferencesOnSingleThread() throws InterruptedException {
+        final int count = 1000;
+        final AtomicInteger reclaimed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(count);
+        final CountingReference[] refs = new CountingReference[count];
+        for (int i = 0; i < count; i++) {
+            refs[i] = new CountingReference(new Object(), reclaimed, latch);
+        }
+
+        for (int i = 0; i < 10 && latch.getCount() > 0; i++) {
+            System.gc();
+            latch.await(500, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(count, reclaimed.get());
+        Assert.assertTrue(ReferenceReclaimer.getInstance().getStats().getReclaimedReferences() >= count);
+        Assert.assertEquals(1, Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("governator-reclaimer"))
+                .count());
+    }
+
+    @Test
+    public void clearedReferenceIsNotReclaimed() throws InterruptedException {
+        final AtomicInteger reclaimed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        CountingReference ref = new CountingReference(new Object(), reclaimed, latch);
+        ref.clear();
+
+        System.gc();
+        Assert.assertFalse(latch.await(500, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, reclaimed.get());
+    }
+
+    @Test
+    public void untrackedReferenceIsNotCountedOrReclaimed() throws InterruptedException {
+        final AtomicInteger reclaimed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long live = ReferenceReclaimer.getInstance().getStats().getLiveReferences();
+        CountingReference ref = new CountingReference(new Object(), reclaimed, latch, false);
+        Assert.assertEquals(live, ReferenceReclaimer.getInstance().getStats().getLiveReferences());
+
+        System.gc();
+        Assert.assertFalse(latch.await(500, TimeUnit.MILLISECONDS));
+        ref.clear();
+        Assert.assertEquals(0, reclaimed.get());
+        Assert.assertEquals(live, ReferenceReclaimer.getInstance().getStats().getLiveReferences());
+    }
+
+    @Test
+    public void lagIncludesTimeSpentWaitingInTheQueue() throws InterruptedException {
+        final long blockMillis = 500;
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final ReclaimableReference<Object> slow = new ReclaimableReference<Object>(new Object()) {
+            @Override
+            protected void reclaim() {
+                blocking.countDown();
+                try {
+                    Thread.sleep(blockMillis);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final long lag = ReferenceReclaimer.getInstance().getStats().getTotalLagNanos();
+        for (int i = 0; i < 20 && blocking.getCount() > 0; i++) {
+            System.gc();
+            blocking.await(100, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(0, blocking.getCount());
+
+        // Collected while the reclaimer thread is busy so it waits in the queue
+        final AtomicInteger reclaimed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        CountingReference queued = new CountingReference(new Object(), reclaimed, latch);
+        System.gc();
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertNull(slow.get());
+        Assert.assertNull(queued.get());
+        // Both references waited for the slow action.  Lag is recorded once reclaim() returns.
+        final long expected = TimeUnit.MILLISECONDS.toNanos(2 * blockMillis - 100);
+        for (int i = 0; i < 10 && ReferenceReclaimer.getInstance().getStats().getTotalLagNanos() - lag < expected; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertTrue(ReferenceReclaimer.getInstance().getStats().getTotalLagNanos() - lag >= expected);
+    }
+}
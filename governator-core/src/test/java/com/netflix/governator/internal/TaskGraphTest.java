@@ -0,0 +1,61 @@
+package com.netflix.governator.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskGraphTest {
+    @Test
+    public void barriersOrderTasksButAreNotReported() throws InterruptedException {
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        final TaskGraph graph = new TaskGraph();
+        final TaskGraph.Task a = graph.add("a", () -> ran.add("a"));
+        final TaskGraph.Task b = graph.add("b", () -> ran.add("b"));
+        final TaskGraph.Task barrier = graph.addBarrier();
+        final TaskGraph.Task c = graph.add("c", () -> ran.add("c"));
+        graph.addOrdering(a, barrier);
+        graph.addOrdering(b, barrier);
+        graph.addOrdering(barrier, c);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final TaskGraph.Report report = graph.execute(executor, 0, 5, TimeUnit.SECONDS, false);
+            Assert.assertEquals(Arrays.asList(a, b, c), report.getTasks());
+            Assert.assertEquals(3, report.getTasks(TaskGraph.State.COMPLETED).size());
+            Assert.assertEquals("c", ran.get(2));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void skippedBarriersAreNotReported() throws InterruptedException {
+        final TaskGraph graph = new TaskGraph();
+        final TaskGraph.Task a = graph.add("a", () -> {
+            throw new IllegalStateException("failed");
+        });
+        final TaskGraph.Task barrier = graph.addBarrier();
+        final TaskGraph.Task b = graph.add("b", () -> null);
+        graph.addOrdering(a, barrier);
+        graph.addOrdering(barrier, b);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final TaskGraph.Report report = graph.execute(executor, 0, 0, TimeUnit.SECONDS, true);
+            Assert.assertEquals(Collections.singletonList(a), report.getFailed());
+            Assert.assertEquals(Collections.singletonList(b), report.getSkipped());
+            Assert.assertEquals(2, report.getTasks().size());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.netflix.governator.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Binding;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.netflix.governator.LifecycleAction;
+import com.netflix.governator.UnscopedPreDestroyPolicy;
+
+public class UnscopedInstanceRegistryTest {
+    public static class Unscoped {
+    }
+
+    @Test
+    public void duplicateInstanceIsRegisteredOnce() {
+        UnscopedInstanceRegistry registry = new UnscopedInstanceRegistry(4);
+        Object instance = new Object();
+        Assert.assertTrue(registry.add(instance, null, "test", Collections.emptyList()));
+        Assert.assertFalse(registry.add(instance, null, "test", Collections.emptyList()));
+        Assert.assertEquals(1, registry.getRegistrations());
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void drainReturnsLiveInstancesInReverseOrder() {
+        UnscopedInstanceRegistry registry = new UnscopedInstanceRegistry(4);
+        Object[] instances = new Object[100];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = new Object();
+            registry.add(instances[i], null, "test", Collections.emptyList());
+        }
+
+        List<Object[]> drained = registry.drain();
+        Assert.assertEquals(instances.length, drained.size());
+        for (int i = 0; i < instances.length; i++) {
+            Assert.assertSame(instances[instances.length - 1 - i], drained.get(i)[0]);
+        }
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void collectedInstancesAreRemoved() throws InterruptedException {
+        UnscopedInstanceRegistry registry = new UnscopedInstanceRegistry(4);
+        for (int i = 0; i < 1000; i++) {
+            registry.add(new Object(), null, "test", Collections.emptyList());
+        }
+        for (int i = 0; i < 20 && registry.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(0, registry.size());
+        Assert.assertEquals(1000, registry.getRegistrations());
+    }
+
+    @Test
+    public void ignoredInstancesAreNotDestroyed() throws Exception {
+        Injector injector = Guice.createInjector();
+        Binding<Unscoped> binding = injector.getBinding(Unscoped.class);
+        AtomicInteger destroyed = new AtomicInteger();
+        List<LifecycleAction> actions = Collections.singletonList(obj -> destroyed.incrementAndGet());
+
+        PreDestroyMonitor monitor = new PreDestroyMonitor(injector.getScopeBindings());
+        monitor.setUnscopedPolicy(UnscopedPreDestroyPolicy.IGNORE, 1);
+        Unscoped ignored = new Unscoped();
+        monitor.register(ignored, binding, actions);
+        monitor.setUnscopedPolicy(UnscopedPreDestroyPolicy.TRACK, 1);
+        Unscoped tracked = new Unscoped();
+        monitor.register(tracked, binding, actions);
+
+        Assert.assertEquals(1, monitor.getUnscopedSkipped());
+        Assert.assertEquals(1, monitor.getUnscopedRegistrations());
+        monitor.close();
+        Assert.assertEquals(1, destroyed.get());
+    }
+}
@@ -0,0 +1,112 @@
+package com.netflix.governator.internal.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AnnotationIndexTest {
+    private static final List<String> ANNOTATIONS = Collections.singletonList("com.netflix.governator.annotations.AutoBindSingleton");
+
+    @Test
+    public void rootOfResolvesJarsAndDirectories() throws IOException {
+        Assert.assertEquals("file:/lib/app.jar", AnnotationIndex.rootOf(new URL("jar:file:/lib/app.jar!/org/example"), "org/example"));
+        Assert.assertEquals("file:/lib/app.jar", AnnotationIndex.rootOf(new URL("jar:file:/lib/app.jar!/" + AnnotationIndex.RESOURCE), AnnotationIndex.RESOURCE));
+        Assert.assertEquals("file:/build/classes", AnnotationIndex.rootOf(new URL("file:/build/classes/org/example/"), "org/example"));
+        Assert.assertEquals("file:/build/classes", AnnotationIndex.rootOf(new URL("file:/build/classes/" + AnnotationIndex.RESOURCE), AnnotationIndex.RESOURCE));
+        Assert.assertNull(AnnotationIndex.rootOf(new URL("file:/build/classes/org/other"), "org/example"));
+    }
+
+    @Test
+    public void rootOfResolvesNestedJars() throws IOException {
+        Assert.assertEquals("file:/app.jar!/BOOT-INF/lib/x.jar",
+                AnnotationIndex.rootOf(new URL("jar:file:/app.jar!/BOOT-INF/lib/x.jar!/" + AnnotationIndex.RESOURCE), AnnotationIndex.RESOURCE));
+        Assert.assertEquals("file:/app.jar!/BOOT-INF/lib/x.jar",
+                AnnotationIndex.rootOf(new URL("jar:file:/app.jar!/BOOT-INF/lib/x.jar!/org/example"), "org/example"));
+        Assert.assertEquals("file:/app.jar!/BOOT-INF/classes",
+                AnnotationIndex.rootOf(new URL("jar:file:/app.jar!/BOOT-INF/classes!/org/example"), "org/example"));
+    }
+
+    @Test
+    public void nestedJarsHaveTheirOwnIndex() throws IOException {
+        final String lib = "jar:file:/app.jar!/BOOT-INF/lib/x.jar!/";
+        final String classes = "jar:file:/app.jar!/BOOT-INF/classes!/";
+        final URLStreamHandler handler = new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                final String content = url.toExternalForm().startsWith(lib)
+                        ? "@com.netflix.governator.annotations.AutoBindSingleton\norg.example.Foo\n"
+                        : "@com.netflix.governator.annotations.AutoBindSingleton\norg.example.Bar\n";
+                return new URLConnection(url) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+                    }
+                };
+            }
+        };
+        ClassLoader loader = new ClassLoader(null) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return Collections.enumeration(Arrays.asList(
+                        new URL(null, lib + name, handler),
+                        new URL(null, classes + name, handler)));
+            }
+        };
+
+        AnnotationIndex index = AnnotationIndex.load(loader);
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals(Collections.singletonList("org.example.Foo"),
+                new ArrayList<>(index.getClasses(new URL(lib + "org/example"), "org.example", ANNOTATIONS)));
+        Assert.assertEquals(Collections.singletonList("org.example.Bar"),
+                new ArrayList<>(index.getClasses(new URL(classes + "org/example"), "org.example", ANNOTATIONS)));
+        Assert.assertNull(index.getClasses(new URL("jar:file:/app.jar!/BOOT-INF/lib/y.jar!/org/example"), "org.example", ANNOTATIONS));
+    }
+
+    @Test
+    public void classesAreFilteredByPackageAndAnnotation() throws IOException {
+        Path root = Files.createTempDirectory("governator-index");
+        Files.createDirectories(root.resolve("org/example/sub"));
+        Files.createDirectories(root.resolve(AnnotationIndex.RESOURCE).getParent());
+        Files.write(root.resolve(AnnotationIndex.RESOURCE), Arrays.asList(
+                "@com.netflix.governator.annotations.AutoBindSingleton",
+                "org.example.Foo",
+                "org.example.sub.Bar",
+                "org.other.Baz",
+                "@javax.inject.Inject"), StandardCharsets.UTF_8);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {root.toUri().toURL()}, null)) {
+            AnnotationIndex index = AnnotationIndex.load(loader);
+            Assert.assertEquals(1, index.size());
+
+            URL packageUrl = loader.getResource("org/example");
+            Assert.assertEquals(Arrays.asList("org.example.Foo", "org.example.sub.Bar"),
+                    new ArrayList<>(index.getClasses(packageUrl, "org.example", ANNOTATIONS)));
+            Assert.assertEquals(Collections.singletonList("org.example.sub.Bar"),
+                    new ArrayList<>(index.getClasses(loader.getResource("org/example/sub"), "org.example.sub", ANNOTATIONS)));
+            Assert.assertTrue(index.getClasses(packageUrl, "org.example", Collections.singletonList("javax.inject.Inject")).isEmpty());
+
+            // Not indexed
+            Assert.assertNull(index.getClasses(packageUrl, "org.example", Collections.singletonList("org.example.Other")));
+            Assert.assertNull(index.getClasses(new URL("jar:file:/lib/app.jar!/org/example"), "org.example", ANNOTATIONS));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.netflix.governator.internal.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.netflix.governator.annotations.AutoBindSingleton;
+import com.netflix.governator.package1.AutoBindSingletonConcrete;
+
+public class ClassAnnotationReaderTest {
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Complex {
+        String[] names();
+        TimeUnit unit();
+        Named nested();
+        Class<?> type();
+        ElementType[] targets() default {};
+        long value() default 0;
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    public @interface NotVisible {
+    }
+
+    @NotVisible
+    @Complex(names = {"a", "b"}, unit = TimeUnit.SECONDS, nested = @Named("foo"), type = String.class, targets = {ElementType.TYPE}, value = Long.MAX_VALUE)
+    @Singleton
+    public static class Annotated {
+        public static final double CONSTANT = 1.5;
+
+        @Named("field")
+        String field = "\u00e9t\u00e9";
+
+        @Singleton
+        public void method() {
+        }
+    }
+
+    public static class NotAnnotated {
+        @Singleton
+        public void method() {
+        }
+    }
+
+    private static Set<String> read(Class<?> type) throws IOException {
+        try (InputStream is = type.getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            return ClassAnnotationReader.getAnnotationDescriptors(ClassAnnotationReader.toByteArray(is));
+        }
+    }
+
+    @Test
+    public void readsClassLevelAnnotations() throws IOException {
+        Assert.assertEquals(Collections.singleton(ClassAnnotationReader.descriptorOf(AutoBindSingleton.class)), read(AutoBindSingletonConcrete.class));
+    }
+
+    @Test
+    public void skipsAnnotationValuesAndMemberAnnotations() throws IOException {
+        Set<String> descriptors = read(Annotated.class);
+        Assert.assertEquals(2, descriptors.size());
+        Assert.assertTrue(descriptors.contains(ClassAnnotationReader.descriptorOf(Complex.class)));
+        Assert.assertTrue(descriptors.contains("Ljavax/inject/Singleton;"));
+    }
+
+    @Test
+    public void ignoresMemberAnnotations() throws IOException {
+        Assert.assertTrue(read(NotAnnotated.class).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedBytecode() throws IOException {
+        ClassAnnotationReader.getAnnotationDescriptors(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0});
+    }
+}
@@ -0,0 +1,115 @@
+package com.netflix.governator.internal.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.netflix.governator.spi.ClassSource;
+
+public class ClassSourcesTest {
+    private static byte[] jar(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(bytes)) {
+            for (String entry : entries) {
+                jar.putNextEntry(new JarEntry(entry));
+                jar.write(entry.getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static File appJar() throws IOException {
+        File file = new File(Files.createTempDirectory("governator-scan").toFile(), "app.jar");
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : Arrays.asList("BOOT-INF/classes/org/example/App.class", "BOOT-INF/classes/org/other/Other.class")) {
+                jar.putNextEntry(new JarEntry(entry));
+                jar.write(entry.getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+            jar.putNextEntry(new JarEntry("BOOT-INF/lib/first.jar"));
+            jar.write(jar("org/example/First.class"));
+            jar.closeEntry();
+            jar.putNextEntry(new JarEntry("BOOT-INF/lib/lib.jar"));
+            jar.write(jar("org/example/Foo.class", "org/example/sub/Bar.class", "org/example/readme.txt", "org/examples/Baz.class"));
+            jar.closeEntry();
+        }
+        return file;
+    }
+
+    /**
+     * @return The classes and the bytecode read for each class
+     */
+    private static List<String> classes(ClassSource source) throws IOException {
+        List<String> classes = new ArrayList<>();
+        source.forEachClass((className, bytecode) -> {
+            try (InputStream is = bytecode.open()) {
+                classes.add(className + "=" + new String(ClassAnnotationReader.toByteArray(is), StandardCharsets.UTF_8));
+            }
+        });
+        return classes;
+    }
+
+    @Test
+    public void nestedJarsAreStreamedFromTheEnclosingJar() throws IOException {
+        File app = appJar();
+        ClassSource source = ClassSources.forUrl(new URL("jar:" + app.toURI() + "!/BOOT-INF/lib/lib.jar!/org/example"), "org.example");
+
+        Assert.assertEquals(app, source.getArchive());
+        Assert.assertEquals("BOOT-INF/lib/lib.jar", source.getArchivePath());
+        Assert.assertEquals(Arrays.asList(
+                "org.example.Foo=org/example/Foo.class",
+                "org.example.sub.Bar=org/example/sub/Bar.class"), classes(source));
+    }
+
+    @Test
+    public void nestedDirectoriesAreReadFromTheEnclosingJar() throws IOException {
+        File app = appJar();
+        ClassSource source = ClassSources.forUrl(new URL("jar:" + app.toURI() + "!/BOOT-INF/classes!/org/example"), "org.example");
+
+        Assert.assertEquals("BOOT-INF/classes", source.getArchivePath());
+        Assert.assertEquals(Collections.singletonList("org.example.App=BOOT-INF/classes/org/example/App.class"), classes(source));
+    }
+
+    @Test
+    public void missingNestedJarFails() throws IOException {
+        File app = appJar();
+        ClassSource source = ClassSources.forUrl(new URL("jar:" + app.toURI() + "!/BOOT-INF/lib/missing.jar!/org/example"), "org.example");
+        try {
+            source.forEachClass((className, bytecode) -> Assert.fail(className));
+            Assert.fail();
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void modulesAreReadFromTheRuntimeImage() throws IOException {
+        if (System.getProperty("java.specification.version").startsWith("1.")) {
+            // No runtime image before Java 9
+            return;
+        }
+        ClassSource source = ClassSources.forUrl(new URL("jrt:/java.base/java/util/concurrent"), "java.util.concurrent");
+        Assert.assertNull(source.getArchive());
+
+        List<String> classes = new ArrayList<>();
+        source.forEachClass((className, bytecode) -> classes.add(className));
+        Assert.assertTrue(classes.contains("java.util.concurrent.ConcurrentHashMap"));
+        Assert.assertTrue(classes.contains("java.util.concurrent.atomic.AtomicLong"));
+        Assert.assertFalse(classes.contains("java.util.HashMap"));
+    }
+}
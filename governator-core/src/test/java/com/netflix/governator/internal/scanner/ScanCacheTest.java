@@ -0,0 +1,61 @@
+package com.netflix.governator.internal.scanner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScanCacheTest {
+    private static void writeJar(File file, String... entries) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                jar.putNextEntry(new JarEntry(entry));
+                jar.write(entry.getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    public void storedResultsAreReturnedUntilTheJarChanges() throws IOException {
+        File dir = Files.createTempDirectory("governator-scan").toFile();
+        File jar = new File(dir, "test.jar");
+        writeJar(jar, "org/example/Foo.class", "org/example/Bar.class");
+
+        ScanCache cache = new ScanCache(new File(dir, "cache"));
+        ScanCache.Lookup lookup = cache.lookup(jar, "query");
+        Assert.assertNull(lookup.getClassNames());
+        lookup.store(Arrays.asList("org.example.Foo", "org.example.\u00e9t\u00e9"));
+
+        Assert.assertEquals(Arrays.asList("org.example.Foo", "org.example.\u00e9t\u00e9"), cache.lookup(jar, "query").getClassNames());
+        Assert.assertNull(cache.lookup(jar, "other query").getClassNames());
+
+        // Same size and modification time but different content
+        long lastModified = jar.lastModified();
+        writeJar(jar, "org/example/Foo.class", "org/example/Baz.class");
+        Assert.assertTrue(jar.setLastModified(lastModified));
+        Assert.assertNull(cache.lookup(jar, "query").getClassNames());
+    }
+
+    @Test
+    public void corruptEntriesAreMisses() throws IOException {
+        File dir = Files.createTempDirectory("governator-scan").toFile();
+        File jar = new File(dir, "test.jar");
+        writeJar(jar, "org/example/Foo.class");
+
+        ScanCache cache = new ScanCache(new File(dir, "cache"));
+        cache.lookup(jar, "query").store(Arrays.asList("org.example.Foo"));
+        File[] entries = cache.getDirectory().listFiles();
+        Assert.assertEquals(1, entries.length);
+        Files.write(entries[0].toPath(), new byte[] {1, 2, 3});
+
+        Assert.assertNull(cache.lookup(jar, "query").getClassNames());
+    }
+}
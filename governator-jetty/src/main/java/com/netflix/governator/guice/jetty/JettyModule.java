@@ -9,6 +9,7 @@ import com.google.inject.servlet.GuiceFilter;
 import com.netflix.governator.AbstractLifecycleListener;
 import com.netflix.governator.LifecycleManager;
 import com.netflix.governator.LifecycleShutdownSignal;
+import com.netflix.governator.spi.GovernatorExecutors;
 import com.netflix.governator.spi.LifecycleListener;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.server.Connector;
@@ -157,17 +158,23 @@ public final class JettyModule extends AbstractModule {
     @Singleton
     public static class JettyShutdown extends AbstractLifecycleListener {
         private Server server;
+        private GovernatorExecutors executors = GovernatorExecutors.platform();
         
         @Inject
         public JettyShutdown(Server server) {
             this.server = server;
         }
         
+        @com.google.inject.Inject(optional = true)
+        void setExecutors(GovernatorExecutors executors) {
+            this.executors = executors;
+        }
+        
         @Override
         public void onStopped(Throwable optionalError) {
             LOG.info("Jetty Server shutting down");
             try {
-                Thread t = new Thread(new Runnable() {
+                Thread t = executors.newThreadFactory("jetty-shutdown", false).newThread(new Runnable() {
                     @Override
                     public void run() {
                         try {
@@ -5,30 +5,36 @@ import java.lang.reflect.Constructor;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Binding;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import com.google.inject.spi.BindingScopingVisitor;
 import com.google.inject.spi.BindingTargetVisitor;
 import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
 import com.google.inject.spi.InjectionPoint;
 import com.google.inject.spi.ProviderInstanceBinding;
 import com.google.inject.spi.ProviderWithExtensionVisitor;
 import com.google.inject.spi.Toolable;
 import com.netflix.governator.annotations.NonConcurrent;
+import com.netflix.governator.internal.AbstractScope;
 import com.netflix.governator.lifecycle.LifecycleListener;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 /**
  * Utility class for creating Providers that allow for concurrent instantiation
@@ -38,6 +44,21 @@ import com.netflix.governator.lifecycle.LifecycleListener;
  *
  */
 public class ConcurrentProviders {
+    /**
+     * Name of an optional ForkJoinPool binding used instead of the default pool, e.g.
+     * {@code bind(ForkJoinPool.class).annotatedWith(Names.named(ConcurrentProviders.POOL)).toInstance(pool)}, 
+     * which may be created by {@link GovernatorExecutors#newForkJoinPool(String, int)}
+     */
+    public static final String POOL = "governator.concurrentProviders.pool";
+
+    /**
+     * Parallelism of the default pool.  Constructors commonly block on I/O so the pool is larger than
+     * the number of processors.
+     */
+    public static final int DEFAULT_PARALLELISM = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    private static final ForkJoinPool DEFAULT_POOL = GovernatorExecutors.platform().newForkJoinPool("ConcurrentProviders", DEFAULT_PARALLELISM);
+    
     /**
      * Create a Provider that will construct all constructor arguments in parallel and wait
      * for all dependencies to be constructed before invoking the constructor of the type.
@@ -61,14 +82,24 @@ public class ConcurrentProviders {
      * }
      * }
      * 
-     * When Foo is created eagerly (by Guice) the provider will spawn 4 threads each creating
+     * When Foo is created eagerly (by Guice) the provider will use 4 threads each creating
      * one of the above dependencies.  Note that for Provider<DependencyC> the provider will 
      * be created and not an instance of DependencyC.  Also, note that NonConcurrentSingleton
      * will not be constructed in a separate thread.
      * 
-     * Note that a dedicated pool of N threads (where N is the number of dependencies) is created
-     * when Foo is first constructed.  Upon instantiation of Foo the pool is shut down and the 
-     * resulting instance of Foo cached for future retrieval.  
+     * Dependencies are created on a ForkJoinPool shared by all ConcurrentProviders, sized to
+     * {@link #DEFAULT_PARALLELISM} unless a pool is bound with {@code @Named(ConcurrentProviders.POOL)}.
+     * Before creating a dependency its own singleton dependencies are created in parallel as well,
+     * recursively, so that deep graphs are created concurrently.  Only singletons are created ahead 
+     * of time since they are cached until the dependency asks for them.  The resulting instance
+     * of Foo is cached for future retrieval.
+     * 
+     * A pool thread creating a dependency may block in the injector, for example on the scope lock of
+     * a singleton another thread is creating, while holding the scope locks of the dependencies it
+     * is creating.  Dependencies are therefore created through {@link ForkJoinPool#managedBlock} so 
+     * that the pool may start a compensating thread, temporarily exceeding its parallelism, instead
+     * of leaving the tasks that would release those locks queued behind blocked threads.  This
+     * doesn't prevent deadlocks between dependencies that wait on each other in a cycle.
      * 
      * It's also important to note that ALL transitive dependencies of Foo MUST be in the
      * <b>FineGrainedLazySingleton</b> scope, otherwise there is a high risk of hitting the global Guice
@@ -83,6 +114,7 @@ public class ConcurrentProviders {
             private volatile T instance;
             private Injector injector;
             private Set<LifecycleListener> listeners = Collections.emptySet();
+            private ForkJoinPool pool = DEFAULT_POOL;
             
             public T get() {
                 if ( instance == null ) {
@@ -113,66 +145,46 @@ public class ConcurrentProviders {
                     List<Dependency<?>> deps = injectionPoint.getDependencies();
                     if (deps.size() > 0) {
                         Constructor<?> constructor = (Constructor<?>)injectionPoint.getMember();
-                        // One thread for each dependency
-                        ExecutorService executor = Executors.newCachedThreadPool(
-                                new ThreadFactoryBuilder()
-                                    .setDaemon(true)
-                                    .setNameFormat("ConcurrentProviders-" + type.getSimpleName() + "-%d")
-                                    .build());
-                        try {
-                            List<Supplier<?>> suppliers = Lists.newArrayListWithCapacity(deps.size());
-                            
-                            // Iterate all constructor dependencies and get and instance from the Injector
-                            for (final Dependency<?> dep : deps) {
-                                if (!isConcurrent(constructor, dep.getParameterIndex())) {
-                                    suppliers.add(getCreator(dep.getKey()));
-                                }
-                                else {
-                                    final Future<?> future = executor.submit(new Callable<Object>() {
-                                        @Override
-                                        public Object call() throws Exception {
-                                            return getCreator(dep.getKey()).get();
-                                        }
-                                    });
-                                    suppliers.add(new Supplier() {
-                                        @Override
-                                        public Object get() {
-                                            try {
-                                                return future.get();
-                                            } catch (InterruptedException e) {
-                                                Thread.currentThread().interrupt();
-                                                throw new ProvisionException("interrupted during provision");
-                                            } catch (ExecutionException e) {
-                                                throw new RuntimeException(e.getCause());
-                                            }
-                                        }
-                                    });
-                                }
+                        // Keys that are already being created, so that each is only created ahead once 
+                        Set<Key<?>> claimed = Collections.newSetFromMap(new ConcurrentHashMap<Key<?>, Boolean>());
+                        List<Supplier<?>> suppliers = Lists.newArrayListWithCapacity(deps.size());
+                        
+                        // Iterate all constructor dependencies and get and instance from the Injector
+                        for (final Dependency<?> dep : deps) {
+                            if (!isConcurrent(constructor, dep.getParameterIndex())) {
+                                suppliers.add(getCreator(dep.getKey()));
                             }
-                            // All dependencies are now being instantiated in parallel
-                            
-                            // Fetch the arguments from the futures and put in an array to pass to newInstance
-                            List<Object> params = Lists.newArrayListWithCapacity(deps.size());
-                            for (Supplier<?> supplier: suppliers) {
-                                params.add(supplier.get());
+                            else {
+                                claimed.add(dep.getKey());
+                                final ForkJoinTask<?> task = submit(new DependencyTask<>(dep.getKey(), claimed, getCreator(dep.getKey())));
+                                suppliers.add(new Supplier<Object>() {
+                                    @Override
+                                    public Object get() {
+                                        return task.join();
+                                    }
+                                });
                             }
-                            
-                            // All dependencies have been initialized
-                            
-                            // Look for the @Inject constructor and invoke it.
-                            try {
-                                T obj = (T)constructor.newInstance(params.toArray());
-                                long duration = System.nanoTime() - startTime;
-                                for (LifecycleListener listener : listeners) {
-                                    listener.objectInjected((TypeLiteral<T>)TypeLiteral.get(type), obj, duration, TimeUnit.NANOSECONDS);
-                                }
-                                return obj;
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
+                        }
+                        // All dependencies are now being instantiated in parallel
+                        
+                        // Fetch the arguments from the futures and put in an array to pass to newInstance
+                        List<Object> params = Lists.newArrayListWithCapacity(deps.size());
+                        for (Supplier<?> supplier: suppliers) {
+                            params.add(supplier.get());
+                        }
+                        
+                        // All dependencies have been initialized
+                        
+                        // Look for the @Inject constructor and invoke it.
+                        try {
+                            T obj = (T)constructor.newInstance(params.toArray());
+                            long duration = System.nanoTime() - startTime;
+                            for (LifecycleListener listener : listeners) {
+                                listener.objectInjected((TypeLiteral<T>)TypeLiteral.get(type), obj, duration, TimeUnit.NANOSECONDS);
                             }
-                        } 
-                        finally {
-                            executor.shutdown();
+                            return obj;
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
                         }
                     }
                 }
@@ -223,6 +235,82 @@ public class ConcurrentProviders {
                 this.listeners = listeners;
             }
             
+            @Inject(optional = true) 
+            void setPool(@Named(POOL) ForkJoinPool pool) {
+                this.pool = pool;
+            }
+            
+            /**
+             * Fork the task when already running in the pool, so that joining it may run it in 
+             * the same thread, otherwise submit it to the pool
+             */
+            private <S> ForkJoinTask<S> submit(ForkJoinTask<S> task) {
+                if (ForkJoinTask.getPool() == pool) {
+                    return task.fork();
+                }
+                return pool.submit(task);
+            }
+            
+            /**
+             * Creates a dependency after creating its singleton dependencies in parallel
+             */
+            class DependencyTask<S> extends RecursiveTask<S> {
+                private final Key<?> key;
+                private final Set<Key<?>> claimed;
+                private final Supplier<S> creator;
+                
+                DependencyTask(Key<?> key, Set<Key<?>> claimed, Supplier<S> creator) {
+                    this.key = key;
+                    this.claimed = claimed;
+                    this.creator = creator;
+                }
+                
+                @Override
+                protected S compute() {
+                    List<ForkJoinTask<?>> children = Lists.newArrayList();
+                    if (!isProvider(key)) {
+                        for (Key<?> dependency : singletonDependencies(key)) {
+                            if (claimed.add(dependency)) {
+                                children.add(submit(new DependencyTask<>(dependency, claimed, instanceOf(dependency))));
+                            }
+                        }
+                    }
+                    for (ForkJoinTask<?> child : children) {
+                        // Failures are reported by the injector when creating this key
+                        child.quietlyJoin();
+                    }
+                    return getBlocking(creator);
+                }
+            }
+            
+            private List<Key<?>> singletonDependencies(Key<?> key) {
+                List<Key<?>> keys = Lists.newArrayList();
+                try {
+                    Binding<?> binding = injector.getBinding(key);
+                    if (binding instanceof HasDependencies) {
+                        for (Dependency<?> dependency : ((HasDependencies)binding).getDependencies()) {
+                            Key<?> dependencyKey = dependency.getKey();
+                            if (!isProvider(dependencyKey) && isSingleton(injector.getBinding(dependencyKey))) {
+                                keys.add(dependencyKey);
+                            }
+                        }
+                    }
+                }
+                catch (RuntimeException e) {
+                    // The injector reports the error when creating the key
+                }
+                return keys;
+            }
+            
+            private <S> Supplier<S> instanceOf(final Key<S> key) {
+                return new Supplier<S>() {
+                    @Override
+                    public S get() {
+                        return injector.getInstance(key);
+                    }
+                };
+            }
+            
             public <S> Supplier<S> getCreator(final Key<S> key) {
                 return new Supplier<S>() {
                     @Override
@@ -243,4 +331,69 @@ public class ConcurrentProviders {
 
         };
     }
+    
+    /**
+     * Get from the supplier within {@link ForkJoinPool#managedBlock} so that a pool thread blocked
+     * in the injector lets the pool start a compensating thread
+     */
+    private static <S> S getBlocking(final Supplier<S> supplier) {
+        class Blocker implements ForkJoinPool.ManagedBlocker {
+            S result;
+            boolean done;
+
+            @Override
+            public boolean block() {
+                result = supplier.get();
+                done = true;
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return done;
+            }
+        }
+
+        Blocker blocker = new Blocker();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        }
+        catch (InterruptedException e) {
+            // Not thrown as block() doesn't wait itself
+            Thread.currentThread().interrupt();
+            throw new ProvisionException("Interrupted while creating a dependency", e);
+        }
+        return blocker.result;
+    }
+    
+    private static boolean isProvider(Key<?> key) {
+        Class<?> rawType = key.getTypeLiteral().getRawType();
+        return rawType == Provider.class || rawType == javax.inject.Provider.class;
+    }
+    
+    private static boolean isSingleton(Binding<?> binding) {
+        return binding.acceptScopingVisitor(new BindingScopingVisitor<Boolean>() {
+            @Override
+            public Boolean visitEagerSingleton() {
+                return true;
+            }
+
+            @Override
+            public Boolean visitScope(Scope scope) {
+                return scope == Scopes.SINGLETON 
+                    || (scope instanceof AbstractScope && ((AbstractScope) scope).isSingletonScope());
+            }
+
+            @Override
+            public Boolean visitScopeAnnotation(Class<? extends Annotation> scopeAnnotation) {
+                return scopeAnnotation == com.google.inject.Singleton.class 
+                    || scopeAnnotation == javax.inject.Singleton.class;
+            }
+
+            @Override
+            public Boolean visitNoScoping() {
+                return false;
+            }
+        });
+    }
 }
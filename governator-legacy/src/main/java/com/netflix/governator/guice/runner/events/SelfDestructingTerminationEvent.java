@@ -3,7 +3,7 @@ package com.netflix.governator.guice.runner.events;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 /**
  * Used mainly for testing the SelfDestructingTerminationEvent will fire the main TerminateEvent
@@ -12,7 +12,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
  */
 public class SelfDestructingTerminationEvent extends BlockingTerminationEvent {
     public SelfDestructingTerminationEvent(final long timeout, final TimeUnit units) {
-        Executors.newScheduledThreadPool(1, new ThreadFactoryBuilder().setDaemon(true).build())
+        Executors.newScheduledThreadPool(1, GovernatorExecutors.platform().newThreadFactory("SelfDestructingTerminationEvent", true))
             .schedule(new Runnable() {
                 @Override
                 public void run() {
@@ -12,7 +12,6 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -26,6 +25,7 @@ import com.netflix.governator.guice.runner.LifecycleRunner;
 import com.netflix.governator.guice.runner.TerminationEvent;
 import com.netflix.governator.guice.runner.events.BlockingTerminationEvent;
 import com.netflix.governator.lifecycle.LifecycleManager;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 /**
  * Implementation of a Runner module that should be used for runtime applications.
@@ -103,6 +103,9 @@ public class StandaloneRunnerModule implements BootstrapModule {
         @Inject
         private @Main TerminationEvent terminateEvent;
 
+        @Inject(optional=true)
+        private GovernatorExecutors executors = GovernatorExecutors.platform();
+
         /**
          * This is the application's main 'run' loop. which blocks on the termination event
          */
@@ -115,7 +118,7 @@ public class StandaloneRunnerModule implements BootstrapModule {
                 if (mainClass != null)
                     injector.getInstance(mainClass);
 
-                final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("GovernatorStandaloneTerminator-%d").build());
+                final ExecutorService executor = Executors.newSingleThreadExecutor(executors.newThreadFactory("GovernatorStandaloneTerminator", false));
                 executor.execute(new Runnable() {
                         @Override
                         public void run() {
@@ -1,16 +1,5 @@
 package com.netflix.governator.lifecycle;
 
-import static org.objectweb.asm.Type.ARRAY;
-import static org.objectweb.asm.Type.BOOLEAN;
-import static org.objectweb.asm.Type.BYTE;
-import static org.objectweb.asm.Type.CHAR;
-import static org.objectweb.asm.Type.DOUBLE;
-import static org.objectweb.asm.Type.FLOAT;
-import static org.objectweb.asm.Type.INT;
-import static org.objectweb.asm.Type.LONG;
-import static org.objectweb.asm.Type.OBJECT;
-import static org.objectweb.asm.Type.SHORT;
-import static org.objectweb.asm.Type.getArgumentTypes;
 import static org.objectweb.asm.Type.getType;
 
 import java.lang.annotation.Annotation;
@@ -20,6 +9,7 @@ import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.objectweb.asm.AnnotationVisitor;
@@ -31,27 +21,30 @@ import org.objectweb.asm.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Finds the annotated class, fields, methods and constructors of a single class.  Only the names and
+ * descriptors of matches are recorded while visiting so that no classes are loaded during the scan.
+ * The reflective objects are looked up the first time they are asked for.
+ */
 public final class AnnotationFinder extends ClassVisitor {
 	private static Logger log = LoggerFactory.getLogger(AnnotationFinder.class);
 	
     private Set<Type> annotationTypes;
 
-    private Set<Class<?>> annotatedClasses = Collections.emptySet();
-    private Set<Method> annotatedMethods = new HashSet<>();
-    private Set<Constructor> annotatedConstructors = new HashSet<>();
-    private Set<Field> annotatedFields = new HashSet<>();
+    private boolean classAnnotated;
+    private final Set<MemberDescriptor> methodDescriptors = new LinkedHashSet<>();
+    private final Set<MemberDescriptor> constructorDescriptors = new LinkedHashSet<>();
+    private final Set<MemberDescriptor> fieldDescriptors = new LinkedHashSet<>();
+
+    private Set<Class<?>> annotatedClasses;
+    private Set<Method> annotatedMethods;
+    private Set<Constructor> annotatedConstructors;
+    private Set<Field> annotatedFields;
 
     private String className;
-    private Class<?> clazz;
     private ClassLoader classLoader;
 
-    private Class<?> selfClass() {
-        if (clazz == null)
-            clazz = classFromInternalName(className);
-        return clazz;
-    }
-
-    private Class<?> classFromInternalName(String name) {
+    static Class<?> classFromInternalName(String name, ClassLoader classLoader) {
         try {
             return Class.forName(name.replace('/', '.'), false, classLoader);
         }  catch (ClassNotFoundException e) {
@@ -59,6 +52,48 @@ public final class AnnotationFinder extends ClassVisitor {
         }
     }
 
+    /**
+     * @return the field or null if one of the classes it needs can't be loaded
+     */
+    static Field resolveField(MemberDescriptor field, ClassLoader classLoader) {
+        try {
+            return field.toField(classLoader);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Error visiting field " + field.getName() + " of class " + field.getOwner().replace('/', '.'), e);
+        } catch (NoClassDefFoundError e) {
+            log.info("Unable to scan field '{}' of class '{}' NoClassDefFoundError looking for '{}'", field.getName(), field.getOwner().replace('/', '.'), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the method or null if one of the classes it needs can't be loaded
+     */
+    static Method resolveMethod(MemberDescriptor method, ClassLoader classLoader) {
+        try {
+            return method.toMethod(classLoader);
+        } catch (NoClassDefFoundError e) {
+            log.info("Unable to scan method '{}' of '{}' NoClassDefFoundError looking for '{}'", method.getName(), method.getOwner().replace('/', '.'), e.getMessage());
+            return null;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the constructor or null if one of the classes it needs can't be loaded
+     */
+    static Constructor<?> resolveConstructor(MemberDescriptor constructor, ClassLoader classLoader) {
+        try {
+            return constructor.toConstructor(classLoader);
+        } catch (NoClassDefFoundError e) {
+            log.info("Unable to scan constructor of '{}' NoClassDefFoundError looking for '{}'", constructor.getOwner().replace('/', '.'), e.getMessage());
+            return null;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         className = name;
@@ -78,7 +113,7 @@ public final class AnnotationFinder extends ClassVisitor {
         Type type = getType(desc);
         for (Type annotationType : annotationTypes)  {
             if (annotationType.equals(type)) {
-                annotatedClasses = Collections.<Class<?>>singleton(selfClass());
+                classAnnotated = true;
                 break;
             }
         }
@@ -109,14 +144,8 @@ public final class AnnotationFinder extends ClassVisitor {
             Type type = getType(desc);
             for (Type annotationType : annotationTypes) {
                 if (annotationType.equals(type)) {
-                    try {
-                        annotatedFields.add(selfClass().getDeclaredField(name));
-                        break;
-                    } catch (NoSuchFieldException e) {
-                        throw new IllegalStateException("Error visiting field " + name + " of class " + selfClass().getName(), e);
-                    } catch (NoClassDefFoundError e) {
-                        log.info("Unable to scan field '{}' of class '{}'", name, selfClass().getName(), e.getMessage());
-                    }
+                    fieldDescriptors.add(new MemberDescriptor(className, name, null));
+                    break;
                 }
             }
 
@@ -139,55 +168,11 @@ public final class AnnotationFinder extends ClassVisitor {
             Type type = getType(desc);
             for (Type annotationType : annotationTypes) {
                 if (annotationType.equals(type)) {
-                    Type[] args = methodDesc == null 
-                            ? new Type[0]
-                            : getArgumentTypes(methodDesc);
-                    Class[] argClasses = new Class[args.length];
-                    for (int i = 0; i < args.length; i++) {
-                        switch (args[i].getSort()) {
-                        case OBJECT:
-                        case ARRAY:
-                            argClasses[i] = classFromInternalName(args[i].getInternalName());
-                            break;
-                        case BOOLEAN:
-                            argClasses[i] = boolean.class;
-                            break;
-                        case BYTE:
-                            argClasses[i] = byte.class;
-                            break;
-                        case CHAR:
-                            argClasses[i] = char.class;
-                            break;
-                        case DOUBLE:
-                            argClasses[i] = double.class;
-                            break;
-                        case FLOAT:
-                            argClasses[i] = float.class;
-                            break;
-                        case INT:
-                            argClasses[i] = int.class;
-                            break;
-                        case LONG:
-                            argClasses[i] = long.class;
-                            break;
-                        case SHORT:
-                            argClasses[i] = short.class;
-                            break;
-                        }
-                    }
-
-                    try {
-                        if ("<init>".equals(name))
-                            annotatedConstructors.add(selfClass()
-                                    .getDeclaredConstructor(argClasses));
-                        else
-                            annotatedMethods.add(selfClass().getDeclaredMethod(
-                                    name, argClasses));
-                    } catch (NoClassDefFoundError e) {
-                    	log.info("Unable to scan constructor of '{}' NoClassDefFoundError looking for '{}'", selfClass().getName(), e.getMessage());
-                    } catch (NoSuchMethodException e) {
-                        throw new IllegalStateException(e);
-                    }
+                    MemberDescriptor method = new MemberDescriptor(className, name, methodDesc);
+                    if ("<init>".equals(name))
+                        constructorDescriptors.add(method);
+                    else
+                        methodDescriptors.add(method);
 
                     break;
                 }
@@ -197,23 +182,81 @@ public final class AnnotationFinder extends ClassVisitor {
         }
     }
 
+    /**
+     * @return true if the class or any of its members has a matching annotation
+     */
+    boolean hasMatches() {
+        return classAnnotated || !methodDescriptors.isEmpty() || !constructorDescriptors.isEmpty() || !fieldDescriptors.isEmpty();
+    }
+
+    /**
+     * @return internal name of the visited class if it has a matching class annotation, otherwise null
+     */
+    String getAnnotatedClassName() {
+        return classAnnotated ? className : null;
+    }
+
+    Set<MemberDescriptor> getMethodDescriptors() {
+        return methodDescriptors;
+    }
+
+    Set<MemberDescriptor> getConstructorDescriptors() {
+        return constructorDescriptors;
+    }
+
+    Set<MemberDescriptor> getFieldDescriptors() {
+        return fieldDescriptors;
+    }
+
     /**
      * @return a 0 or 1 element Set, depending on whether the class being
      *         visited has a matching class annotation
      */
     public Set<Class<?>> getAnnotatedClasses() {
+        if (annotatedClasses == null) {
+            annotatedClasses = classAnnotated
+                    ? Collections.<Class<?>>singleton(classFromInternalName(className, classLoader))
+                    : Collections.<Class<?>>emptySet();
+        }
         return annotatedClasses;
     }
 
     public Set<Method> getAnnotatedMethods() {
+        if (annotatedMethods == null) {
+            Set<Method> methods = new LinkedHashSet<>();
+            for (MemberDescriptor method : methodDescriptors) {
+                Method resolved = resolveMethod(method, classLoader);
+                if (resolved != null)
+                    methods.add(resolved);
+            }
+            annotatedMethods = methods;
+        }
         return annotatedMethods;
     }
 
     public Set<Constructor> getAnnotatedConstructors() {
+        if (annotatedConstructors == null) {
+            Set<Constructor> constructors = new LinkedHashSet<>();
+            for (MemberDescriptor constructor : constructorDescriptors) {
+                Constructor<?> resolved = resolveConstructor(constructor, classLoader);
+                if (resolved != null)
+                    constructors.add(resolved);
+            }
+            annotatedConstructors = constructors;
+        }
         return annotatedConstructors;
     }
 
     public Set<Field> getAnnotatedFields() {
+        if (annotatedFields == null) {
+            Set<Field> fields = new LinkedHashSet<>();
+            for (MemberDescriptor field : fieldDescriptors) {
+                Field resolved = resolveField(field, classLoader);
+                if (resolved != null)
+                    fields.add(resolved);
+            }
+            annotatedFields = fields;
+        }
         return annotatedFields;
     }
 }
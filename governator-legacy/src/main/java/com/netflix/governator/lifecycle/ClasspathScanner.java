@@ -19,16 +19,24 @@ package com.netflix.governator.lifecycle;
 import static org.objectweb.asm.ClassReader.SKIP_CODE;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.netflix.governator.internal.scanner.ClasspathUrlDecoder;
+import com.netflix.governator.internal.scanner.AnnotationIndex;
+import com.netflix.governator.internal.scanner.ClassSources;
 import com.netflix.governator.internal.scanner.DirectoryClassFilter;
+import com.netflix.governator.internal.scanner.ScanCache;
+import com.netflix.governator.spi.ClassSource;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -36,21 +44,27 @@ import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Utility to find annotated classes
+ * Utility to find annotated classes.  Only the names and descriptors of matches are recorded while
+ * scanning; classes and reflective objects are looked up the first time each getter is called.
  */
 public class ClasspathScanner {
     private static final Logger log = LoggerFactory.getLogger(ClasspathScanner.class);
     protected final ClassLoader classLoader;
+    private final AnnotationIndex annotationIndex;
+    private final int parallelism;
+    private final ScanCache scanCache;
     
-    private final Set<Class<?>> classes;
-    private final Set<Constructor> constructors;
-    private final Set<Method> methods;
-    private final Set<Field> fields;
+    private final Supplier<Set<Class<?>>> classes;
+    private final Supplier<Set<Constructor>> constructors;
+    private final Supplier<Set<Method>> methods;
+    private final Supplier<Set<Field>> fields;
 
     /**
      * @param basePackages list of packages to search (recursively)
@@ -66,23 +80,107 @@ public class ClasspathScanner {
      * @param classLoader ClassLoader containing the classes to be scanned
      */
     public ClasspathScanner(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, final ClassLoader classLoader)  {
+        this(basePackages, annotations, classLoader, false);
+    }
+
+    /**
+     * @param basePackages list of packages to search (recursively)
+     * @param annotations class annotations to search for
+     * @param classLoader ClassLoader containing the classes to be scanned
+     * @param useAnnotationIndex if true only the classes listed in the indexes written by 
+     *        governator-annotation-processor are scanned for jars and directories that have an index
+     *        covering all of the annotations
+     */
+    public ClasspathScanner(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, final ClassLoader classLoader, boolean useAnnotationIndex)  {
+        this(basePackages, annotations, classLoader, useAnnotationIndex, 1);
+    }
+
+    /**
+     * @param basePackages list of packages to search (recursively)
+     * @param annotations class annotations to search for
+     * @param classLoader ClassLoader containing the classes to be scanned
+     * @param useAnnotationIndex if true only the classes listed in the indexes written by 
+     *        governator-annotation-processor are scanned for jars and directories that have an index
+     *        covering all of the annotations
+     * @param parallelism maximum number of threads used to scan jars and directories concurrently.
+     *        1 scans on the calling thread.  Results are the same, in the same order, regardless
+     *        of parallelism.  The classLoader should be parallel capable for this to help.
+     */
+    public ClasspathScanner(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, final ClassLoader classLoader, boolean useAnnotationIndex, int parallelism)  {
+        this(basePackages, annotations, classLoader, useAnnotationIndex, parallelism, null);
+    }
+
+    /**
+     * @param basePackages list of packages to search (recursively)
+     * @param annotations class annotations to search for
+     * @param classLoader ClassLoader containing the classes to be scanned
+     * @param useAnnotationIndex if true only the classes listed in the indexes written by 
+     *        governator-annotation-processor are scanned for jars and directories that have an index
+     *        covering all of the annotations
+     * @param parallelism maximum number of threads used to scan jars and directories concurrently.
+     *        1 scans on the calling thread.  Results are the same, in the same order, regardless
+     *        of parallelism.  The classLoader should be parallel capable for this to help.
+     * @param scanCacheDirectory if not null the classes found in each jar are cached in this directory
+     *        so that later scans of an unchanged jar only read the bytecode of those classes
+     */
+    public ClasspathScanner(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, final ClassLoader classLoader, boolean useAnnotationIndex, int parallelism, File scanCacheDirectory)  {
         Preconditions.checkNotNull(annotations, "annotations cannot be null");
         Preconditions.checkNotNull(classLoader, "classLoader cannot be null");
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be > 0");
 
         log.debug("Starting classpath scanning...");
         this.classLoader = classLoader;
+        this.parallelism = parallelism;
+        this.annotationIndex = useAnnotationIndex ? AnnotationIndex.load(classLoader) : null;
+        this.scanCache = scanCacheDirectory != null ? new ScanCache(scanCacheDirectory) : null;
 
-        Set<Class<?>>       localClasses = Sets.newHashSet();
-        Set<Constructor>    localConstructors = Sets.newHashSet();
-        Set<Method>         localMethods = Sets.newHashSet();
-        Set<Field>          localFields = Sets.newHashSet();
+        if ( overridesDoScanning(getClass()) ) {
+            // Subclasses customising the scan get the old behaviour of resolving matches up front
+            Set<Class<?>>       localClasses = Sets.newLinkedHashSet();
+            Set<Constructor>    localConstructors = Sets.newLinkedHashSet();
+            Set<Method>         localMethods = Sets.newLinkedHashSet();
+            Set<Field>          localFields = Sets.newLinkedHashSet();
 
-        doScanning(basePackages, annotations, localClasses, localConstructors, localMethods, localFields);
+            doScanning(basePackages, annotations, localClasses, localConstructors, localMethods, localFields);
+
+            classes = Suppliers.<Set<Class<?>>>ofInstance(ImmutableSet.copyOf(localClasses));
+            constructors = Suppliers.<Set<Constructor>>ofInstance(ImmutableSet.copyOf(localConstructors));
+            methods = Suppliers.<Set<Method>>ofInstance(ImmutableSet.copyOf(localMethods));
+            fields = Suppliers.<Set<Field>>ofInstance(ImmutableSet.copyOf(localFields));
+        }
+        else {
+            final Set<String>           localClasses = Sets.newLinkedHashSet();
+            final Set<MemberDescriptor> localConstructors = Sets.newLinkedHashSet();
+            final Set<MemberDescriptor> localMethods = Sets.newLinkedHashSet();
+            final Set<MemberDescriptor> localFields = Sets.newLinkedHashSet();
 
-        classes = ImmutableSet.copyOf(localClasses);
-        constructors = ImmutableSet.copyOf(localConstructors);
-        methods = ImmutableSet.copyOf(localMethods);
-        fields = ImmutableSet.copyOf(localFields);
+            scan(basePackages, annotations, localClasses, localConstructors, localMethods, localFields);
+
+            classes = Suppliers.memoize(new Supplier<Set<Class<?>>>() {
+                @Override
+                public Set<Class<?>> get() {
+                    return resolveClasses(localClasses);
+                }
+            });
+            constructors = Suppliers.memoize(new Supplier<Set<Constructor>>() {
+                @Override
+                public Set<Constructor> get() {
+                    return resolveConstructors(localConstructors);
+                }
+            });
+            methods = Suppliers.memoize(new Supplier<Set<Method>>() {
+                @Override
+                public Set<Method> get() {
+                    return resolveMethods(localMethods);
+                }
+            });
+            fields = Suppliers.memoize(new Supplier<Set<Field>>() {
+                @Override
+                public Set<Field> get() {
+                    return resolveFields(localFields);
+                }
+            });
+        }
 
         log.debug("Classpath scanning done");
     }
@@ -91,124 +189,300 @@ public class ClasspathScanner {
      * @return the found classes
      */
     public Set<Class<?>> getClasses() {
-        return classes;
+        return classes.get();
     }
 
     public Set<Constructor> getConstructors() {
-        return constructors;
+        return constructors.get();
     }
 
     public Set<Method> getMethods() {
-        return methods;
+        return methods.get();
     }
 
     public Set<Field> getFields() {
-        return fields;
+        return fields.get();
     }
 
+    /**
+     * Scan the packages and add the matching classes and members to the given sets.  Each call
+     * scans the packages again.  The constructor only calls this method if a subclass overrides it,
+     * in which case the matches are resolved while scanning instead of when a getter is first called.
+     *
+     * @deprecated Use the getters of a ClasspathScanner created for the packages and annotations
+     */
+    @Deprecated
     protected void doScanning(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, Set<Class<?>> localClasses, Set<Constructor> localConstructors, Set<Method> localMethods, Set<Field> localFields) {
+        Set<String>           classNames = Sets.newLinkedHashSet();
+        Set<MemberDescriptor> constructorDescriptors = Sets.newLinkedHashSet();
+        Set<MemberDescriptor> methodDescriptors = Sets.newLinkedHashSet();
+        Set<MemberDescriptor> fieldDescriptors = Sets.newLinkedHashSet();
+
+        scan(basePackages, annotations, classNames, constructorDescriptors, methodDescriptors, fieldDescriptors);
+
+        localClasses.addAll(resolveClasses(classNames));
+        localConstructors.addAll(resolveConstructors(constructorDescriptors));
+        localMethods.addAll(resolveMethods(methodDescriptors));
+        localFields.addAll(resolveFields(fieldDescriptors));
+    }
+
+    private static boolean overridesDoScanning(Class<?> type) {
+        for ( Class<?> cls = type; cls != ClasspathScanner.class; cls = cls.getSuperclass() ) {
+            try {
+                cls.getDeclaredMethod("doScanning", Collection.class, Collection.class, Set.class, Set.class, Set.class, Set.class);
+                return true;
+            }
+            catch ( NoSuchMethodException e ) {
+                // Check the superclass
+            }
+        }
+        return false;
+    }
+
+    private Set<Class<?>> resolveClasses(Set<String> localClasses) {
+        ImmutableSet.Builder<Class<?>> builder = ImmutableSet.builder();
+        for ( String className : localClasses ) {
+            try {
+                builder.add(AnnotationFinder.classFromInternalName(className, classLoader));
+            }
+            catch ( RuntimeException e ) {
+                log.debug("Unable to resolve class '{}'. {}", className.replace('/', '.'), e.getMessage());
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<Constructor> resolveConstructors(Set<MemberDescriptor> localConstructors) {
+        ImmutableSet.Builder<Constructor> builder = ImmutableSet.builder();
+        for ( MemberDescriptor ctor : localConstructors ) {
+            try {
+                Constructor<?> resolved = AnnotationFinder.resolveConstructor(ctor, classLoader);
+                if ( resolved != null ) {
+                    builder.add(resolved);
+                }
+            }
+            catch ( RuntimeException e ) {
+                log.debug("Unable to resolve constructor '{}'. {}", ctor, e.getMessage());
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<Method> resolveMethods(Set<MemberDescriptor> localMethods) {
+        ImmutableSet.Builder<Method> builder = ImmutableSet.builder();
+        for ( MemberDescriptor method : localMethods ) {
+            try {
+                Method resolved = AnnotationFinder.resolveMethod(method, classLoader);
+                if ( resolved != null ) {
+                    builder.add(resolved);
+                }
+            }
+            catch ( RuntimeException e ) {
+                log.debug("Unable to resolve method '{}'. {}", method, e.getMessage());
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<Field> resolveFields(Set<MemberDescriptor> localFields) {
+        ImmutableSet.Builder<Field> builder = ImmutableSet.builder();
+        for ( MemberDescriptor field : localFields ) {
+            try {
+                Field resolved = AnnotationFinder.resolveField(field, classLoader);
+                if ( resolved != null ) {
+                    builder.add(resolved);
+                }
+            }
+            catch ( RuntimeException e ) {
+                log.debug("Unable to resolve field '{}'. {}", field, e.getMessage());
+            }
+        }
+        return builder.build();
+    }
+
+    private void scan(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, Set<String> localClasses, Set<MemberDescriptor> localConstructors, Set<MemberDescriptor> localMethods, Set<MemberDescriptor> localFields) {
         if ( basePackages.isEmpty() ) {
             log.warn("No base packages specified - no classpath scanning will be done");
             return;
         }
         log.info("Scanning packages : " + basePackages + " for annotations " + annotations);
         
+        Set<String> annotationNames = Sets.newHashSet();
+        for ( Class<? extends Annotation> annotation : annotations ) {
+            annotationNames.add(annotation.getName());
+        }
+        
+        final List<UrlScanTask> tasks = Lists.newArrayList();
         for ( String basePackage : basePackages )  {
             try {
             	String basePackageWithSlashes = basePackage.replace(".", "/");
             	Enumeration<URL> resources = classLoader.getResources(basePackageWithSlashes);
                 while ( resources.hasMoreElements() ) {
-                    URL url = resources.nextElement();
-                    try {
-                        if ( isJarURL(url)) {
-                            String jarPath = url.getFile();
-                            if ( jarPath.contains("!") ) {
-                                jarPath = jarPath.substring(0, jarPath.indexOf("!"));
-                                url = new URL(jarPath);
-                            }
-                            File file = ClasspathUrlDecoder.toFile(url);
-                            try (JarFile jar = new JarFile(file)) {
-                                for ( Enumeration<JarEntry> list = jar.entries(); list.hasMoreElements(); ) {
-                                    JarEntry entry = list.nextElement();
-                                    try {
-                                        if ( entry.getName().endsWith(".class") && entry.getName().startsWith(basePackageWithSlashes)) {
-                                            AnnotationFinder finder = new AnnotationFinder(classLoader, annotations);
-                                            new ClassReader(jar.getInputStream(entry)).accept(finder, SKIP_CODE);
+                    tasks.add(new UrlScanTask(basePackage, resources.nextElement(), annotations, annotationNames));
+                }
+            }
+            catch ( Exception e ) {
+                throw new RuntimeException("Classpath scanning failed for package \'" + basePackage + "\'", e);
+            }
+        }
         
-                                            applyFinderResults(localClasses, localConstructors, localMethods, localFields, finder);
-                                        }
-                                    }
-                                    catch (Exception e) {
-                                        log.debug("Unable to scan JarEntry '{}' in '{}'. {}", new Object[]{entry.getName(), file.getCanonicalPath(), e.getMessage()});
+        if ( parallelism > 1 && tasks.size() > 1 ) {
+            ForkJoinPool pool = GovernatorExecutors.platform().newForkJoinPool("governator-classpath-scanner", Math.min(parallelism, tasks.size()));
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+        else {
+            for ( UrlScanTask task : tasks ) {
+                task.invoke();
+            }
+        }
+        
+        // Merge in the order of the packages and urls so results don't depend on scheduling
+        for ( UrlScanTask task : tasks ) {
+            for ( AnnotationFinder finder : task.finders ) {
+                applyFinderResults(localClasses, localConstructors, localMethods, localFields, finder);
+            }
+        }
+    }
+    
+    /**
+     * Scans a single jar or directory for a base package.  Results are buffered in the task and 
+     * merged once all tasks have completed.
+     */
+    private class UrlScanTask extends RecursiveAction {
+        private final String basePackage;
+        private final URL url;
+        private final Collection<Class<? extends Annotation>> annotations;
+        private final Set<String> annotationNames;
+        private final List<AnnotationFinder> finders = Lists.newArrayList();
+
+        UrlScanTask(String basePackage, URL url, Collection<Class<? extends Annotation>> annotations, Set<String> annotationNames) {
+            this.basePackage = basePackage;
+            this.url = url;
+            this.annotations = annotations;
+            this.annotationNames = annotationNames;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                Collection<String> indexed = annotationIndex != null ? annotationIndex.getClasses(url, basePackage, annotationNames) : null;
+                if ( indexed != null ) {
+                    log.debug("Using annotation index for '{}'", url);
+                    DirectoryClassFilter filter = new DirectoryClassFilter(classLoader);
+                    for ( String className : indexed ) {
+                        AnnotationFinder finder = new AnnotationFinder(classLoader, annotations);
+                        try (InputStream is = filter.bytecodeOf(className)) {
+                            new ClassReader(is).accept(finder, SKIP_CODE);
+                        }
+                        collect(finder);
+                    }
+                }
+                else {
+                    final ClassSource source = ClassSources.forUrl(url, basePackage);
+                    File archive = source.getArchive();
+                    ScanCache.Lookup lookup = scanCache != null && archive != null ? scanCache.lookup(archive, cacheQuery(source.getArchivePath())) : null;
+                    final Set<String> cached = lookup != null && lookup.getClassNames() != null ? Sets.newHashSet(lookup.getClassNames()) : null;
+                    final List<String> matched = Lists.newArrayList();
+                    // Only a scan that read every class is cached, otherwise classes that failed
+                    // would be skipped by every later scan of the jar
+                    final AtomicBoolean complete = new AtomicBoolean(true);
+                    try {
+                        source.forEachClass(new ClassSource.ClassConsumer() {
+                            @Override
+                            public void accept(String className, ClassSource.BytecodeSource bytecode) {
+                                if ( cached != null && !cached.contains(className) ) {
+                                    return;
+                                }
+                                try (InputStream is = bytecode.open()) {
+                                    AnnotationFinder finder = new AnnotationFinder(classLoader, annotations);
+                                    new ClassReader(is).accept(finder, SKIP_CODE);
+
+                                    if ( collect(finder) ) {
+                                        matched.add(className);
                                     }
                                 }
+                                catch (Exception e) {
+                                    complete.set(false);
+                                    log.debug("Unable to scan class '{}' in '{}'. {}", new Object[]{className, source, e.getMessage()});
+                                }
                             }
-                            catch (Exception e ) {
-                                log.debug("Unable to scan '{}'. {}", new Object[]{file.getCanonicalPath(), e.getMessage()});
-                            }
-                        }
-                        else {
-                            DirectoryClassFilter filter = new DirectoryClassFilter(classLoader);
-                            for ( String className : filter.filesInPackage(url, basePackage) ) {
-                                AnnotationFinder finder = new AnnotationFinder(classLoader, annotations);
-                                new ClassReader(filter.bytecodeOf(className)).accept(finder, SKIP_CODE);
-    
-                                applyFinderResults(localClasses, localConstructors, localMethods, localFields, finder);
-                            }
-                        }
+                        });
                     }
-                    catch (Exception e) {
-                        log.debug("Unable to scan jar '{}'. {} ", new Object[]{url, e.getMessage()});
+                    catch (Exception e ) {
+                        complete.set(false);
+                        log.debug("Unable to scan '{}'. {}", new Object[]{source, e.getMessage()});
+                    }
+                    if ( lookup != null && cached == null && complete.get() ) {
+                        lookup.store(matched);
                     }
                 }
             }
-            catch ( Exception e ) {
-                throw new RuntimeException("Classpath scanning failed for package \'" + basePackage + "\'", e);
+            catch (Exception e) {
+                log.debug("Unable to scan jar '{}'. {} ", new Object[]{url, e.getMessage()});
             }
         }
+
+        private boolean collect(AnnotationFinder finder) {
+            // Most classes have no matches so don't hold on to their finders until the merge
+            if ( finder.hasMatches() ) {
+                finders.add(finder);
+                return true;
+            }
+            return false;
+        }
+
+        private String cacheQuery(String archivePath) {
+            return ClasspathScanner.class.getName() + ":" + basePackage + ":" + Sets.newTreeSet(annotationNames)
+                    + (archivePath.isEmpty() ? "" : ":" + archivePath);
+        }
     }
     
-    private void applyFinderResults(Set<Class<?>> localClasses, Set<Constructor> localConstructors, Set<Method> localMethods, Set<Field> localFields, AnnotationFinder finder) {
-        for (Class<?> cls : finder.getAnnotatedClasses()) {
-            if (localClasses.contains(cls)) {
-                log.debug(String.format("Duplicate class found for '%s'", cls.getCanonicalName()));
+    private void applyFinderResults(Set<String> localClasses, Set<MemberDescriptor> localConstructors, Set<MemberDescriptor> localMethods, Set<MemberDescriptor> localFields, AnnotationFinder finder) {
+        String className = finder.getAnnotatedClassName();
+        if ( className != null ) {
+            if ( localClasses.contains(className) ) {
+                log.debug(String.format("Duplicate class found for '%s'", className.replace('/', '.')));
             }
             else {
-                localClasses.add(cls);
+                localClasses.add(className);
             }
         }
         
-        for (Method method : finder.getAnnotatedMethods()) {
+        for (MemberDescriptor method : finder.getMethodDescriptors()) {
             if (localMethods.contains(method)) {
-                log.debug(String.format("Duplicate method found for '%s:%s'", method.getClass().getCanonicalName(), method.getName()));
+                log.debug(String.format("Duplicate method found for '%s'", method));
             }
             else {
                 localMethods.add(method);
             }
         }
         
-        for (Constructor<?> ctor : finder.getAnnotatedConstructors()) {
+        for (MemberDescriptor ctor : finder.getConstructorDescriptors()) {
             if (localConstructors.contains(ctor)) {
-                log.debug(String.format("Duplicate constructor found for '%s:%s'", ctor.getClass().getCanonicalName(), ctor.toString()));
+                log.debug(String.format("Duplicate constructor found for '%s'", ctor));
             }
             else {
                 localConstructors.add(ctor);
             }
         }
         
-        for (Field field : finder.getAnnotatedFields()) {
+        for (MemberDescriptor field : finder.getFieldDescriptors()) {
             if (localFields.contains(field)) {
-                log.debug(String.format("Duplicate field found for '%s:%s'", field.getClass().getCanonicalName(), field.toString()));
+                log.debug(String.format("Duplicate field found for '%s'", field));
             }
             else {
                 localFields.add(field);
             }
         }
     }
-
-    private boolean isJarURL(URL url) {
-        String protocol = url.getProtocol();
-        return "zip".equals(protocol) || "jar".equals(protocol) ||
-                ("file".equals(protocol) && url.getPath().endsWith(".jar"));
-    }
 }
@@ -22,11 +22,17 @@ import static com.netflix.governator.internal.BinaryConstant.I16_65536;
 
 import java.io.Closeable;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -36,11 +42,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.MapMaker;
 import com.google.inject.Binding;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Singleton;
 import com.netflix.governator.LifecycleAction;
 import com.netflix.governator.annotations.PreConfiguration;
@@ -50,9 +58,12 @@ import com.netflix.governator.configuration.ConfigurationDocumentation;
 import com.netflix.governator.configuration.ConfigurationMapper;
 import com.netflix.governator.configuration.ConfigurationProvider;
 import com.netflix.governator.guice.PostInjectorAction;
+import com.netflix.governator.internal.BindingDependencies;
 import com.netflix.governator.internal.JSR250LifecycleAction.ValidationMode;
 import com.netflix.governator.internal.PreDestroyLifecycleFeature;
 import com.netflix.governator.internal.PreDestroyMonitor;
+import com.netflix.governator.internal.TaskGraph;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 /**
  * Main instance management container
@@ -65,6 +76,7 @@ public class LifecycleManager implements Closeable, PostInjectorAction
         LATENT,
         STARTING,
         STARTED,
+        FAILED,
         CLOSED
     }
 
@@ -81,6 +93,12 @@ public class LifecycleManager implements Closeable, PostInjectorAction
     final LifecycleListener[] listeners;
     private final PreDestroyMonitor preDestroyMonitor;
     private com.netflix.governator.LifecycleManager newLifecycleManager;
+    private final int warmUpThreads;
+    private final GovernatorExecutors executors;
+    private final Object warmUpLock = new Object();
+    // Instances whose @WarmUp methods will be run by start().  Null once start() has taken them.
+    private List<WarmUpTarget> pendingWarmUps = new ArrayList<WarmUpTarget>();
+    private volatile Injector injector;
 
     public LifecycleManager()
     {
@@ -95,6 +113,7 @@ public class LifecycleManager implements Closeable, PostInjectorAction
     @Inject
     public LifecycleManager(LifecycleManagerArguments arguments, Injector injector)
     {
+        this.injector = injector;
         if (injector != null) {
             preDestroyMonitor =  new PreDestroyMonitor(injector.getScopeBindings());
         }
@@ -107,6 +126,8 @@ public class LifecycleManager implements Closeable, PostInjectorAction
         resourceMapper = new ResourceMapper(injector, ImmutableSet.copyOf(arguments.getResourceLocators()));
         configurationDocumentation = arguments.getConfigurationDocumentation();
         configurationProvider = arguments.getConfigurationProvider();
+        warmUpThreads = arguments.getWarmUpThreads();
+        executors = arguments.getExecutors();
     }
 
     /**
@@ -222,29 +243,171 @@ public class LifecycleManager implements Closeable, PostInjectorAction
      */
     public void start() throws Exception
     {
-        Preconditions.checkState(state.compareAndSet(State.LATENT, State.STARTING), "Already started");
-
-        new ConfigurationColumnWriter(configurationDocumentation).output(log);
-        if (newLifecycleManager != null) {
-            newLifecycleManager.notifyStarted();
-        }
-        state.set(State.STARTED);    
+        start(0, TimeUnit.MILLISECONDS);
     }
 
     /**
      * The manager MUST be started. This version of start() has a maximum
      * wait period for warm up methods.
      *
-     * @param maxWait maximum wait time for warm up methods - if the time elapses, the warm up methods are interrupted
+     * @param maxWait maximum wait time for warm up methods, or 0 to wait indefinitely - if the time elapses, the warm up methods are interrupted
      * @param unit    time unit
      * @return true if warm up methods successfully executed, false if the time elapses
      * @throws Exception errors
      */
-    @Deprecated
     public boolean start(long maxWait, TimeUnit unit) throws Exception
     {
-        start();
-        return true;
+        Preconditions.checkState(state.compareAndSet(State.LATENT, State.STARTING), "Already started");
+
+        new ConfigurationColumnWriter(configurationDocumentation).output(log);
+        final boolean warm;
+        try
+        {
+            warm = warmUp(maxWait, unit);
+        }
+        catch ( Throwable t )
+        {
+            state.set(State.FAILED);
+            if (newLifecycleManager != null) {
+                newLifecycleManager.notifyStartFailed(t);
+            }
+            throw t;
+        }
+        if (newLifecycleManager != null) {
+            newLifecycleManager.notifyStarted();
+        }
+        state.set(State.STARTED);
+        return warm;
+    }
+
+    /**
+     * Run the @WarmUp methods of all instances created before start() concurrently, each only after
+     * those of the instances it depends on, as determined by the injector's bindings.  The methods
+     * of a single instance are run one after the other.  A dependency cycle runs all methods one after
+     * the other, in the order the instances were created, still subject to maxWait.
+     *
+     * @return false if maxWait elapsed first, in which case running methods are interrupted
+     * @throws Exception the first failure of a @WarmUp method
+     */
+    private boolean warmUp(long maxWait, TimeUnit unit) throws Exception
+    {
+        final List<WarmUpTarget> targets;
+        synchronized (warmUpLock) {
+            targets = pendingWarmUps;
+            pendingWarmUps = null;
+        }
+        if ( targets == null || targets.isEmpty() )
+        {
+            return true;
+        }
+
+        TaskGraph graph = buildWarmUpGraph(targets, true);
+        if ( graph.hasCycle() )
+        {
+            log.warn("Dependency cycle detected between instances with @WarmUp methods.  Running {} warm up methods serially", graph.size());
+            graph = buildWarmUpGraph(targets, false);
+        }
+
+        final long start = System.nanoTime();
+        final int threads = Math.min(warmUpThreads, graph.size());
+        log.info("Running {} warm up methods of {} instances using {} threads", graph.size(), targets.size(), threads);
+        final ExecutorService executor = executors.newFixedThreadPool("governator-lifecycle-warm-up", threads);
+        final TaskGraph.Report report;
+        try
+        {
+            report = graph.execute(executor, 0, maxWait, unit, true);
+        }
+        finally
+        {
+            // Interrupts any warm up methods still running once the deadline has passed
+            executor.shutdownNow();
+        }
+
+        log.info("Warm up completed in {} ms.  {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), report);
+        if ( log.isDebugEnabled() )
+        {
+            List<TaskGraph.Task> byDuration = new ArrayList<TaskGraph.Task>(report.getTasks());
+            byDuration.sort(Comparator.comparingLong((TaskGraph.Task task) -> task.getDuration(TimeUnit.NANOSECONDS)).reversed());
+            for ( TaskGraph.Task task : byDuration )
+            {
+                log.debug("\t{} {} ms {}", task.getName(), task.getDuration(TimeUnit.MILLISECONDS), task.getState());
+            }
+        }
+
+        Throwable failure = null;
+        for ( TaskGraph.Task task : report.getFailed() )
+        {
+            if ( failure == null )
+            {
+                failure = task.getFailure();
+            }
+            else
+            {
+                failure.addSuppressed(task.getFailure());
+            }
+        }
+        if ( failure != null )
+        {
+            Throwables.propagateIfPossible(failure, Exception.class);
+            throw new RuntimeException(failure);
+        }
+        return !report.isTimedOut();
+    }
+
+    /**
+     * @param useDependencies if true the methods of an instance run after those of the instances it
+     *        depends on, otherwise the methods of all instances run one after the other
+     */
+    private TaskGraph buildWarmUpGraph(List<WarmUpTarget> targets, boolean useDependencies)
+    {
+        final TaskGraph graph = new TaskGraph();
+        final Map<Key<?>, List<WarmUpTarget>> targetsByKey = new LinkedHashMap<Key<?>, List<WarmUpTarget>>();
+        final Map<WarmUpTarget, TaskGraph.Task[]> tasks = new HashMap<WarmUpTarget, TaskGraph.Task[]>();
+        TaskGraph.Task[] previous = null;
+        for ( WarmUpTarget target : targets )
+        {
+            TaskGraph.Task[] methodTasks = target.addTo(graph);
+            tasks.put(target, methodTasks);
+            if ( !useDependencies )
+            {
+                if ( previous != null )
+                {
+                    graph.addOrdering(previous[previous.length - 1], methodTasks[0]);
+                }
+                previous = methodTasks;
+            }
+            else if ( target.binding != null )
+            {
+                List<WarmUpTarget> forKey = targetsByKey.get(target.binding.getKey());
+                if ( forKey == null )
+                {
+                    forKey = new ArrayList<WarmUpTarget>();
+                    targetsByKey.put(target.binding.getKey(), forKey);
+                }
+                forKey.add(target);
+            }
+        }
+
+        Injector currentInjector = injector;
+        if ( useDependencies && currentInjector != null )
+        {
+            BindingDependencies dependencies = new BindingDependencies(currentInjector);
+            for ( Map.Entry<Key<?>, List<WarmUpTarget>> entry : targetsByKey.entrySet() )
+            {
+                for ( Key<?> dependency : dependencies.find(entry.getKey(), targetsByKey.keySet()) )
+                {
+                    for ( WarmUpTarget before : targetsByKey.get(dependency) )
+                    {
+                        for ( WarmUpTarget after : entry.getValue() )
+                        {
+                            TaskGraph.Task[] beforeTasks = tasks.get(before);
+                            graph.addOrdering(beforeTasks[beforeTasks.length - 1], tasks.get(after)[0]);
+                        }
+                    }
+                }
+            }
+        }
+        return graph;
     }
 
     @SuppressWarnings("deprecation")
@@ -265,23 +428,13 @@ public class LifecycleManager implements Closeable, PostInjectorAction
         lifecycleState.set(obj, LifecycleState.POST_CONSTRUCTING);
         methods.methodInvoke(PostConstruct.class, obj);
         
-        Method[] warmUpMethods = methods.annotatedMethods(WarmUp.class);
-        if (warmUpMethods.length > 0) {
-            Method[] postConstructMethods = methods.annotatedMethods(PostConstruct.class);
-            for ( Method warmupMethod : warmUpMethods)
+        Method[] warmUpMethods = warmUpMethods(methods);
+        if ( warmUpMethods.length > 0 && !deferWarmUp(obj, binding, lifecycleState, warmUpMethods) )
+        {
+            for ( Method warmupMethod : warmUpMethods )
             {
-                boolean skipWarmup = false;
-                // assuming very few methods in both WarmUp and PostConstruct
-                for (Method postConstruct :  postConstructMethods) {
-                    if (postConstruct == warmupMethod) {
-                        skipWarmup = true;
-                        break;
-                    }
-                }
-                if (!skipWarmup) {
-                    log.debug("\t{}()", warmupMethod.getName());
-                    LifecycleMethods.methodInvoke(warmupMethod, obj);
-                }
+                log.debug("\t{}()", warmupMethod.getName());
+                LifecycleMethods.methodInvoke(warmupMethod, obj);
             }
         }
 
@@ -306,6 +459,120 @@ public class LifecycleManager implements Closeable, PostInjectorAction
 
     }
 
+    /**
+     * @return @WarmUp methods that aren't also @PostConstruct methods
+     */
+    private static Method[] warmUpMethods(LifecycleMethods methods)
+    {
+        Method[] warmUpMethods = methods.annotatedMethods(WarmUp.class);
+        if (warmUpMethods.length == 0) {
+            return warmUpMethods;
+        }
+        Method[] postConstructMethods = methods.annotatedMethods(PostConstruct.class);
+        List<Method> result = new ArrayList<Method>(warmUpMethods.length);
+        for ( Method warmupMethod : warmUpMethods)
+        {
+            boolean skipWarmup = false;
+            // assuming very few methods in both WarmUp and PostConstruct
+            for (Method postConstruct :  postConstructMethods) {
+                if (postConstruct == warmupMethod) {
+                    skipWarmup = true;
+                    break;
+                }
+            }
+            if (!skipWarmup) {
+                result.add(warmupMethod);
+            }
+        }
+        return result.toArray(new Method[result.size()]);
+    }
+
+    /**
+     * Keep the instance's @WarmUp methods to be run by start() when concurrent warm up is enabled
+     * and start() hasn't been called yet
+     *
+     * @return false if the methods should be run right away
+     */
+    private boolean deferWarmUp(Object obj, Binding<?> binding, LifecycleStateWrapper lifecycleState, Method[] warmUpMethods)
+    {
+        if ( warmUpThreads <= 0 )
+        {
+            return false;
+        }
+        synchronized (warmUpLock) {
+            if ( pendingWarmUps == null )
+            {
+                return false;
+            }
+            lifecycleState.set(obj, LifecycleState.PRE_WARMING_UP);
+            pendingWarmUps.add(new WarmUpTarget(obj, binding, lifecycleState, warmUpMethods));
+            return true;
+        }
+    }
+
+    /**
+     * Instance whose @WarmUp methods are run by start()
+     */
+    private static final class WarmUpTarget
+    {
+        final Object obj;
+        final Binding<?> binding;
+        final LifecycleStateWrapper lifecycleState;
+        final Method[] methods;
+
+        WarmUpTarget(Object obj, Binding<?> binding, LifecycleStateWrapper lifecycleState, Method[] methods)
+        {
+            this.obj = obj;
+            this.binding = binding;
+            this.lifecycleState = lifecycleState;
+            this.methods = methods;
+        }
+
+        /**
+         * Add a task per method, ordered one after the other
+         *
+         * @return The tasks in the order the methods are run
+         */
+        TaskGraph.Task[] addTo(TaskGraph graph)
+        {
+            TaskGraph.Task[] tasks = new TaskGraph.Task[methods.length];
+            for ( int i = 0; i < methods.length; i++ )
+            {
+                final int index = i;
+                tasks[i] = graph.add(obj.getClass().getName() + "." + methods[i].getName() + "()", () -> {
+                    invoke(index);
+                    return null;
+                });
+                if ( i > 0 )
+                {
+                    graph.addOrdering(tasks[i - 1], tasks[i]);
+                }
+            }
+            return tasks;
+        }
+
+        private void invoke(int index) throws Exception
+        {
+            if ( index == 0 )
+            {
+                lifecycleState.set(obj, LifecycleState.WARMING_UP);
+            }
+            try
+            {
+                LifecycleMethods.methodInvoke(methods[index], obj);
+            }
+            catch ( Exception e )
+            {
+                lifecycleState.set(obj, LifecycleState.ERROR);
+                throw e;
+            }
+            if ( index == methods.length - 1 )
+            {
+                lifecycleState.set(obj, LifecycleState.ACTIVE);
+            }
+        }
+    }
+
     class LifecycleStateWrapper {
         LifecycleState state;
 
@@ -333,7 +600,7 @@ public class LifecycleManager implements Closeable, PostInjectorAction
     @Override
     public synchronized void close()
     {
-        if ( state.compareAndSet(State.STARTING, State.CLOSED) || state.compareAndSet(State.STARTED, State.CLOSED) )
+        if ( state.compareAndSet(State.STARTING, State.CLOSED) || state.compareAndSet(State.STARTED, State.CLOSED) || state.compareAndSet(State.FAILED, State.CLOSED) )
         {
             try
             {
@@ -350,6 +617,9 @@ public class LifecycleManager implements Closeable, PostInjectorAction
             {
                 objectStates.clear();
                 preDestroyActionCache.clear();
+                synchronized (warmUpLock) {
+                    pendingWarmUps = null;
+                }
             }
         }
     }
@@ -362,6 +632,7 @@ public class LifecycleManager implements Closeable, PostInjectorAction
     
     @Override
     public void call(Injector injector) {
+        this.injector = injector;
         this.resourceMapper.setInjector(injector);
         this.preDestroyMonitor.addScopeBindings(injector.getScopeBindings());
     }
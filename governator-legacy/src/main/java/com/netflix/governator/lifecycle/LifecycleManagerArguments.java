@@ -26,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import com.netflix.governator.LifecycleManager;
 import com.netflix.governator.configuration.ConfigurationDocumentation;
 import com.netflix.governator.configuration.ConfigurationMapper;
 import com.netflix.governator.configuration.ConfigurationProvider;
+import com.netflix.governator.spi.GovernatorExecutors;
 
 public class LifecycleManagerArguments
 {
@@ -38,6 +40,12 @@ public class LifecycleManagerArguments
     @VisibleForTesting
     public static final long                DEFAULT_WARM_UP_PADDING_MS = TimeUnit.SECONDS.toMillis(3);
 
+    /**
+     * Name of an optional int constant for the number of threads used to run @WarmUp methods, e.g.
+     * {@code bindConstant().annotatedWith(Names.named(LifecycleManagerArguments.WARM_UP_THREADS)).to(4)}
+     */
+    public static final String              WARM_UP_THREADS = "governator.lifecycle.warmUpThreads";
+
     @Inject
     private ConfigurationProvider           configurationProvider;
     
@@ -56,6 +64,13 @@ public class LifecycleManagerArguments
     @Inject(optional = true)
     private Set<ResourceLocator>            resourceLocators = ImmutableSet.of();
 
+    @Inject(optional = true)
+    @Named(WARM_UP_THREADS)
+    private int                             warmUpThreads = 0;
+
+    @Inject(optional = true)
+    private GovernatorExecutors             executors = GovernatorExecutors.platform();
+
     @Inject
     public LifecycleManagerArguments(
             ConfigurationDocumentation configurationDocumentation,
@@ -119,6 +134,35 @@ public class LifecycleManagerArguments
         return configurationDocumentation;
     }
 
+    /**
+     * @return Number of threads used to run @WarmUp methods once the LifecycleManager is started or 
+     *  0 to run them as soon as each instance is post constructed
+     */
+    public int getWarmUpThreads() {
+        return warmUpThreads;
+    }
+
+    /**
+     * When greater than 0, @WarmUp methods of instances created before {@link com.netflix.governator.lifecycle.LifecycleManager#start()}
+     * are run concurrently by start(), on up to this many threads, after the @WarmUp methods of the 
+     * instances they depend on.  Instances created after start() are warmed up right away.  The
+     * default, 0, runs @WarmUp methods as soon as each instance is post constructed.
+     */
+    public void setWarmUpThreads(int warmUpThreads) {
+        this.warmUpThreads = warmUpThreads;
+    }
+
+    /**
+     * @return Creates the threads running @WarmUp methods
+     */
+    public GovernatorExecutors getExecutors() {
+        return executors;
+    }
+
+    public void setExecutors(GovernatorExecutors executors) {
+        this.executors = executors;
+    }
+
     public LifecycleManager getLifecycleManager() {
         return lifecycleManager;
     }
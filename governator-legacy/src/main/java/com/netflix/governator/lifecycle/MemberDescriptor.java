@@ -0,0 +1,121 @@
+package com.netflix.governator.lifecycle;
+
+import static org.objectweb.asm.Type.ARRAY;
+import static org.objectweb.asm.Type.BOOLEAN;
+import static org.objectweb.asm.Type.BYTE;
+import static org.objectweb.asm.Type.CHAR;
+import static org.objectweb.asm.Type.DOUBLE;
+import static org.objectweb.asm.Type.FLOAT;
+import static org.objectweb.asm.Type.INT;
+import static org.objectweb.asm.Type.LONG;
+import static org.objectweb.asm.Type.OBJECT;
+import static org.objectweb.asm.Type.SHORT;
+import static org.objectweb.asm.Type.getArgumentTypes;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.objectweb.asm.Type;
+
+/**
+ * Annotated field, method or constructor found by {@link AnnotationFinder}.  Only the owner's internal
+ * name, the member's name and its descriptor are kept so that the owner, the parameter types and the
+ * reflective object are only loaded once the member is actually needed.
+ */
+final class MemberDescriptor {
+    private final String owner;
+    private final String name;
+    private final String desc;
+
+    MemberDescriptor(String owner, String name, String desc) {
+        this.owner = owner;
+        this.name = name;
+        this.desc = desc;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getDesc() {
+        return desc;
+    }
+
+    Field toField(ClassLoader classLoader) throws NoSuchFieldException {
+        return AnnotationFinder.classFromInternalName(owner, classLoader).getDeclaredField(name);
+    }
+
+    Method toMethod(ClassLoader classLoader) throws NoSuchMethodException {
+        return AnnotationFinder.classFromInternalName(owner, classLoader).getDeclaredMethod(name, parameterTypes(classLoader));
+    }
+
+    Constructor<?> toConstructor(ClassLoader classLoader) throws NoSuchMethodException {
+        return AnnotationFinder.classFromInternalName(owner, classLoader).getDeclaredConstructor(parameterTypes(classLoader));
+    }
+
+    private Class<?>[] parameterTypes(ClassLoader classLoader) {
+        Type[] args = desc == null
+                ? new Type[0]
+                : getArgumentTypes(desc);
+        Class<?>[] argClasses = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i].getSort()) {
+            case OBJECT:
+            case ARRAY:
+                argClasses[i] = AnnotationFinder.classFromInternalName(args[i].getInternalName(), classLoader);
+                break;
+            case BOOLEAN:
+                argClasses[i] = boolean.class;
+                break;
+            case BYTE:
+                argClasses[i] = byte.class;
+                break;
+            case CHAR:
+                argClasses[i] = char.class;
+                break;
+            case DOUBLE:
+                argClasses[i] = double.class;
+                break;
+            case FLOAT:
+                argClasses[i] = float.class;
+                break;
+            case INT:
+                argClasses[i] = int.class;
+                break;
+            case LONG:
+                argClasses[i] = long.class;
+                break;
+            case SHORT:
+                argClasses[i] = short.class;
+                break;
+            }
+        }
+        return argClasses;
+    }
+
+    @Override
+    public int hashCode() {
+        return (owner.hashCode() * 31 + name.hashCode()) * 31 + (desc == null ? 0 : desc.hashCode());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof MemberDescriptor))
+            return false;
+        MemberDescriptor other = (MemberDescriptor) obj;
+        return owner.equals(other.owner) && name.equals(other.name)
+                && (desc == null ? other.desc == null : desc.equals(other.desc));
+    }
+
+    @Override
+    public String toString() {
+        return owner.replace('/', '.') + "." + name + (desc == null ? "" : desc);
+    }
+}
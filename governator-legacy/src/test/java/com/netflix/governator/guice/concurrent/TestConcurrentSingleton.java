@@ -2,6 +2,8 @@ package com.netflix.governator.guice.concurrent;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -21,6 +23,7 @@ import com.google.common.collect.Sets;
 import com.google.inject.AbstractModule;
 import com.google.inject.ImplementedBy;
 import com.google.inject.Injector;
+import com.google.inject.name.Names;
 import com.netflix.governator.annotations.NonConcurrent;
 import com.netflix.governator.guice.BootstrapBinder;
 import com.netflix.governator.guice.BootstrapModule;
@@ -149,6 +152,77 @@ public class TestConcurrentSingleton {
         }
     }
     
+    @FineGrainedLazySingleton
+    public static class DeepParent {
+        @Inject
+        DeepParent(MiddleA a, MiddleB b) {
+        }
+    }
+    
+    @FineGrainedLazySingleton
+    public static class MiddleA {
+        @Inject
+        MiddleA(SlowChild1 child1, SlowChild2 child2) {
+        }
+    }
+    
+    @FineGrainedLazySingleton
+    public static class MiddleB {
+        @Inject
+        MiddleB(SlowChild3Impl child3, NonConcurrentSingleton child4) {
+        }
+    }
+    
+    private static final CountDownLatch released = new CountDownLatch(1);
+    
+    @FineGrainedLazySingleton
+    public static class Handshake {
+        @Inject
+        Handshake(Waiter waiter, Releaser releaser) {
+        }
+    }
+    
+    @FineGrainedLazySingleton
+    public static class Waiter {
+        final boolean wasReleased;
+        
+        @Inject
+        Waiter() throws InterruptedException {
+            wasReleased = released.await(5, TimeUnit.SECONDS);
+        }
+    }
+    
+    @FineGrainedLazySingleton
+    public static class Releaser {
+        @Inject
+        Releaser() {
+            released.countDown();
+        }
+    }
+    
+    @Test
+    public void shouldNotStarveDependenciesOnBoundedPool() {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Injector injector = LifecycleInjector.builder()
+                    .withModules(new AbstractModule() {
+                        @Override
+                        protected void configure() {
+                            bind(ForkJoinPool.class).annotatedWith(Names.named(ConcurrentProviders.POOL)).toInstance(pool);
+                            bind(Handshake.class).toProvider(ConcurrentProviders.of(Handshake.class));
+                        }
+                    })
+                    .build().createInjector();
+            
+            injector.getInstance(Handshake.class);
+            // Waiter blocks the pool's only thread until Releaser is created on a compensating thread
+            Assert.assertTrue(injector.getInstance(Waiter.class).wasReleased);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+    
     @Test
     public void shouldInitInterfaceInParallel() {
         Injector injector = LifecycleInjector.builder()
@@ -182,4 +256,26 @@ public class TestConcurrentSingleton {
         Assert.assertEquals(getMainThreadId, recorder.getThreadId(NonConcurrentSingleton.class));
         
     }
+    
+    @Test
+    public void shouldInitNestedDependenciesInParallel() {
+        Injector injector = LifecycleInjector.builder()
+                .withModules(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(DeepParent.class).toProvider(ConcurrentProviders.of(DeepParent.class));
+                    }
+                })
+                .build().createInjector();
+        
+        injector.getInstance(DeepParent.class);
+        Recorder recorder = injector.getInstance(Recorder.class);
+        
+        // Each of the singletons two levels down is created in its own thread
+        Assert.assertEquals(4, recorder.getUniqueThreadCount());
+        Assert.assertEquals(1, recorder.getTypeCount(SlowChild1.class));
+        Assert.assertEquals(1, recorder.getTypeCount(SlowChild2.class));
+        Assert.assertEquals(1, recorder.getTypeCount(SlowChild3Impl.class));
+        Assert.assertEquals(1, recorder.getTypeCount(NonConcurrentSingleton.class));
+    }
 }
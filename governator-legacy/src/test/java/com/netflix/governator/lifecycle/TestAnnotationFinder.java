@@ -139,6 +139,37 @@ public class TestAnnotationFinder {
                 is(Matchers.<Class<?>>iterableWithSize(1)));
     }
 
+    @Test
+    public void testScanningDoesNotLoadClasses()
+    {
+        cp.compile(
+            "package governator.test;" +
+            "public class Missing {}",
+
+            "package governator.test;" +
+            "public class Foo {" +
+            "   @A Missing f1;" +
+            "   @A Foo(Missing p) {}" +
+            "   @A void m1(Missing p) {}" +
+            "}"
+        );
+
+        ClassLoader failing = new ClassLoader(null) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                throw new AssertionError("Loaded " + name);
+            }
+        };
+        Class<? extends Annotation> aClass = cp.loadClass(a);
+        AnnotationFinder finder = new AnnotationFinder(failing, Collections.<Class<? extends Annotation>>singletonList(aClass));
+        new ClassReader(cp.classBytes("governator.test.Foo")).accept(finder, SKIP_CODE);
+
+        assertThat(finder.hasMatches(), is(true));
+        assertThat(finder.getFieldDescriptors(), is(Matchers.<MemberDescriptor>iterableWithSize(1)));
+        assertThat(finder.getConstructorDescriptors(), is(Matchers.<MemberDescriptor>iterableWithSize(1)));
+        assertThat(finder.getMethodDescriptors(), is(Matchers.<MemberDescriptor>iterableWithSize(1)));
+    }
+
     private AnnotationFinder scan(String clazz, String annotation) {
         Class<? extends Annotation> aClass = cp.loadClass(annotation);
         AnnotationFinder finder = new AnnotationFinder(cp.getClassLoader(), Collections.<Class<? extends Annotation>>singletonList(aClass));
@@ -0,0 +1,163 @@
+package com.netflix.governator.lifecycle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestClasspathScanner {
+    JavaClasspath cp;
+    File jars;
+
+    @Before
+    public void before() throws IOException
+    {
+        cp = new JavaClasspath();
+        // Not in the JavaClasspath's directory as all files there are read as classes
+        jars = Files.createTempDirectory("jars").toFile();
+        cp.compile(
+                "package governator.test;" +
+                "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) public @interface A {}");
+
+        for (int i = 0; i < 8; i++)
+        {
+            cp.jar(new File(jars, "test" + i + ".jar"),
+                    "package governator.test.p" + i + "; @governator.test.A public class Foo" + i + " {}",
+                    "package governator.test.p" + i + "; public class Bar" + i + " { @governator.test.A public Bar" + i + "() {} @governator.test.A String field; @governator.test.A public void method() {} }",
+                    "package governator.test.p" + i + "; public class Baz" + i + " {}");
+        }
+    }
+
+    @After
+    public void after()
+    {
+        cp.cleanup();
+        for (File jar : jars.listFiles())
+            jar.delete();
+        jars.delete();
+    }
+
+    private List<String> scan(int parallelism)
+    {
+        return scan(parallelism, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> scan(int parallelism, File scanCacheDirectory)
+    {
+        Collection<Class<? extends Annotation>> annotations = Collections.<Class<? extends Annotation>>singleton(cp.<Annotation>loadClass("governator.test.A"));
+        ClasspathScanner scanner = new ClasspathScanner(Collections.singleton("governator.test"), annotations, cp.getClassLoader(), false, parallelism, scanCacheDirectory);
+
+        List<String> found = new ArrayList<>();
+        for (Class<?> cls : scanner.getClasses())
+            found.add(cls.getName());
+        for (Object member : scanner.getConstructors())
+            found.add(member.toString());
+        for (Object member : scanner.getMethods())
+            found.add(member.toString());
+        for (Object member : scanner.getFields())
+            found.add(member.toString());
+        return found;
+    }
+
+    @Test
+    public void testParallelScanMatchesSequentialScan()
+    {
+        List<String> sequential = scan(1);
+        Assert.assertEquals(32, sequential.size());
+        Assert.assertTrue(sequential.contains("governator.test.p7.Foo7"));
+        Assert.assertFalse(sequential.contains("governator.test.p7.Baz7"));
+
+        for (int i = 0; i < 5; i++)
+            Assert.assertEquals(sequential, scan(4));
+    }
+
+    @Test
+    @SuppressWarnings({"deprecation", "unchecked", "rawtypes"})
+    public void testDoScanningResolvesMatches()
+    {
+        Collection<Class<? extends Annotation>> annotations = Collections.<Class<? extends Annotation>>singleton(cp.<Annotation>loadClass("governator.test.A"));
+        ClasspathScanner scanner = new ClasspathScanner(Collections.<String>emptySet(), annotations, cp.getClassLoader());
+
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        Set<Constructor> constructors = new LinkedHashSet<>();
+        Set<Method> methods = new LinkedHashSet<>();
+        Set<Field> fields = new LinkedHashSet<>();
+        scanner.doScanning(Collections.singleton("governator.test"), annotations, classes, constructors, methods, fields);
+
+        List<String> found = new ArrayList<>();
+        for (Class<?> cls : classes)
+            found.add(cls.getName());
+        for (Object member : constructors)
+            found.add(member.toString());
+        for (Object member : methods)
+            found.add(member.toString());
+        for (Object member : fields)
+            found.add(member.toString());
+        Assert.assertEquals(scan(1), found);
+    }
+
+    @Test
+    @SuppressWarnings({"deprecation", "unchecked", "rawtypes"})
+    public void testOverriddenDoScanningIsUsed()
+    {
+        Collection<Class<? extends Annotation>> annotations = Collections.<Class<? extends Annotation>>singleton(cp.<Annotation>loadClass("governator.test.A"));
+        ClasspathScanner scanner = new ClasspathScanner(Collections.singleton("governator.test"), annotations, cp.getClassLoader())
+        {
+            @Override
+            protected void doScanning(Collection<String> basePackages, Collection<Class<? extends Annotation>> annotations, Set<Class<?>> localClasses, Set<Constructor> localConstructors, Set<Method> localMethods, Set<Field> localFields)
+            {
+                super.doScanning(basePackages, annotations, localClasses, localConstructors, localMethods, localFields);
+                localClasses.add(String.class);
+            }
+        };
+
+        Assert.assertTrue(scanner.getClasses().contains(String.class));
+        Assert.assertEquals(9, scanner.getClasses().size());
+        Assert.assertEquals(8, scanner.getMethods().size());
+    }
+
+    @Test
+    public void testFailedScanIsNotCached() throws IOException
+    {
+        File broken = new File(jars, "broken.jar");
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(broken)))
+        {
+            jos.putNextEntry(new JarEntry("governator/test/broken/Broken.class"));
+            jos.write(new byte[] {1, 2, 3, 4});
+        }
+        cp.jarByClass.put("governator/test/broken/Broken", broken);
+
+        File cache = Files.createTempDirectory("scan-cache").toFile();
+        try
+        {
+            Assert.assertEquals(scan(1), scan(1, cache));
+            Assert.assertEquals(scan(1), scan(1, cache));
+            // One entry for each of the jars that were scanned without errors
+            Assert.assertEquals(8, cache.listFiles().length);
+        }
+        finally
+        {
+            for (File entry : cache.listFiles())
+                entry.delete();
+            cache.delete();
+        }
+    }
+}
@@ -16,9 +16,12 @@
 
 package com.netflix.governator.lifecycle.warmup;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -27,11 +30,21 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Sets;
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Names;
+import com.netflix.governator.AbstractLifecycleListener;
 import com.netflix.governator.LifecycleInjectorBuilderProvider;
+import com.netflix.governator.annotations.WarmUp;
+import com.netflix.governator.guice.BootstrapBinder;
+import com.netflix.governator.guice.BootstrapModule;
 import com.netflix.governator.guice.LifecycleInjector;
 import com.netflix.governator.lifecycle.LifecycleManager;
+import com.netflix.governator.lifecycle.LifecycleManagerArguments;
+import com.netflix.governator.lifecycle.LifecycleState;
+import com.netflix.governator.spi.LifecycleListener;
 
 public class TestWarmUpManager extends LifecycleInjectorBuilderProvider {
     private static final Logger LOG = LoggerFactory.getLogger(TestWarmUpManager.class);
@@ -248,6 +261,129 @@ public class TestWarmUpManager extends LifecycleInjectorBuilderProvider {
         Assert.assertTrue(recorder.getRecordings().indexOf("B") >= 0);
     }
 
+    @Singleton
+    public static class Slow {
+        @WarmUp
+        public void warmUp() throws InterruptedException {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static BootstrapModule warmUpThreads(final int threads) {
+        return new BootstrapModule() {
+            @Override
+            public void configure(BootstrapBinder binder) {
+                binder.bindConstant().annotatedWith(Names.named(LifecycleManagerArguments.WARM_UP_THREADS)).to(threads);
+            }
+        };
+    }
+
+    @Test
+    public void testConcurrentDag3() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(Dag3.A.class);
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+        Recorder recorder = injector.getInstance(Recorder.class);
+        Assert.assertTrue(recorder.getRecordings().isEmpty());
+
+        Assert.assertTrue(manager.start(5, TimeUnit.SECONDS));
+
+        LOG.info("" + recorder.getRecordings());
+        assertSingleExecution(recorder);
+        assertOrdering(recorder, "A", "C");
+        assertOrdering(recorder, "C", "D");
+        assertOrdering(recorder, "A", "D");
+        assertOrdering(recorder, "B", "D");
+        Assert.assertEquals(LifecycleState.ACTIVE, manager.getState(injector.getInstance(Dag3.A.class)));
+    }
+
+    @Test
+    public void testConcurrentAfterStart() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(LifecycleManager.class).start();
+
+        injector.getInstance(Dag1.A.class);
+        Recorder recorder = injector.getInstance(Recorder.class);
+
+        assertSingleExecution(recorder);
+        assertOrdering(recorder, "A", "B");
+        assertOrdering(recorder, "A", "C");
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void testConcurrentErrors() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(WarmUpWithException.class);
+        injector.getInstance(LifecycleManager.class).start();
+    }
+
+    @Test
+    public void testConcurrentDeadline() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(Slow.class);
+
+        long start = System.nanoTime();
+        Assert.assertFalse(injector.getInstance(LifecycleManager.class).start(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testConcurrentErrorStopsListeners() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(WarmUpWithException.class);
+        final AtomicReference<Throwable> stopReason = new AtomicReference<Throwable>();
+        LifecycleListener listener = new AbstractLifecycleListener() {
+            @Override
+            public void onStopped(Throwable optionalFailureReason) {
+                stopReason.set(optionalFailureReason);
+            }
+        };
+        injector.getInstance(com.netflix.governator.LifecycleManager.class).addListener(listener);
+
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+        try {
+            manager.start();
+            Assert.fail("Expected the @WarmUp failure");
+        }
+        catch (InvocationTargetException e) {
+            Assert.assertSame(e, stopReason.get());
+        }
+        Assert.assertFalse(manager.hasStarted());
+        manager.close();
+    }
+
+    @Singleton
+    public static class SlowCycleA {
+        @Inject
+        SlowCycleB b;
+
+        @WarmUp
+        public void warmUp() throws InterruptedException {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Singleton
+    public static class SlowCycleB {
+        @Inject
+        SlowCycleA a;
+
+        @WarmUp
+        public void warmUp() throws InterruptedException {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    public void testConcurrentDeadlineWithCycle() throws Exception {
+        Injector injector = LifecycleInjector.builder().withBootstrapModule(warmUpThreads(4)).build().createInjector();
+        injector.getInstance(SlowCycleA.class);
+
+        long start = System.nanoTime();
+        Assert.assertFalse(injector.getInstance(LifecycleManager.class).start(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
     private void assertSingleExecution(Recorder recorder) {
         Set<String> duplicateCheck = Sets.newHashSet();
         for (String s : recorder.getRecordings()) {